@@ -12,6 +12,8 @@
 #   load     - Normal load (50 users, 5 minutes)
 #   stress   - High load (100 users, 10 minutes)
 #   spike    - Spike test (200 users, 15 minutes)
+#   login-burst - 20 API users for 5 minutes, with 200 users hammering login
+#                 after the first minute; compares API latency before and during
 #
 # Examples:
 #   ./run-perf-tests.sh smoke                    # Smoke test on localhost
@@ -21,6 +23,10 @@
 #   - Docker or Podman installed
 #   - Target application running
 #
+# Optional:
+#   ADMIN_TOKEN - JWT of an admin user; when set, the summary includes the average time
+#                 requests held a database connection during the run
+#
 # Output:
 #   - JTL results: reports/results-{timestamp}.jtl
 #   - HTML report: reports/report-{timestamp}/
@@ -69,9 +75,17 @@ case "$TEST_TYPE" in
         DURATION=900
         echo -e "${BLUE}Running SPIKE test: 200 users, 15 minutes${NC}"
         ;;
+    login-burst)
+        USERS=20
+        RAMP_UP=10
+        DURATION=300
+        LOGIN_BURST_USERS=200
+        LOGIN_BURST_DELAY=60
+        echo -e "${BLUE}Running LOGIN BURST test: 20 API users, 200 login users after 1 minute, 5 minutes${NC}"
+        ;;
     *)
         echo -e "${RED}Unknown test type: $TEST_TYPE${NC}"
-        echo "Available types: smoke, load, stress, spike"
+        echo "Available types: smoke, load, stress, spike, login-burst"
         exit 1
         ;;
 esac
@@ -99,6 +113,82 @@ if ! curl -s --head --connect-timeout 5 "$TARGET_URL" > /dev/null 2>&1; then
     echo -e "${YELLOW}Warning: Target may not be reachable. Continuing anyway...${NC}"
 fi
 
+# Every thread logs in as its own user (perfuser<N>, burst threads perfburst<N>) from its own
+# X-Forwarded-For address, so the per-username and per-client hashing caps do not throttle the
+# run as if it were one client. Behind a load balancer the LB's view of the load generator wins,
+# so raise password-hashing.max-per-client there. Users that already exist are kept.
+register_users() {
+    local prefix=$1 count=$2
+    echo -e "${YELLOW}Registering up to $count ${prefix} users...${NC}"
+    for i in $(seq 1 "$count"); do
+        curl -s -o /dev/null -X POST "$TARGET_URL/api/auth/register" -H "Content-Type: application/json" \
+            -d "{\"username\":\"${prefix}${i}\",\"email\":\"${prefix}${i}@perf.test\",\"password\":\"perftest123\"}" || true
+    done
+}
+register_users perfuser "$USERS"
+register_users perfburst "${LOGIN_BURST_USERS:-0}"
+
+# Login burst thread group: logins without think time, starting after a baseline period.
+# 429 responses are the expected backpressure, not errors.
+LOGIN_BURST_GROUP=""
+if [ "${LOGIN_BURST_USERS:-0}" -gt 0 ]; then
+    LOGIN_BURST_GROUP=$(cat << EOF
+      <ThreadGroup guiclass="ThreadGroupGui" testclass="ThreadGroup" testname="Login Burst" enabled="true">
+        <stringProp name="ThreadGroup.num_threads">${LOGIN_BURST_USERS}</stringProp>
+        <stringProp name="ThreadGroup.ramp_time">5</stringProp>
+        <boolProp name="ThreadGroup.scheduler">true</boolProp>
+        <stringProp name="ThreadGroup.duration">$((DURATION - LOGIN_BURST_DELAY))</stringProp>
+        <stringProp name="ThreadGroup.delay">${LOGIN_BURST_DELAY}</stringProp>
+      </ThreadGroup>
+      <hashTree>
+        <HTTPSamplerProxy guiclass="HttpTestSampleGui" testclass="HTTPSamplerProxy" testname="POST Login Burst" enabled="true">
+          <boolProp name="HTTPSampler.postBodyRaw">true</boolProp>
+          <elementProp name="HTTPsampler.Arguments" elementType="Arguments">
+            <collectionProp name="Arguments.arguments">
+              <elementProp name="" elementType="HTTPArgument">
+                <boolProp name="HTTPArgument.always_encode">false</boolProp>
+                <stringProp name="Argument.value">{"username":"perfburst\${__threadNum}","password":"perftest123"}</stringProp>
+                <stringProp name="Argument.metadata">=</stringProp>
+              </elementProp>
+            </collectionProp>
+          </elementProp>
+          <stringProp name="HTTPSampler.domain">\${__P(host,localhost)}</stringProp>
+          <stringProp name="HTTPSampler.port">\${__P(port,8080)}</stringProp>
+          <stringProp name="HTTPSampler.protocol">http</stringProp>
+          <stringProp name="HTTPSampler.path">/api/auth/login</stringProp>
+          <stringProp name="HTTPSampler.method">POST</stringProp>
+          <boolProp name="HTTPSampler.use_keepalive">true</boolProp>
+        </HTTPSamplerProxy>
+        <hashTree>
+          <HeaderManager guiclass="HeaderPanel" testclass="HeaderManager" testname="HTTP Headers" enabled="true">
+            <collectionProp name="HeaderManager.headers">
+              <elementProp name="Content-Type" elementType="Header">
+                <stringProp name="Header.name">Content-Type</stringProp>
+                <stringProp name="Header.value">application/json</stringProp>
+              </elementProp>
+              <elementProp name="X-Forwarded-For" elementType="Header">
+                <stringProp name="Header.name">X-Forwarded-For</stringProp>
+                <stringProp name="Header.value">198.19.\${__threadNum}.1</stringProp>
+              </elementProp>
+            </collectionProp>
+          </HeaderManager>
+          <hashTree/>
+          <ResponseAssertion guiclass="AssertionGui" testclass="ResponseAssertion" testname="OK or Throttled" enabled="true">
+            <collectionProp name="Asserion.test_strings">
+              <stringProp name="0">200|429</stringProp>
+            </collectionProp>
+            <stringProp name="Assertion.custom_message"></stringProp>
+            <stringProp name="Assertion.test_field">Assertion.response_code</stringProp>
+            <boolProp name="Assertion.assume_success">true</boolProp>
+            <intProp name="Assertion.test_type">1</intProp>
+          </ResponseAssertion>
+          <hashTree/>
+        </hashTree>
+      </hashTree>
+EOF
+)
+fi
+
 # Generate JMeter test plan dynamically
 TEST_PLAN_FILE="$SCRIPT_DIR/openflow-test-${TEST_TYPE}.jmx"
 cat > "$TEST_PLAN_FILE" << EOF
@@ -148,7 +238,7 @@ cat > "$TEST_PLAN_FILE" << EOF
             <collectionProp name="Arguments.arguments">
               <elementProp name="" elementType="HTTPArgument">
                 <boolProp name="HTTPArgument.always_encode">false</boolProp>
-                <stringProp name="Argument.value">{"username":"perftest","password":"perftest123"}</stringProp>
+                <stringProp name="Argument.value">{"username":"perfuser\${__threadNum}","password":"perftest123"}</stringProp>
                 <stringProp name="Argument.metadata">=</stringProp>
               </elementProp>
             </collectionProp>
@@ -169,6 +259,10 @@ cat > "$TEST_PLAN_FILE" << EOF
                 <stringProp name="Header.name">Content-Type</stringProp>
                 <stringProp name="Header.value">application/json</stringProp>
               </elementProp>
+              <elementProp name="X-Forwarded-For" elementType="Header">
+                <stringProp name="Header.name">X-Forwarded-For</stringProp>
+                <stringProp name="Header.value">198.18.\${__threadNum}.1</stringProp>
+              </elementProp>
             </collectionProp>
           </HeaderManager>
           <hashTree/>
@@ -178,6 +272,7 @@ cat > "$TEST_PLAN_FILE" << EOF
         </ConstantTimer>
         <hashTree/>
       </hashTree>
+${LOGIN_BURST_GROUP}
       <ResultCollector guiclass="SummaryReport" testclass="ResultCollector" testname="Summary Report" enabled="true">
         <boolProp name="ResultCollector.error_logging">false</boolProp>
         <objProp>
@@ -225,6 +320,15 @@ echo -e "${YELLOW}Starting JMeter test...${NC}"
 echo "This may take several minutes..."
 echo ""
 
+# Connection pool counters are cumulative, so snapshot them around the run
+pool_stats() {
+    if [ -n "$ADMIN_TOKEN" ]; then
+        curl -s -H "Authorization: Bearer $ADMIN_TOKEN" "$TARGET_URL/api/database/pool-stats" || true
+    fi
+}
+pool_stat() { echo "$1" | sed -n "s/.*\"$2\":\([0-9.]*\).*/\1/p"; }
+POOL_BEFORE=$(pool_stats)
+
 RESULT_FILE="results-${TEST_TYPE}-${TIMESTAMP}.jtl"
 REPORT_FOLDER="report-${TEST_TYPE}-${TIMESTAMP}"
 
@@ -242,6 +346,8 @@ $CONTAINER_RUNTIME run --rm \
     -Jport=8080 \
     || TEST_EXIT_CODE=$?
 
+POOL_AFTER=$(pool_stats)
+
 # Clean up generated test plan
 rm -f "$TEST_PLAN_FILE"
 
@@ -274,6 +380,24 @@ if [ -f "$REPORT_DIR/${RESULT_FILE}" ]; then
         ERROR_RATE=$(echo "scale=2; $ERROR_COUNT * 100 / $TOTAL_SAMPLES" | bc)
         echo "Error Rate: ${ERROR_RATE}%"
     fi
+    
+    if [ "${LOGIN_BURST_USERS:-0}" -gt 0 ]; then
+        # 95th percentile of public board latency before and during the login burst; they should match
+        p95() { sort -n | awk '{ v[NR] = $1 } END { if (NR) print v[int((NR * 95 + 99) / 100)] "ms (" NR " samples)"; else print "n/a" }'; }
+        START=$(sed -n 2p "$REPORT_DIR/${RESULT_FILE}" | cut -d, -f1)
+        echo "GET Public Boards p95 before burst: $(awk -F, -v s="$START" -v d="$LOGIN_BURST_DELAY" 'NR > 1 && $3 == "GET Public Boards" && $1 - s < d * 1000 { print $2 }' "$REPORT_DIR/${RESULT_FILE}" | p95)"
+        echo "GET Public Boards p95 during burst: $(awk -F, -v s="$START" -v d="$LOGIN_BURST_DELAY" 'NR > 1 && $3 == "GET Public Boards" && $1 - s >= d * 1000 { print $2 }' "$REPORT_DIR/${RESULT_FILE}" | p95)"
+        echo "Burst logins throttled (429): $(awk -F, 'NR > 1 && $3 == "POST Login Burst" && $4 == 429' "$REPORT_DIR/${RESULT_FILE}" | wc -l)"
+    fi
+
+    if [ -n "$POOL_BEFORE" ] && [ -n "$POOL_AFTER" ]; then
+        USAGES=$(( $(pool_stat "$POOL_AFTER" usages) - $(pool_stat "$POOL_BEFORE" usages) ))
+        USAGE_MS=$(( $(pool_stat "$POOL_AFTER" usageMillisTotal) - $(pool_stat "$POOL_BEFORE" usageMillisTotal) ))
+        if [ "$USAGES" -gt 0 ]; then
+            echo "DB connection checkouts: $USAGES, average hold time: $(echo "scale=2; $USAGE_MS / $USAGES" | bc)ms"
+        fi
+        echo "DB connection max hold time since startup: $(pool_stat "$POOL_AFTER" usageMillisMax)ms, timeouts: $(pool_stat "$POOL_AFTER" timeouts)"
+    fi
 fi
 
 exit ${TEST_EXIT_CODE:-0}
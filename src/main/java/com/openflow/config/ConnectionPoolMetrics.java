@@ -0,0 +1,118 @@
+package com.openflow.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool statistics recorded by Hikari: how long requests wait for a connection and how
+ * long they hold it. The counters are cumulative since startup, so the average hold time of a load
+ * test is the difference of two snapshots. With a read replica configured, the totals cover both
+ * the primary and the replica pool.
+ */
+@Component
+public class ConnectionPoolMetrics implements BeanPostProcessor, MetricsTrackerFactory {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final AtomicLong maxUsageMillis = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    // Pool name to its occupancy and connections handed out, sorted for a stable report
+    private final Map<String, PoolStats> poolStats = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> poolUsages = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // The tracker must be set before the pool starts on the first getConnection()
+        if (bean instanceof HikariDataSource dataSource && !dataSource.isRunning()) {
+            dataSource.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats.put(poolName, poolStats);
+        LongAdder poolUsage = poolUsages.computeIfAbsent(poolName, name -> new LongAdder());
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisitions.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usages.increment();
+                poolUsage.increment();
+                usageMillis.add(elapsedBorrowedMillis);
+                maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Current pool occupancy and cumulative acquire and hold times, per pool and in total.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        // Listed first: the totals below must come last for scripts that read the last match
+        Map<String, Object> pools = new LinkedHashMap<>();
+        int active = 0, idle = 0, total = 0, max = 0, pending = 0;
+        for (Map.Entry<String, PoolStats> entry : poolStats.entrySet()) {
+            PoolStats pool = entry.getValue();
+            Map<String, Object> poolEntry = new LinkedHashMap<>();
+            poolEntry.put("active", pool.getActiveConnections());
+            poolEntry.put("idle", pool.getIdleConnections());
+            poolEntry.put("total", pool.getTotalConnections());
+            poolEntry.put("max", pool.getMaxConnections());
+            poolEntry.put("pendingThreads", pool.getPendingThreads());
+            poolEntry.put("checkouts", poolUsages.get(entry.getKey()).sum());
+            pools.put(entry.getKey(), poolEntry);
+            active += pool.getActiveConnections();
+            idle += pool.getIdleConnections();
+            total += pool.getTotalConnections();
+            max += pool.getMaxConnections();
+            pending += pool.getPendingThreads();
+        }
+        if (!pools.isEmpty()) {
+            stats.put("pools", pools);
+            stats.put("active", active);
+            stats.put("idle", idle);
+            stats.put("total", total);
+            stats.put("max", max);
+            stats.put("pendingThreads", pending);
+        }
+        long acquired = acquisitions.sum();
+        long used = usages.sum();
+        stats.put("acquisitions", acquired);
+        stats.put("acquireMillisAvg", acquired > 0 ? acquireNanos.sum() / (double) acquired / 1_000_000 : 0.0);
+        stats.put("acquireMillisMax", TimeUnit.NANOSECONDS.toMillis(maxAcquireNanos.get()));
+        stats.put("usages", used);
+        stats.put("usageMillisTotal", usageMillis.sum());
+        stats.put("usageMillisAvg", used > 0 ? usageMillis.sum() / (double) used : 0.0);
+        stats.put("usageMillisMax", maxUsageMillis.get());
+        stats.put("timeouts", timeouts.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,240 @@
+package com.openflow.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary. After a
+ * user's read-write transaction commits, their reads stay on the primary for the replica's
+ * maximum lag, so they see their own writes. While the replica is unhealthy all reads go to the
+ * primary. Must sit behind a LazyConnectionDataSourceProxy, so the pool is only chosen on the
+ * first statement, once the transaction's read-only flag is set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    enum Target { PRIMARY, REPLICA }
+
+    // Seconds a replica health check may take
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static final ThreadLocal<Boolean> forcePrimary = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final LongSupplier currentTimeMillis;
+
+    // Username to the time until which their reads stay on the primary
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    // Username to when this node last told the other nodes about a write
+    private final Map<String, Long> lastPublished = new ConcurrentHashMap<>();
+
+    private volatile boolean replicaHealthy = true;
+    private volatile Consumer<String> writePublisher = username -> {};
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+    private final LongAdder replicaFailures = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis) {
+        this(primary, replica, maxLagMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Reads the time from the given source, so tests can move it past the lag without waiting.
+     */
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis,
+                               LongSupplier currentTimeMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.currentTimeMillis = currentTimeMillis;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    /**
+     * Tell the other nodes that a user wrote, in the writing transaction. They keep the user on the
+     * primary for twice the maximum lag, so one message covers this node's writes for a whole lag.
+     */
+    public void setWritePublisher(Consumer<String> writePublisher) {
+        this.writePublisher = writePublisher;
+    }
+
+    /**
+     * Keep a user who wrote on another node on the primary.
+     */
+    public void markRemoteWrite(String username) {
+        stickyUntil.merge(username, currentTimeMillis.getAsLong() + 2 * maxLagMillis, Math::max);
+    }
+
+    /**
+     * Run reads on the primary, for lookups that must see a write made a moment ago on any node,
+     * such as resolving the user of a token issued at registration. Only affects transactions
+     * started inside; without replica routing the reads simply run.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (forcePrimary.get() != null) {
+            return reads.get();
+        }
+        forcePrimary.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            forcePrimary.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite(username);
+            return Target.PRIMARY;
+        }
+        if (forcePrimary.get() != null) {
+            return Target.PRIMARY;
+        }
+        if (username != null && stickyUntil.getOrDefault(username, 0L) > currentTimeMillis.getAsLong()) {
+            stickyReads.increment();
+            return Target.PRIMARY;
+        }
+        if (!replicaHealthy) {
+            fallbackReads.increment();
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineTargetDataSource() != replica) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            // Serve this read from the primary and keep off the replica until a health check passes
+            markReplicaUnhealthy(e);
+            fallbackReads.increment();
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Check that the replica hands out valid connections, and drop expired stickiness.
+     */
+    public void checkReplicaHealth() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection is not valid");
+            }
+            if (!replicaHealthy) {
+                logger.info("Replica is healthy again, routing read-only transactions to it");
+                replicaHealthy = true;
+            }
+        } catch (SQLException e) {
+            markReplicaUnhealthy(e);
+        }
+        long now = currentTimeMillis.getAsLong();
+        stickyUntil.values().removeIf(until -> until <= now);
+        lastPublished.values().removeIf(published -> published <= now - maxLagMillis);
+    }
+
+    private void markReplicaUnhealthy(SQLException e) {
+        replicaFailures.increment();
+        if (replicaHealthy) {
+            logger.warn("Replica is unavailable, routing all reads to the primary: {}", e.getMessage());
+            replicaHealthy = false;
+        }
+    }
+
+    /**
+     * Once a user's read-write transaction commits, keep their reads on the primary.
+     */
+    private void trackWrite(String username) {
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean published;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                Long last = lastPublished.get(username);
+                if (last == null || currentTimeMillis.getAsLong() - last > maxLagMillis) {
+                    try {
+                        writePublisher.accept(username);
+                        published = true;
+                    } catch (RuntimeException e) {
+                        // The write itself must not fail; other nodes may then serve stale reads
+                        logger.warn("Failed to publish write of {}: {}", username, e.getMessage());
+                    }
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                long now = currentTimeMillis.getAsLong();
+                stickyUntil.merge(username, now + maxLagMillis, Math::max);
+                if (published) {
+                    lastPublished.put(username, now);
+                }
+            }
+        });
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Connections handed out per pool, reads kept on the primary and replica health.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaHealthy", replicaHealthy);
+        stats.put("maxLagMillis", maxLagMillis);
+        stats.put("primaryConnections", primaryConnections.sum());
+        stats.put("replicaConnections", replicaConnections.sum());
+        stats.put("stickyReads", stickyReads.sum());
+        stats.put("fallbackReads", fallbackReads.sum());
+        stats.put("replicaFailures", replicaFailures.sum());
+        stats.put("stickyUsers", stickyUntil.size());
+        return stats;
+    }
+}
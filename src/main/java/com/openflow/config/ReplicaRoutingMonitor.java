@@ -0,0 +1,41 @@
+package com.openflow.config;
+
+import com.openflow.service.CacheInvalidationBus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the replica's health in the background and shares users' writes between nodes over the
+ * cache invalidation bus, so a user whose next request lands on another node still reads from the
+ * primary. Kept apart from the data source beans, which the bus itself depends on.
+ */
+@Component
+@ConditionalOnExpression(ReplicaDataSourceConfig.REPLICA_CONFIGURED)
+public class ReplicaRoutingMonitor {
+
+    static final String CACHE_NAME = "read-your-writes";
+
+    @Autowired
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CACHE_NAME, username -> {
+            if (username != null) {
+                readWriteRoutingDataSource.markRemoteWrite(username);
+            }
+        });
+        readWriteRoutingDataSource.setWritePublisher(username -> cacheInvalidationBus.publish(CACHE_NAME, username));
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicaHealth() {
+        readWriteRoutingDataSource.checkReplicaHealth();
+    }
+}
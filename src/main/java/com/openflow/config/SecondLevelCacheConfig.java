@@ -0,0 +1,120 @@
+package com.openflow.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache on Caffeine (through JCache) for the reference entities read on
+ * nearly every request. Every region is created here with its own size bound and time-to-live, so
+ * nothing grows without limit. Entries are invalidated when this instance writes the entity; the
+ * TTL bounds how long other instances can serve a stale copy.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String BOARD_REGION = "board";
+    public static final String STATUS_REGION = "status";
+    public static final String CUSTOM_FIELD_DEFINITION_REGION = "custom-field-definition";
+    public static final String BOARD_ACCESS_REGION = "board-access";
+    public static final String USER_REGION = "user";
+
+    // Query results of username lookups, evicted separately after JDBC user inserts
+    public static final String USER_LOOKUP_REGION = "user-lookup";
+
+    public static final List<String> ENTITY_REGIONS = List.of(
+            BOARD_REGION, STATUS_REGION, CUSTOM_FIELD_DEFINITION_REGION, BOARD_ACCESS_REGION, USER_REGION);
+
+    public static final List<String> QUERY_REGIONS = List.of(
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, USER_LOOKUP_REGION);
+
+    @Value("${second-level-cache.board.max-entries:10000}")
+    private long boardMaxEntries;
+
+    @Value("${second-level-cache.board.ttl-minutes:30}")
+    private long boardTtlMinutes;
+
+    @Value("${second-level-cache.status.max-entries:50000}")
+    private long statusMaxEntries;
+
+    @Value("${second-level-cache.status.ttl-minutes:30}")
+    private long statusTtlMinutes;
+
+    @Value("${second-level-cache.custom-field-definition.max-entries:20000}")
+    private long customFieldDefinitionMaxEntries;
+
+    @Value("${second-level-cache.custom-field-definition.ttl-minutes:30}")
+    private long customFieldDefinitionTtlMinutes;
+
+    // Access grants and users are checked for authorization, so other instances may only serve
+    // a revoked grant or an old role briefly
+    @Value("${second-level-cache.board-access.max-entries:50000}")
+    private long boardAccessMaxEntries;
+
+    @Value("${second-level-cache.board-access.ttl-minutes:2}")
+    private long boardAccessTtlMinutes;
+
+    @Value("${second-level-cache.user.max-entries:10000}")
+    private long userMaxEntries;
+
+    @Value("${second-level-cache.user.ttl-minutes:5}")
+    private long userTtlMinutes;
+
+    @Value("${second-level-cache.query.max-entries:20000}")
+    private long queryMaxEntries;
+
+    @Value("${second-level-cache.query.ttl-minutes:5}")
+    private long queryTtlMinutes;
+
+    @Bean
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        createRegion(cacheManager, BOARD_REGION, boardMaxEntries, boardTtlMinutes);
+        createRegion(cacheManager, STATUS_REGION, statusMaxEntries, statusTtlMinutes);
+        createRegion(cacheManager, CUSTOM_FIELD_DEFINITION_REGION, customFieldDefinitionMaxEntries, customFieldDefinitionTtlMinutes);
+        createRegion(cacheManager, BOARD_ACCESS_REGION, boardAccessMaxEntries, boardAccessTtlMinutes);
+        createRegion(cacheManager, USER_REGION, userMaxEntries, userTtlMinutes);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryMaxEntries, queryTtlMinutes);
+        createRegion(cacheManager, USER_LOOKUP_REGION, queryMaxEntries, queryTtlMinutes);
+        // One entry per table; evicting or expiring one would let stale query results through
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Create a region bounded to maxEntries that expires entries ttlMinutes after they were
+     * written; 0 disables either limit.
+     */
+    private static void createRegion(CacheManager cacheManager, String name, long maxEntries, long ttlMinutes) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxEntries > 0 ? OptionalLong.of(maxEntries) : OptionalLong.empty());
+        configuration.setExpireAfterWrite(ttlMinutes > 0
+                ? OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes))
+                : OptionalLong.empty());
+        // Hibernate stores immutable disassembled state, copying it on every access is wasted work
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
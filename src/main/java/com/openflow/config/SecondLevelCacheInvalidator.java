@@ -0,0 +1,101 @@
+package com.openflow.config;
+
+import com.openflow.service.CacheInvalidationBus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extends second-level cache invalidation to the other nodes. Every insert, update and delete of a
+ * cached entity is published on the cache invalidation bus in the writing transaction; receiving
+ * nodes evict the entity and their query results, which may include or exclude it.
+ */
+@Component
+public class SecondLevelCacheInvalidator implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String CACHE_NAME = "hibernate-entity";
+
+    static final String QUERY_REGION_CACHE_NAME = "hibernate-query-region";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void init() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        cacheInvalidationBus.subscribe(CACHE_NAME, this::evict);
+        cacheInvalidationBus.subscribe(QUERY_REGION_CACHE_NAME, region -> getCache().evictQueryRegion(region));
+    }
+
+    /**
+     * Drop a query region on all nodes after a write Hibernate does not see, such as a JDBC batch.
+     */
+    public void evictQueryRegion(String region) {
+        cacheInvalidationBus.evictLocallyAndPublish(QUERY_REGION_CACHE_NAME, region,
+                () -> getCache().evictQueryRegion(region));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void publish(EntityPersister persister, Object id) {
+        if (persister.canWriteToCache()) {
+            cacheInvalidationBus.publish(CACHE_NAME, persister.getEntityName() + "#" + id);
+        }
+    }
+
+    /**
+     * Evict an entity published by another node, or all cached entities for a null key.
+     */
+    private void evict(String key) {
+        Cache cache = getCache();
+        if (key == null) {
+            cache.evictAllRegions();
+            return;
+        }
+        int separator = key.lastIndexOf('#');
+        // All cached entities have Long ids
+        cache.evictEntityData(key.substring(0, separator), Long.valueOf(key.substring(separator + 1)));
+        cache.evictQueryRegions();
+    }
+
+    private Cache getCache() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+    }
+}
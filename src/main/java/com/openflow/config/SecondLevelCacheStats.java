@@ -0,0 +1,69 @@
+package com.openflow.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Second-level cache statistics recorded by Hibernate. The counters are cumulative since startup,
+ * so the hit ratio of a load test is the difference of two snapshots.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Hits, misses and puts of every entity and query region, and the overall
+     * number of statements that reached the database.
+     */
+    public Map<String, Object> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", statistics.isStatisticsEnabled());
+        stats.put("hits", statistics.getSecondLevelCacheHitCount());
+        stats.put("misses", statistics.getSecondLevelCacheMissCount());
+        stats.put("puts", statistics.getSecondLevelCachePutCount());
+        stats.put("queryHits", statistics.getQueryCacheHitCount());
+        stats.put("queryMisses", statistics.getQueryCacheMissCount());
+        stats.put("queryPuts", statistics.getQueryCachePutCount());
+        stats.put("entityLoads", statistics.getEntityLoadCount());
+        stats.put("statements", statistics.getPrepareStatementCount());
+        stats.put("entityRegions", regionStats(statistics, SecondLevelCacheConfig.ENTITY_REGIONS, false));
+        stats.put("queryRegions", regionStats(statistics, SecondLevelCacheConfig.QUERY_REGIONS, true));
+        return stats;
+    }
+
+    private static Map<String, Object> regionStats(Statistics statistics, List<String> regions, boolean query) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics = query
+                    ? statistics.getQueryRegionStatistics(region)
+                    : statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            regionStats.put("hits", hits);
+            regionStats.put("misses", misses);
+            regionStats.put("puts", regionStatistics.getPutCount());
+            regionStats.put("hitRatio", hits + misses > 0 ? hits / (double) (hits + misses) : 0.0);
+            // Only reported by cache providers with extended statistics
+            if (regionStatistics.getElementCountInMemory() >= 0) {
+                regionStats.put("entries", regionStatistics.getElementCountInMemory());
+            }
+            result.put(region, regionStats);
+        }
+        return result;
+    }
+}
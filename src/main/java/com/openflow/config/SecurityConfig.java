@@ -43,9 +43,13 @@ public class SecurityConfig {
     @Value("${AZURE_CLIENT_ID:}")
     private String azureClientId;
 
+    // BCrypt work factor; existing hashes are upgraded when their users next log in
+    @Value("${password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
     
     private boolean isAzureEnabled() {
@@ -87,6 +91,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**", "/h2-console/**", "/oauth2/**", "/login/oauth2/**", "/login").permitAll()
                 // Public board endpoints - anonymous access allowed
                 .requestMatchers("/api/public/**").permitAll()
+                // Local storage downloads are authorized by the URL signature
+                .requestMatchers("/api/storage/files").permitAll()
                 // All other requests require authentication
                 // Role-based authorization is handled via @PreAuthorize annotations on controllers
                 .anyRequest().authenticated()
@@ -150,6 +156,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(origins);
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Tells browser clients of GET /api/public/boards that the list was cut
+        configuration.setExposedHeaders(Arrays.asList("X-Has-More"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,6 +1,9 @@
 package com.openflow.controller;
 
+import com.openflow.dto.UploadRequestDto;
+import com.openflow.dto.UploadSlotDto;
 import com.openflow.model.Attachment;
+import com.openflow.service.AttachmentArchiveService;
 import com.openflow.service.AttachmentService;
 import com.openflow.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -8,13 +11,23 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -27,10 +40,14 @@ import java.util.Map;
 @RequestMapping("/api/attachments")
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class AttachmentController {
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentController.class);
 
     @Autowired
     private AttachmentService attachmentService;
 
+    @Autowired
+    private AttachmentArchiveService attachmentArchiveService;
+
     @Autowired
     private UserService userService;
 
@@ -49,6 +66,28 @@ public class AttachmentController {
         return ResponseEntity.ok(Map.of("enabled", attachmentService.isS3Enabled()));
     }
 
+    /**
+     * Get presigned URL cache statistics.
+     */
+    @Operation(summary = "Get presigned URL cache stats", description = "Hit, miss and eviction counts and hit rate of the presigned download URL cache")
+    @ApiResponse(responseCode = "200", description = "Cache statistics retrieved")
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(attachmentService.getPresignedUrlCacheStats());
+    }
+
+    /**
+     * Get background file deletion statistics.
+     */
+    @Operation(summary = "Get storage cleanup stats", description = "Number of files queued for deletion and of deletions that ran out of retries, with their keys and last errors")
+    @ApiResponse(responseCode = "200", description = "Cleanup statistics retrieved")
+    @GetMapping("/cleanup-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCleanupStats() {
+        return ResponseEntity.ok(attachmentService.getStorageCleanupStats());
+    }
+
     /**
      * Get all attachments for a task.
      */
@@ -62,6 +101,67 @@ public class AttachmentController {
         return ResponseEntity.ok(attachments);
     }
 
+    /**
+     * Download all attachments of a task as a ZIP archive.
+     */
+    @Operation(summary = "Download task attachments as ZIP", description = "Stream all attachments of a task as one ZIP archive, assembled while it is sent")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "ZIP archive streamed"),
+        @ApiResponse(responseCode = "400", description = "Task not found, access denied or S3 not enabled")
+    })
+    @GetMapping(value = "/task/{taskId}/archive", produces = "application/zip")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public void downloadTaskArchive(
+            @Parameter(description = "Task ID") @PathVariable Long taskId,
+            HttpServletResponse response,
+            Authentication authentication) throws IOException {
+        List<Attachment> attachments;
+        try {
+            attachments = attachmentArchiveService.getTaskAttachments(taskId, getCurrentUserId(authentication));
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        streamArchive(attachments, false, "task-" + taskId + "-attachments.zip", response);
+    }
+
+    /**
+     * Download all attachments of a board as a ZIP archive, in one folder per task.
+     */
+    @Operation(summary = "Download board attachments as ZIP", description = "Stream all attachments of a board's tasks as one ZIP archive with a folder per task, assembled while it is sent")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "ZIP archive streamed"),
+        @ApiResponse(responseCode = "400", description = "Board not found, access denied or S3 not enabled")
+    })
+    @GetMapping(value = "/board/{boardId}/archive", produces = "application/zip")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public void downloadBoardArchive(
+            @Parameter(description = "Board ID") @PathVariable Long boardId,
+            HttpServletResponse response,
+            Authentication authentication) throws IOException {
+        List<Attachment> attachments;
+        try {
+            attachments = attachmentArchiveService.getBoardAttachments(boardId, getCurrentUserId(authentication));
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        streamArchive(attachments, true, "board-" + boardId + "-attachments.zip", response);
+    }
+
+    private void streamArchive(List<Attachment> attachments, boolean folderPerTask, String fileName,
+                               HttpServletResponse response) {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        try {
+            attachmentArchiveService.writeArchive(attachments, folderPerTask, response.getOutputStream());
+        } catch (IOException e) {
+            // The response is already committed, the client sees a truncated archive
+            logger.warn("Attachment archive {} aborted: {}", fileName, e.getMessage());
+        }
+    }
+
     /**
      * Upload a file attachment to a task.
      */
@@ -92,6 +192,90 @@ public class AttachmentController {
         }
     }
 
+    /**
+     * Upload a large file attachment by streaming the raw request body.
+     */
+    @Operation(summary = "Stream attachment upload", description = "Upload a file attachment sent as the raw request body (not multipart). The body is streamed to S3 in parts, so files of several GB are supported.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "File uploaded successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid file or S3 not enabled"),
+        @ApiResponse(responseCode = "413", description = "File too large")
+    })
+    @PostMapping(value = "/task/{taskId}/stream", consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> uploadAttachmentStream(
+            @Parameter(description = "Task ID") @PathVariable Long taskId,
+            @Parameter(description = "Original file name") @RequestParam String fileName,
+            HttpServletRequest request,
+            Authentication authentication) {
+        try {
+            long declaredLength = request.getContentLengthLong();
+            if (declaredLength == 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
+            }
+            if (declaredLength > attachmentService.getMaxStreamingFileSizeBytes()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", "File too large"));
+            }
+            
+            String contentType = request.getContentType() != null
+                    ? request.getContentType()
+                    : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            Long userId = getCurrentUserId(authentication);
+            Attachment attachment = attachmentService.uploadAttachmentStream(taskId, userId, fileName, contentType,
+                    request.getInputStream());
+            return ResponseEntity.ok(attachment);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to upload file"));
+        }
+    }
+
+    /**
+     * Request a presigned URL to upload an attachment directly to S3.
+     */
+    @Operation(summary = "Request direct upload", description = "Get a presigned PUT URL to upload a file attachment directly to S3. Send the returned headers with the upload, then call the confirm endpoint.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Upload slot created"),
+        @ApiResponse(responseCode = "400", description = "Invalid file or S3 not enabled")
+    })
+    @PostMapping("/task/{taskId}/uploads")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> requestUpload(
+            @Parameter(description = "Task ID") @PathVariable Long taskId,
+            @Valid @RequestBody UploadRequestDto request,
+            Authentication authentication) {
+        try {
+            Long userId = getCurrentUserId(authentication);
+            UploadSlotDto slot = attachmentService.requestUpload(taskId, userId, request);
+            return ResponseEntity.ok(slot);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Confirm a direct upload and create the attachment.
+     */
+    @Operation(summary = "Confirm direct upload", description = "Create the attachment for a file uploaded with a presigned URL")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Attachment created"),
+        @ApiResponse(responseCode = "400", description = "Upload not found or file not uploaded")
+    })
+    @PostMapping("/uploads/{uploadId}/confirm")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> confirmUpload(
+            @Parameter(description = "Upload ID") @PathVariable Long uploadId,
+            Authentication authentication) {
+        try {
+            Long userId = getCurrentUserId(authentication);
+            Attachment attachment = attachmentService.confirmUpload(uploadId, userId);
+            return ResponseEntity.ok(attachment);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get a download URL for an attachment.
      */
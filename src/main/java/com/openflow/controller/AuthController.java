@@ -4,14 +4,18 @@ import com.openflow.dto.AuthRequest;
 import com.openflow.dto.AuthResponse;
 import com.openflow.dto.RegisterRequest;
 import com.openflow.dto.UserInfoResponse;
+import com.openflow.dto.UserOptionPageDto;
 import com.openflow.model.Role;
 import com.openflow.model.User;
 import com.openflow.service.JwtService;
+import com.openflow.service.PasswordHashingService;
 import com.openflow.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,10 +24,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "${cors.allowed-origins}")
@@ -35,10 +35,13 @@ public class AuthController {
     private JwtService jwtService;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         try {
-            AuthResponse response = userService.register(request);
+            // The forwarded client address behind the load balancer (server.forward-headers-strategy)
+            AuthResponse response = userService.register(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingService.BusyException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("{\"error\":\"" + e.getMessage() + "\"}");
@@ -46,21 +49,29 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest request) {
+    public ResponseEntity<?> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
         if (request == null || request.getUsername() == null || request.getUsername().trim().isEmpty() ||
             request.getPassword() == null || request.getPassword().trim().isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("{\"error\":\"Username and password are required\"}");
         }
         try {
-            AuthResponse response = userService.login(request);
+            AuthResponse response = userService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingService.BusyException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("{\"error\":\"" + e.getMessage() + "\"}");
         }
     }
 
+    private ResponseEntity<?> tooManyRequests(PasswordHashingService.BusyException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("{\"error\":\"" + e.getMessage() + "\"}");
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
         try {
@@ -153,22 +164,20 @@ public class AuthController {
     }
 
     /**
-     * Get all users (for task assignment).
+     * Get all users one page at a time (for task assignment).
      * Available to all authenticated users.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<List<Map<String, Object>>> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Map<String, Object>> users = userService.getAllUsers().stream()
-                    .map(user -> Map.<String, Object>of(
-                            "id", user.getId(),
-                            "username", user.getUsername()
-                    ))
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(users);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            UserOptionPageDto page = userService.getUsersPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("{\"error\":\"" + e.getMessage() + "\"}");
         }
     }
 
@@ -1,6 +1,7 @@
 package com.openflow.controller;
 
 import com.openflow.dto.CommentDto;
+import com.openflow.dto.CommentPageDto;
 import com.openflow.model.User;
 import com.openflow.service.CommentService;
 import com.openflow.service.UserService;
@@ -73,6 +74,31 @@ public class CommentController {
         }
     }
 
+    /**
+     * Get one page of comments for a task using cursor pagination.
+     * Available to ADMIN and USER.
+     */
+    @Operation(summary = "Get a page of task comments", description = "Retrieve comments for a task one page at a time, oldest-first (order=asc) or newest-first (order=desc). Pass the returned nextCursor as cursor to fetch the following page. Requires access to the task's board.")
+    @ApiResponse(responseCode = "200", description = "Page of comments retrieved successfully")
+    @GetMapping("/task/{taskId}/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<CommentPageDto> getCommentsPageByTask(
+            @Parameter(description = "Task ID", required = true) @PathVariable Long taskId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size (default 50, max 100)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Sort order: asc (oldest first) or desc (newest first)") @RequestParam(defaultValue = "asc") String order,
+            Authentication authentication) {
+        try {
+            Long userId = getCurrentUserId(authentication);
+            CommentPageDto page = commentService.getCommentsPage(taskId, userId, cursor, limit, "desc".equalsIgnoreCase(order));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Create a new comment.
      * Available to ADMIN and USER.
@@ -112,6 +112,19 @@ public class CustomFieldController {
         return ResponseEntity.ok(values);
     }
 
+    /**
+     * Get visible custom field values for many tasks of a board in one request.
+     * Body is the list of task IDs; the response maps each task ID to its card values.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping("/values/visible")
+    public ResponseEntity<Map<Long, List<CustomFieldValueDto>>> getTasksVisibleFieldValues(
+            @RequestParam Long boardId,
+            @RequestBody List<Long> taskIds) {
+        Map<Long, List<CustomFieldValueDto>> values = customFieldService.getTasksVisibleFieldValues(taskIds, boardId);
+        return ResponseEntity.ok(values);
+    }
+
     /**
      * Set a single custom field value for a task.
      */
@@ -0,0 +1,89 @@
+package com.openflow.controller;
+
+import com.openflow.config.ConnectionPoolMetrics;
+import com.openflow.config.ReadWriteRoutingDataSource;
+import com.openflow.config.SecondLevelCacheStats;
+import com.openflow.service.CacheInvalidationBus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Database diagnostics for administrators.
+ */
+@Tag(name = "Database", description = "Database connection pool and cache diagnostics")
+@RestController
+@RequestMapping("/api/database")
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class DatabaseController {
+
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    private SecondLevelCacheStats secondLevelCacheStats;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    // Absent unless a read replica is configured
+    @Autowired(required = false)
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    /**
+     * Get connection pool statistics.
+     */
+    @Operation(summary = "Get connection pool stats", description = "Active, idle and waiting connections, and the average and maximum time requests waited for and held a connection since startup")
+    @ApiResponse(responseCode = "200", description = "Pool statistics retrieved")
+    @GetMapping("/pool-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPoolStats() {
+        return ResponseEntity.ok(connectionPoolMetrics.getStats());
+    }
+
+    /**
+     * Get second-level cache statistics.
+     */
+    @Operation(summary = "Get second-level cache stats", description = "Hits, misses and puts of the entity and query cache regions, and the number of statements sent to the database since startup")
+    @ApiResponse(responseCode = "200", description = "Cache statistics retrieved")
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheStats.getStats());
+    }
+
+    /**
+     * Get cache invalidation statistics.
+     */
+    @Operation(summary = "Get cache invalidation stats", description = "Invalidations this node published and received from other nodes, how long after being written they were applied, and when the transport last polled")
+    @ApiResponse(responseCode = "200", description = "Invalidation statistics retrieved")
+    @GetMapping("/cache-invalidation-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheInvalidationStats() {
+        return ResponseEntity.ok(cacheInvalidationBus.getStats());
+    }
+
+    /**
+     * Get read replica routing statistics.
+     */
+    @Operation(summary = "Get replica routing stats", description = "Connections handed out by the primary and the replica, reads kept on the primary after a user's write or while the replica is unhealthy, and the replica's health")
+    @ApiResponse(responseCode = "200", description = "Routing statistics retrieved")
+    @GetMapping("/routing-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRoutingStats() {
+        if (readWriteRoutingDataSource == null) {
+            return ResponseEntity.ok(Map.of("enabled", false));
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", true);
+        stats.putAll(readWriteRoutingDataSource.getStats());
+        return ResponseEntity.ok(stats);
+    }
+}
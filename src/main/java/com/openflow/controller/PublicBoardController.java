@@ -1,85 +1,173 @@
 package com.openflow.controller;
 
 import com.openflow.dto.BoardDto;
-import com.openflow.dto.StatusDto;
-import com.openflow.dto.TaskDto;
+import com.openflow.dto.BoardSummaryPageDto;
 import com.openflow.service.BoardService;
-import com.openflow.service.StatusService;
-import com.openflow.service.TaskService;
+import com.openflow.service.PublicBoardCache;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Public endpoints for anonymous access to public boards.
  * No authentication required for these endpoints.
+ * Board, status and task responses are served pre-serialized from {@link PublicBoardCache}
+ * with ETag and Cache-Control headers, so browsers and CDNs can absorb traffic spikes.
  */
 @RestController
 @RequestMapping("/api/public")
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class PublicBoardController {
+
+    private static final String HAS_MORE_HEADER = "X-Has-More";
+
+    private static final int MAX_PUBLIC_BOARDS = 100;
     
     @Autowired
     private BoardService boardService;
     
     @Autowired
-    private StatusService statusService;
-    
-    @Autowired
-    private TaskService taskService;
+    private PublicBoardCache publicBoardCache;
+
+    // How long browsers and CDNs may reuse a response without revalidating
+    @Value("${public-board-cache.max-age-seconds:30}")
+    private long maxAgeSeconds;
 
     /**
-     * Get all public boards (no authentication required).
+     * Get the first public boards in name order, at most 100 (no authentication required).
+     * Deprecated in favour of {@code /boards/page}, which pages through the whole directory.
+     * The X-Has-More response header is true when boards were left out.
      */
     @GetMapping("/boards")
     public ResponseEntity<List<BoardDto>> getPublicBoards() {
-        List<BoardDto> boards = boardService.getAllPublicBoardsDto();
-        return ResponseEntity.ok(boards);
+        // One extra board tells whether the list was cut
+        List<BoardDto> boards = boardService.getFirstPublicBoardsDto(MAX_PUBLIC_BOARDS + 1);
+        boolean hasMore = boards.size() > MAX_PUBLIC_BOARDS;
+        return ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(hasMore))
+                .body(hasMore ? boards.subList(0, MAX_PUBLIC_BOARDS) : boards);
     }
 
     /**
-     * Get a specific public board by ID (no authentication required).
+     * Get one page of the public board directory in name order, optionally filtered by
+     * name prefix (no authentication required).
      */
-    @GetMapping("/boards/{id}")
-    public ResponseEntity<BoardDto> getPublicBoard(@PathVariable Long id) {
+    @GetMapping("/boards/page")
+    public ResponseEntity<BoardSummaryPageDto> getPublicBoardDirectory(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            BoardDto board = boardService.getPublicBoardByIdDto(id);
-            return ResponseEntity.ok(board);
+            BoardSummaryPageDto page = boardService.getPublicBoardDirectory(q, cursor, limit);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                    .body(page);
         } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Get a specific public board by ID (no authentication required).
+     */
+    @GetMapping("/boards/{id}")
+    public ResponseEntity<byte[]> getPublicBoard(@PathVariable Long id, HttpServletRequest request) {
+        return serve(id, PublicBoardCache.View.BOARD, request);
+    }
+
     /**
      * Get statuses for a public board (no authentication required).
      */
     @GetMapping("/boards/{boardId}/statuses")
-    public ResponseEntity<List<StatusDto>> getPublicBoardStatuses(@PathVariable Long boardId) {
-        try {
-            // Verify board is public
-            boardService.getPublicBoardById(boardId);
-            List<StatusDto> statuses = statusService.getStatusesByBoardIdDtoPublic(boardId);
-            return ResponseEntity.ok(statuses);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<byte[]> getPublicBoardStatuses(@PathVariable Long boardId, HttpServletRequest request) {
+        return serve(boardId, PublicBoardCache.View.STATUSES, request);
     }
 
     /**
      * Get tasks for a public board (no authentication required).
      */
     @GetMapping("/boards/{boardId}/tasks")
-    public ResponseEntity<List<TaskDto>> getPublicBoardTasks(@PathVariable Long boardId) {
+    public ResponseEntity<byte[]> getPublicBoardTasks(@PathVariable Long boardId, HttpServletRequest request) {
+        return serve(boardId, PublicBoardCache.View.TASKS, request);
+    }
+
+    private ResponseEntity<byte[]> serve(Long boardId, PublicBoardCache.View view, HttpServletRequest request) {
+        PublicBoardCache.CachedResponse cached;
         try {
-            // Verify board is public
-            boardService.getPublicBoardById(boardId);
-            List<TaskDto> tasks = taskService.getTasksByBoardIdDtoPublic(boardId);
-            return ResponseEntity.ok(tasks);
+            cached = publicBoardCache.get(boardId, view);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
+
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.eTag())
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(cached.eTag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzippedJson());
+        }
+        return response.body(gunzip(cached.gzippedJson()));
     }
-}
 
+    /**
+     * Weak comparison of an If-None-Match header against the current ETag.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" explicitly refuses it
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gunzip(byte[] gzipped) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
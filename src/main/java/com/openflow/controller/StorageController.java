@@ -0,0 +1,196 @@
+package com.openflow.controller;
+
+import com.openflow.service.LocalStorageService;
+import com.openflow.service.StorageBackend;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Serves files of the local storage backend through signed download URLs.
+ * Only available with {@code storage.backend=local}; with S3, clients download from S3 directly.
+ */
+@Tag(name = "Storage", description = "Downloads from the local storage backend")
+@RestController
+@RequestMapping(LocalStorageService.DOWNLOAD_PATH)
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class StorageController {
+
+    // Set by Tomcat's NIO connector when it can send files with sendfile(2)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired(required = false)
+    private LocalStorageService localStorageService;
+
+    /**
+     * Download a file with a signed URL.
+     * Supports conditional requests (ETag / If-None-Match) and a single byte range.
+     * The file is sent with sendfile when the connector supports it, otherwise with
+     * {@link FileChannel#transferTo}, so its bytes are not copied through the heap.
+     */
+    @Operation(summary = "Download file", description = "Download a locally stored file with a signed URL returned by the API. Supports Range and If-None-Match.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "File content"),
+        @ApiResponse(responseCode = "206", description = "Partial file content"),
+        @ApiResponse(responseCode = "304", description = "File not modified"),
+        @ApiResponse(responseCode = "403", description = "Invalid or expired signature"),
+        @ApiResponse(responseCode = "404", description = "File not found"),
+        @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+    })
+    @GetMapping
+    public void download(
+            @Parameter(description = "Storage key") @RequestParam String key,
+            @Parameter(description = "Expiry (epoch seconds)") @RequestParam long expires,
+            @Parameter(description = "URL signature") @RequestParam String signature,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (localStorageService == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!localStorageService.isValidSignature(key, expires, signature)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        Optional<StorageBackend.StoredObject> stored = localStorageService.stat(key);
+        if (stored.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        StorageBackend.StoredObject object = stored.get();
+
+        response.setHeader(HttpHeaders.ETAG, object.eTag());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // The URL expires, so the browser may cache the response until then
+        long maxAge = Math.max(0, expires - System.currentTimeMillis() / 1000);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAge);
+
+        if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), object.eTag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = object.size();
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(object.eTag()))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(object.contentType());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        Path file = localStorageService.getFile(key);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a Range header against the file size. Returns {start, end} for a single satisfiable range,
+     * an empty array when the header should be ignored (not bytes, or several ranges), and null when
+     * the range cannot be satisfied.
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || end < start) {
+                    return new long[0];
+                }
+                if (start >= size) {
+                    return null;
+                }
+                end = Math.min(end, size - 1);
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
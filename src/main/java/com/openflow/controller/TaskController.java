@@ -2,6 +2,7 @@ package com.openflow.controller;
 
 import com.openflow.model.Task;
 import com.openflow.dto.TaskDto;
+import com.openflow.dto.TaskQueryDto;
 import com.openflow.service.TaskService;
 import com.openflow.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -64,6 +65,28 @@ public class TaskController {
         }
     }
 
+    /**
+     * Get tasks for a board filtered and sorted by custom field values.
+     * Available to ADMIN and USER.
+     */
+    @Operation(summary = "Query tasks by custom fields", description = "Retrieve a board's tasks matching all custom field filters, optionally sorted by a custom field. Only NUMBER, DATE, DROPDOWN and CHECKBOX fields can be filtered or sorted. Requires READ access to the board.")
+    @ApiResponse(responseCode = "200", description = "Matching tasks retrieved successfully")
+    @PostMapping("/query")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<TaskDto>> queryTasks(
+            @Parameter(description = "Board ID", required = true) @RequestParam Long boardId,
+            @Valid @RequestBody TaskQueryDto query,
+            Authentication authentication) {
+        try {
+            Long userId = getCurrentUserId(authentication);
+            List<TaskDto> tasks = taskService.queryTasksDto(boardId, query, userId);
+            return ResponseEntity.ok(tasks);
+        } catch (RuntimeException e) {
+            logger.error("Error querying tasks for board: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get a specific task by ID.
      * Available to ADMIN and USER.
@@ -1,22 +1,33 @@
 package com.openflow.controller;
 
+import com.openflow.dto.UploadRequestDto;
+import com.openflow.dto.UploadSlotDto;
 import com.openflow.dto.UserInfoResponse;
-import com.openflow.model.User;
+import com.openflow.dto.UserOptionDto;
+import com.openflow.dto.UserOptionPageDto;
+import com.openflow.service.UserImportService;
 import com.openflow.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * User management endpoints.
@@ -26,10 +37,14 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class UserController {
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
     /**
      * Get current user info.
      */
@@ -44,21 +59,48 @@ public class UserController {
     }
 
     /**
-     * Get all users (for admin and user assignment).
+     * Get all users one page at a time (for admin and user assignment).
      */
-    @Operation(summary = "Get all users", description = "Get list of all users")
-    @ApiResponse(responseCode = "200", description = "Users list retrieved")
+    @Operation(summary = "Get all users", description = "Get users in username order one page at a time. Pass the returned nextCursor as cursor to fetch the following page.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of users retrieved"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<List<Map<String, Object>>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<Map<String, Object>> response = users.stream()
-                .map(user -> Map.<String, Object>of(
-                        "id", user.getId(),
-                        "username", user.getUsername()
-                ))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> getAllUsers(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 100)") @RequestParam(required = false) Integer limit) {
+        try {
+            UserOptionPageDto page = userService.getUsersPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Search users for the assignee picker.
+     */
+    @Operation(summary = "Search users", description = "Find users whose username or email starts with q (case-insensitive). With boardId, the board's owner and members are listed first and flagged as boardMember; requires access to the board.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matching users retrieved"),
+        @ApiResponse(responseCode = "400", description = "Board not found or access denied")
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> searchUsers(
+            @Parameter(description = "Username or email prefix") @RequestParam(required = false) String q,
+            @Parameter(description = "Board whose members are ranked first") @RequestParam(required = false) Long boardId,
+            @Parameter(description = "Maximum number of results (default 20, max 50)") @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        try {
+            Long userId = userService.findByUsername(authentication.getName()).getId();
+            List<UserOptionDto> users = userService.searchUsers(q, boardId, limit, userId);
+            return ResponseEntity.ok(users);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     /**
@@ -95,19 +137,65 @@ public class UserController {
         }
     }
 
+    /**
+     * Request a presigned URL to upload a profile picture directly to S3.
+     */
+    @Operation(summary = "Request direct profile picture upload", description = "Get a presigned PUT URL to upload a profile picture directly to S3. Send the returned headers with the upload, then call the confirm endpoint.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Upload slot created"),
+        @ApiResponse(responseCode = "400", description = "Invalid file or S3 not enabled")
+    })
+    @PostMapping("/me/profile-picture/uploads")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> requestProfilePictureUpload(
+            @Valid @RequestBody UploadRequestDto request,
+            Authentication authentication) {
+        try {
+            String username = authentication.getName();
+            UploadSlotDto slot = userService.requestProfilePictureUpload(username, request);
+            return ResponseEntity.ok(slot);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Confirm a direct profile picture upload.
+     */
+    @Operation(summary = "Confirm direct profile picture upload", description = "Set a picture uploaded with a presigned URL as the current user's profile picture")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Profile picture updated"),
+        @ApiResponse(responseCode = "400", description = "Upload not found or file not uploaded")
+    })
+    @PostMapping("/me/profile-picture/uploads/{uploadId}/confirm")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> confirmProfilePictureUpload(
+            @PathVariable Long uploadId,
+            Authentication authentication) {
+        try {
+            String username = authentication.getName();
+            String url = userService.confirmProfilePictureUpload(username, uploadId);
+            return ResponseEntity.ok(Map.of("url", url));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get profile picture URL.
      */
-    @Operation(summary = "Get profile picture URL", description = "Get the presigned URL for the current user's profile picture")
+    @Operation(summary = "Get profile picture URL", description = "Get the presigned URL for the current user's profile picture, or for its smallest thumbnail at least `size` pixels wide")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Profile picture URL retrieved"),
         @ApiResponse(responseCode = "404", description = "No profile picture set")
     })
     @GetMapping("/me/profile-picture")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<?> getProfilePictureUrl(Authentication authentication) {
+    public ResponseEntity<?> getProfilePictureUrl(
+            @Parameter(description = "Edge length in pixels; omit for the original") @RequestParam(required = false) Integer size,
+            Authentication authentication) {
         String username = authentication.getName();
-        String url = userService.getProfilePictureUrl(username);
+        String url = userService.getProfilePictureUrl(username, size);
         
         if (url == null) {
             return ResponseEntity.ok(Map.of("url", (Object) null));
@@ -128,5 +216,29 @@ public class UserController {
         userService.deleteProfilePicture(username);
         return ResponseEntity.noContent().build();
     }
-}
 
+    /**
+     * Bulk-create password users from CSV or NDJSON (admin only).
+     */
+    @Operation(summary = "Import users", description = "Create password users from a CSV body (header with username, email, password and optional role columns) or an NDJSON body (one object per line). Rows follow the registration rules. The response streams one NDJSON result per row followed by a DONE line with the created and failed counts.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Per-row results streamed"),
+        @ApiResponse(responseCode = "400", description = "Invalid CSV header or another import is running")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith("text/csv");
+        response.setContentType("application/x-ndjson");
+        try {
+            userImportService.importUsers(request.getInputStream(), csv, response.getOutputStream());
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+                return;
+            }
+            // Results already sent; the client sees the stream end without a DONE line
+            logger.warn("User import aborted: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.openflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Public board directory entry.
+ */
+public class BoardSummaryDto {
+    private Long id;
+    private String name;
+    private Long taskCount;
+    // LOWER(name) as computed by the database, the position of the board in the directory order
+    private String sortName;
+
+    public BoardSummaryDto() {}
+
+    public BoardSummaryDto(Long id, String name, Long taskCount, String sortName) {
+        this.id = id;
+        this.name = name;
+        this.taskCount = taskCount;
+        this.sortName = sortName;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getTaskCount() { return taskCount; }
+    public void setTaskCount(Long taskCount) { this.taskCount = taskCount; }
+
+    @JsonIgnore
+    public String getSortName() { return sortName; }
+    public void setSortName(String sortName) { this.sortName = sortName; }
+}
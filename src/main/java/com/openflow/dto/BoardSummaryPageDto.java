@@ -0,0 +1,26 @@
+package com.openflow.dto;
+
+import java.util.List;
+
+public class BoardSummaryPageDto {
+    private List<BoardSummaryDto> boards;
+    private String nextCursor; // Pass as cursor to fetch the next page; null when there are no more boards
+    private boolean hasMore;
+
+    public BoardSummaryPageDto() {}
+
+    public BoardSummaryPageDto(List<BoardSummaryDto> boards, String nextCursor, boolean hasMore) {
+        this.boards = boards;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<BoardSummaryDto> getBoards() { return boards; }
+    public void setBoards(List<BoardSummaryDto> boards) { this.boards = boards; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
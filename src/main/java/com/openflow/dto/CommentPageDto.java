@@ -0,0 +1,26 @@
+package com.openflow.dto;
+
+import java.util.List;
+
+public class CommentPageDto {
+    private List<CommentDto> comments;
+    private Long nextCursor; // Pass as cursor to fetch the next page; null when there are no more comments
+    private boolean hasMore;
+
+    public CommentPageDto() {}
+
+    public CommentPageDto(List<CommentDto> comments, Long nextCursor, boolean hasMore) {
+        this.comments = comments;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<CommentDto> getComments() { return comments; }
+    public void setComments(List<CommentDto> comments) { this.comments = comments; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
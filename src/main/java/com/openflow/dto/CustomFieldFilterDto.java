@@ -0,0 +1,24 @@
+package com.openflow.dto;
+
+import com.openflow.model.FilterOperator;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomFieldFilterDto {
+    @NotNull(message = "Field definition ID is required")
+    private Long fieldDefinitionId;
+    
+    @NotNull(message = "Operator is required")
+    private FilterOperator operator;
+    
+    private String value;           // For EQ, LT, LTE, GT, GTE
+    
+    private List<String> values;    // For IN
+}
@@ -0,0 +1,20 @@
+package com.openflow.dto;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskQueryDto {
+    @Valid
+    private List<CustomFieldFilterDto> filters; // All must match
+    
+    private Long sortFieldId;       // Custom field to sort by (optional)
+    
+    private String sortDirection;   // ASC (default) or DESC
+}
@@ -0,0 +1,19 @@
+package com.openflow.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSlotDto {
+    private Long uploadId;               // Pass to the confirm endpoint after uploading
+    private String uploadUrl;            // Presigned S3 URL
+    private String method;               // HTTP method to use (PUT)
+    private Map<String, String> headers; // Headers that must be sent with the upload
+    private Instant expiresAt;           // The URL stops working after this
+}
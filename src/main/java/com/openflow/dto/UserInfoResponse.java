@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,6 +16,7 @@ public class UserInfoResponse {
     private String authProvider;
     private String role;
     private String profilePictureUrl;
+    private Map<Integer, String> profilePictureVariantUrls; // By edge length in pixels
     
     public UserInfoResponse(String username, String email, String authProvider, String role) {
         this.username = username;
@@ -0,0 +1,40 @@
+package com.openflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A user offered for selection, e.g. as a task assignee.
+ */
+public class UserOptionDto {
+    private Long id;
+    private String username;
+    private boolean boardMember; // Owner of or granted access to the board the search was made for
+    // LOWER(username) as computed by the database, set by the paged user list
+    private String sortName;
+
+    public UserOptionDto() {}
+
+    public UserOptionDto(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    public UserOptionDto(Long id, String username, String sortName) {
+        this.id = id;
+        this.username = username;
+        this.sortName = sortName;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public boolean isBoardMember() { return boardMember; }
+    public void setBoardMember(boolean boardMember) { this.boardMember = boardMember; }
+
+    @JsonIgnore
+    public String getSortName() { return sortName; }
+    public void setSortName(String sortName) { this.sortName = sortName; }
+}
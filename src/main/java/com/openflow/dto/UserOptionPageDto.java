@@ -0,0 +1,26 @@
+package com.openflow.dto;
+
+import java.util.List;
+
+public class UserOptionPageDto {
+    private List<UserOptionDto> users;
+    private String nextCursor; // Pass as cursor to fetch the next page; null when there are no more users
+    private boolean hasMore;
+
+    public UserOptionPageDto() {}
+
+    public UserOptionPageDto(List<UserOptionDto> users, String nextCursor, boolean hasMore) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<UserOptionDto> getUsers() { return users; }
+    public void setUsers(List<UserOptionDto> users) { this.users = users; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,8 @@
+package com.openflow.dto;
+
+/**
+ * The user fields shown next to content: name, email for notifications and the profile picture.
+ */
+public record UserSummary(Long id, String username, String email, String profilePictureKey,
+                          String profilePictureVariants) {
+}
@@ -35,6 +35,9 @@ public class Attachment {
     @Column(name = "s3_key", nullable = false)
     private String s3Key;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // Shared AttachmentBlob; null when the attachment owns its object
+
     @Column(name = "uploaded_by")
     private Long uploadedBy;
 
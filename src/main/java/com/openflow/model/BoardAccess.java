@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "board_access")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "board-access")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
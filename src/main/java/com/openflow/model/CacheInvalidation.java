@@ -0,0 +1,38 @@
+package com.openflow.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A cache entry that a node changed and that the other nodes must drop. Rows are written in the
+ * changing transaction, read by every node's poller and purged after a retention period.
+ */
+@Entity
+@Table(name = "cache_invalidation",
+       indexes = @Index(name = "idx_cache_invalidation_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_name", nullable = false, length = 64)
+    private String cacheName;
+
+    // Null drops the whole cache
+    @Column(name = "cache_key")
+    private String cacheKey;
+
+    // Node that wrote the row; it has already evicted its own entry
+    @Column(name = "origin", nullable = false, length = 100)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -13,6 +13,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChangeLog {
+    // Column length of old and new values, full or delta-encoded
+    public static final int VALUE_LENGTH = 1000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,20 +35,45 @@ public class ChangeLog {
     @Column(name = "field_name", length = 100)
     private String fieldName; // Which field changed
 
-    @Column(name = "old_value", length = 1000)
+    @Column(name = "old_value", length = VALUE_LENGTH)
     private String oldValue;
 
-    @Column(name = "new_value", length = 1000)
+    @Column(name = "new_value", length = VALUE_LENGTH)
     private String newValue;
 
+    // Delta encoding: when baseId is set, oldValue is a patch against the base entry's new value
+    // and newValue is a patch against this entry's old value (see TextDelta)
+    @Column(name = "base_id")
+    private Long baseId; // Previous entry for the same field, null when values are stored in full
+
+    @Column(name = "snapshot_id")
+    private Long snapshotId; // Full-value entry that starts this delta chain
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // Last time a coalesced edit was merged into this entry
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
 
+    /**
+     * Whether old/new values are stored as patches rather than full text.
+     */
+    public boolean isDeltaEncoded() {
+        return baseId != null;
+    }
+
+    /**
+     * Timestamp of the most recent edit recorded by this entry.
+     */
+    public LocalDateTime getLastModifiedAt() {
+        return updatedAt != null ? updatedAt : createdAt;
+    }
+
     // Builder-style static factory methods for convenience
     public static ChangeLog create(String entityType, Long entityId, Long userId, String action) {
         ChangeLog log = new ChangeLog();
@@ -10,7 +10,8 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments",
+       indexes = @Index(name = "idx_comments_task_id_id", columnList = "task_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
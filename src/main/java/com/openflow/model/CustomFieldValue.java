@@ -5,11 +5,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "custom_field_values", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"task_id", "field_definition_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"task_id", "field_definition_id"}),
+       indexes = {
+           @Index(name = "idx_cfv_number", columnList = "field_definition_id, number_value, task_id"),
+           @Index(name = "idx_cfv_date", columnList = "field_definition_id, date_value, task_id"),
+           @Index(name = "idx_cfv_option", columnList = "field_definition_id, option_key, task_id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +42,16 @@ public class CustomFieldValue {
         this.fieldValue = value;
     }
 
+    // Typed copies of fieldValue, populated on write from the definition's FieldType
+    @Column(name = "number_value", precision = 38, scale = 10)
+    private BigDecimal numberValue; // NUMBER, CHECKBOX (1/0)
+
+    @Column(name = "date_value")
+    private LocalDateTime dateValue; // DATE
+
+    @Column(name = "option_key")
+    private String optionKey; // DROPDOWN, trimmed and lower-cased
+
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
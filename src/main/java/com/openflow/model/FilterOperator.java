@@ -0,0 +1,10 @@
+package com.openflow.model;
+
+public enum FilterOperator {
+    EQ,     // Equal to value
+    LT,     // Less than value
+    LTE,    // Less than or equal to value
+    GT,     // Greater than value
+    GTE,    // Greater than or equal to value
+    IN      // Any of values
+}
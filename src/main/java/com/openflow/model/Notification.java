@@ -38,6 +38,9 @@ public class Notification {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // Set when a duplicate notification is collapsed into this one
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -46,6 +49,13 @@ public class Notification {
         }
     }
 
+    /**
+     * Timestamp of the most recent event collapsed into this notification.
+     */
+    public LocalDateTime getLastModifiedAt() {
+        return updatedAt != null ? updatedAt : createdAt;
+    }
+
     // Notification types
     public static final String TYPE_TASK_CREATED = "TASK_CREATED";
     public static final String TYPE_TASK_UPDATED = "TASK_UPDATED";
@@ -0,0 +1,39 @@
+package com.openflow.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored object whose owner was deleted and that is waiting to be removed from storage.
+ * Rows are written in the deleting transaction and drained in the background after commit.
+ */
+@Entity
+@Table(name = "pending_deletions",
+       indexes = @Index(name = "idx_pending_deletions_next_attempt", columnList = "attempts, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "s3_key", nullable = false)
+    private String s3Key;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -10,7 +10,8 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks",
+       indexes = @Index(name = "idx_tasks_board_id", columnList = "board_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,6 @@
+package com.openflow.model;
+
+public enum UploadType {
+    ATTACHMENT,         // Task file attachment
+    PROFILE_PICTURE     // User profile picture
+}
@@ -7,11 +7,15 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +51,10 @@ public class User {
     @Column(name = "profile_picture_key")
     private String profilePictureKey;
 
+    // Comma-separated edge lengths of the generated thumbnails, null until they exist
+    @Column(name = "profile_picture_variants", length = 100)
+    private String profilePictureVariants;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
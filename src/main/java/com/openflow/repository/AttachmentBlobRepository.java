@@ -0,0 +1,10 @@
+package com.openflow.repository;
+
+import com.openflow.model.AttachmentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, Long>, AttachmentBlobRepositoryCustom {
+    boolean existsByContentHash(String contentHash);
+}
@@ -0,0 +1,22 @@
+package com.openflow.repository;
+
+import com.openflow.model.AttachmentBlob;
+
+import java.util.Optional;
+
+public interface AttachmentBlobRepositoryCustom {
+    /**
+     * Add a reference to the blob with this content hash, registering it under the given key
+     * if it does not exist yet. Returns the blob after the increment; a reference count of 1
+     * means the caller created it and must make sure the object is stored.
+     * The blob row stays locked until the transaction ends, so concurrent uploads and deletes
+     * of the same content are serialized.
+     */
+    AttachmentBlob acquire(String contentHash, String s3Key, long fileSize);
+
+    /**
+     * Drop a reference to a blob. Returns the blob's key when this was the last reference
+     * and the blob was removed, so the caller can delete the stored object.
+     */
+    Optional<String> release(String contentHash);
+}
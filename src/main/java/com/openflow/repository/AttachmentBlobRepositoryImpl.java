@@ -0,0 +1,49 @@
+package com.openflow.repository;
+
+import com.openflow.model.AttachmentBlob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class AttachmentBlobRepositoryImpl implements AttachmentBlobRepositoryCustom {
+    // Standard MERGE accepted by both Oracle and H2; the casts give the bind parameters a type
+    private static final String ACQUIRE_SQL =
+            "MERGE INTO attachment_blobs b " +
+            "USING (SELECT CAST(? AS VARCHAR2(64)) AS content_hash, CAST(? AS VARCHAR2(255)) AS s3_key, " +
+            "CAST(? AS NUMBER(19)) AS file_size, CAST(? AS TIMESTAMP) AS created_at FROM dual) s " +
+            "ON (b.content_hash = s.content_hash) " +
+            "WHEN MATCHED THEN UPDATE SET b.ref_count = b.ref_count + 1 " +
+            "WHEN NOT MATCHED THEN INSERT (content_hash, s3_key, file_size, ref_count, created_at) " +
+            "VALUES (s.content_hash, s.s3_key, s.file_size, 1, s.created_at)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public AttachmentBlob acquire(String contentHash, String s3Key, long fileSize) {
+        jdbcTemplate.update(ACQUIRE_SQL, contentHash, s3Key, fileSize, Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.queryForObject(
+                "SELECT id, content_hash, s3_key, file_size, ref_count, created_at FROM attachment_blobs WHERE content_hash = ?",
+                (rs, rowNum) -> new AttachmentBlob(rs.getLong("id"), rs.getString("content_hash"),
+                        rs.getString("s3_key"), rs.getLong("file_size"), rs.getLong("ref_count"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                contentHash);
+    }
+
+    @Override
+    public Optional<String> release(String contentHash) {
+        jdbcTemplate.update("UPDATE attachment_blobs SET ref_count = ref_count - 1 WHERE content_hash = ? AND ref_count > 0",
+                contentHash);
+        List<String> keys = jdbcTemplate.queryForList(
+                "SELECT s3_key FROM attachment_blobs WHERE content_hash = ? AND ref_count = 0", String.class, contentHash);
+        if (keys.isEmpty()
+                || jdbcTemplate.update("DELETE FROM attachment_blobs WHERE content_hash = ? AND ref_count = 0", contentHash) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(keys.get(0));
+    }
+}
@@ -2,6 +2,8 @@ package com.openflow.repository;
 
 import com.openflow.model.Attachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,5 +12,8 @@ import java.util.List;
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     List<Attachment> findByTaskId(Long taskId);
     void deleteByTaskId(Long taskId);
+
+    @Query("SELECT a FROM Attachment a WHERE a.taskId IN (SELECT t.id FROM Task t WHERE t.boardId = :boardId)")
+    List<Attachment> findByBoardId(@Param("boardId") Long boardId);
 }
 
@@ -1,7 +1,10 @@
 package com.openflow.repository;
 
 import com.openflow.model.BoardAccess;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +14,8 @@ import java.util.Optional;
 public interface BoardAccessRepository extends JpaRepository<BoardAccess, Long> {
     List<BoardAccess> findByBoardId(Long boardId);
     List<BoardAccess> findByUserId(Long userId);
+    // Checked on every board request; the grant itself comes from the entity cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<BoardAccess> findByBoardIdAndUserId(Long boardId, Long userId);
     boolean existsByBoardIdAndUserId(Long boardId, Long userId);
     void deleteByBoardIdAndUserId(Long boardId, Long userId);
@@ -1,7 +1,11 @@
 package com.openflow.repository;
 
+import com.openflow.dto.BoardDto;
+import com.openflow.dto.BoardSummaryDto;
 import com.openflow.model.Board;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,10 +15,35 @@ import java.util.Optional;
 public interface BoardRepository extends JpaRepository<Board, Long> {
     List<Board> findByUserId(Long userId);
     
-    List<Board> findByIsPublicTrue();
-    
     Optional<Board> findByIdAndIsPublicTrue(Long id);
     
-    List<Board> findByUserIdAndIsTemplateTrue(Long userId);
+    // Public board directory, keyset pages on (is_public, lower(name), id) with the task count of each
+    // listed board only; the Pageable only carries the page size. Cursors hold the selected LOWER(b.name),
+    // so they compare exactly like the database does
+    @Query("SELECT new com.openflow.dto.BoardSummaryDto(b.id, b.name, (SELECT COUNT(t) FROM Task t WHERE t.boardId = b.id), LOWER(b.name)) " +
+           "FROM Board b WHERE b.isPublic = true AND LOWER(b.name) LIKE :namePrefix ESCAPE '!' " +
+           "ORDER BY LOWER(b.name), b.id")
+    List<BoardSummaryDto> findPublicSummaries(String namePrefix, Pageable pageable);
+    
+    @Query("SELECT new com.openflow.dto.BoardSummaryDto(b.id, b.name, (SELECT COUNT(t) FROM Task t WHERE t.boardId = b.id), LOWER(b.name)) " +
+           "FROM Board b WHERE b.isPublic = true AND LOWER(b.name) LIKE :namePrefix ESCAPE '!' " +
+           "AND (LOWER(b.name) > :afterName OR (LOWER(b.name) = :afterName AND b.id > :afterId)) " +
+           "ORDER BY LOWER(b.name), b.id")
+    List<BoardSummaryDto> findPublicSummariesAfter(String namePrefix, String afterName, Long afterId, Pageable pageable);
+    
+    // Read-only listings as DTOs, no managed entities
+    @Query("SELECT new com.openflow.dto.BoardDto(b.id, b.name, b.description, b.userId, b.isPublic, b.isTemplate) " +
+           "FROM Board b WHERE b.userId = :userId " +
+           "OR b.id IN (SELECT a.boardId FROM BoardAccess a WHERE a.userId = :userId) " +
+           "ORDER BY CASE WHEN b.userId = :userId THEN 0 ELSE 1 END, b.id")
+    List<BoardDto> findAccessibleDtos(Long userId);
+    
+    @Query("SELECT new com.openflow.dto.BoardDto(b.id, b.name, b.description, b.userId, b.isPublic, b.isTemplate) " +
+           "FROM Board b WHERE b.isPublic = true ORDER BY LOWER(b.name), b.id")
+    List<BoardDto> findPublicDtos(Pageable pageable);
+    
+    @Query("SELECT new com.openflow.dto.BoardDto(b.id, b.name, b.description, b.userId, b.isPublic, b.isTemplate) " +
+           "FROM Board b WHERE b.userId = :userId AND b.isTemplate = true")
+    List<BoardDto> findTemplateDtos(Long userId);
 }
 
@@ -0,0 +1,27 @@
+package com.openflow.repository;
+
+import com.openflow.model.CacheInvalidation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long>, CacheInvalidationRepositoryCustom {
+    List<CacheInvalidation> findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(LocalDateTime since, Pageable pageable);
+
+    List<CacheInvalidation> findByIdGreaterThanAndCreatedAtGreaterThanEqualOrderByIdAsc(Long id, LocalDateTime since, Pageable pageable);
+
+    /**
+     * Purge invalidations that every node has had time to read.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CacheInvalidation c WHERE c.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
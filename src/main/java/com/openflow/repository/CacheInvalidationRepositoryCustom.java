@@ -0,0 +1,9 @@
+package com.openflow.repository;
+
+public interface CacheInvalidationRepositoryCustom {
+    /**
+     * Record an invalidation in the current transaction, stamped with the database clock so rows
+     * of all nodes are ordered by one clock.
+     */
+    void insert(String origin, String cacheName, String cacheKey);
+}
@@ -0,0 +1,21 @@
+package com.openflow.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+
+public class CacheInvalidationRepositoryImpl implements CacheInvalidationRepositoryCustom {
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_invalidation (cache_name, cache_key, origin, created_at) VALUES (?, ?, ?, LOCALTIMESTAMP)";
+
+    private static final int[] INSERT_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insert(String origin, String cacheName, String cacheKey) {
+        jdbcTemplate.update(INSERT_SQL, new Object[] {cacheName, cacheKey, origin}, INSERT_TYPES);
+    }
+}
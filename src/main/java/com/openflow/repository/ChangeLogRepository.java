@@ -2,12 +2,15 @@ package com.openflow.repository;
 
 import com.openflow.model.ChangeLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long>, ChangeLogRepositoryCustom {
     List<ChangeLog> findByEntityTypeAndEntityIdOrderByCreatedAtDesc(String entityType, Long entityId);
     
     List<ChangeLog> findByEntityTypeAndEntityIdInOrderByCreatedAtDesc(String entityType, List<Long> entityIds);
@@ -15,5 +18,16 @@ public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
     List<ChangeLog> findByUserIdOrderByCreatedAtDesc(Long userId);
     
     List<ChangeLog> findTop50ByEntityTypeAndEntityIdOrderByCreatedAtDesc(String entityType, Long entityId);
+    
+    Optional<ChangeLog> findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(String entityType, Long entityId, String fieldName);
+    
+    @Query("SELECT c FROM ChangeLog c WHERE c.id IN (" +
+           "SELECT MAX(l.id) FROM ChangeLog l " +
+           "WHERE l.entityType = :entityType AND l.entityId = :entityId AND l.fieldName IN :fieldNames " +
+           "GROUP BY l.fieldName)")
+    List<ChangeLog> findLatestByFieldNames(String entityType, Long entityId, Collection<String> fieldNames);
+    
+    List<ChangeLog> findByEntityTypeAndEntityIdAndFieldNameAndIdBetweenOrderByIdAsc(
+            String entityType, Long entityId, String fieldName, Long fromId, Long toId);
 }
 
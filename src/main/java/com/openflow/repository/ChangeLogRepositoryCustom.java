@@ -0,0 +1,13 @@
+package com.openflow.repository;
+
+import com.openflow.model.ChangeLog;
+
+import java.util.List;
+
+public interface ChangeLogRepositoryCustom {
+    /**
+     * Insert new entries with a single JDBC batch. Identity-generated IDs prevent Hibernate
+     * from batching these inserts, so IDs are not populated on the passed entries.
+     */
+    void insertAll(List<ChangeLog> logs);
+}
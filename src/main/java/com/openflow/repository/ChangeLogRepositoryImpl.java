@@ -0,0 +1,43 @@
+package com.openflow.repository;
+
+import com.openflow.model.ChangeLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ChangeLogRepositoryImpl implements ChangeLogRepositoryCustom {
+    private static final String INSERT_SQL =
+            "INSERT INTO change_logs (entity_type, entity_id, user_id, action, field_name, " +
+            "old_value, new_value, base_id, snapshot_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<ChangeLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = logs.stream()
+                .map(log -> {
+                    log.setCreatedAt(now);
+                    return new Object[] {
+                            log.getEntityType(), log.getEntityId(), log.getUserId(), log.getAction(),
+                            log.getFieldName(), log.getOldValue(), log.getNewValue(),
+                            log.getBaseId(), log.getSnapshotId(), Timestamp.valueOf(now)
+                    };
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+    }
+}
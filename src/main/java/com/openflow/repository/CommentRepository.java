@@ -1,6 +1,7 @@
 package com.openflow.repository;
 
 import com.openflow.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,5 +11,10 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByTaskIdOrderByCreatedAtAsc(Long taskId);
     long countByTaskId(Long taskId);
+    
+    // Keyset pages on (task_id, id); the Pageable only carries the page size
+    List<Comment> findByTaskIdAndIdGreaterThanOrderByIdAsc(Long taskId, Long afterId, Pageable pageable);
+    
+    List<Comment> findByTaskIdAndIdLessThanOrderByIdDesc(Long taskId, Long beforeId, Pageable pageable);
 }
 
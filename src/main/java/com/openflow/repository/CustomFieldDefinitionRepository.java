@@ -1,13 +1,17 @@
 package com.openflow.repository;
 
 import com.openflow.model.CustomFieldDefinition;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface CustomFieldDefinitionRepository extends JpaRepository<CustomFieldDefinition, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CustomFieldDefinition> findByBoardIdOrderByDisplayOrderAsc(Long boardId);
     
     void deleteByBoardId(Long boardId);
@@ -0,0 +1,38 @@
+package com.openflow.repository;
+
+import com.openflow.model.FieldType;
+import com.openflow.model.FilterOperator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom-field predicates and ordering for a task query. Values must already be converted
+ * to the type of the field's typed column (BigDecimal, LocalDateTime or option key).
+ */
+public class CustomFieldQuery {
+    public record Condition(Long fieldDefinitionId, FieldType fieldType, FilterOperator operator, List<Object> values) {}
+
+    public record Sort(Long fieldDefinitionId, FieldType fieldType, boolean descending) {}
+
+    private final List<Condition> conditions = new ArrayList<>();
+    private Sort sort;
+
+    public CustomFieldQuery where(Long fieldDefinitionId, FieldType fieldType, FilterOperator operator, List<Object> values) {
+        conditions.add(new Condition(fieldDefinitionId, fieldType, operator, List.copyOf(values)));
+        return this;
+    }
+
+    public CustomFieldQuery orderBy(Long fieldDefinitionId, FieldType fieldType, boolean descending) {
+        sort = new Sort(fieldDefinitionId, fieldType, descending);
+        return this;
+    }
+
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+}
@@ -6,15 +6,22 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomFieldValueRepository extends JpaRepository<CustomFieldValue, Long> {
+public interface CustomFieldValueRepository extends JpaRepository<CustomFieldValue, Long>, CustomFieldValueRepositoryCustom {
     List<CustomFieldValue> findByTaskId(Long taskId);
     
     Optional<CustomFieldValue> findByTaskIdAndFieldDefinitionId(Long taskId, Long fieldDefinitionId);
     
+    List<CustomFieldValue> findByTaskIdAndFieldDefinitionIdIn(Long taskId, Collection<Long> fieldDefinitionIds);
+    
+    List<CustomFieldValue> findByFieldDefinitionId(Long fieldDefinitionId);
+    
+    List<CustomFieldValue> findByTaskIdInAndFieldDefinitionIdIn(Collection<Long> taskIds, Collection<Long> fieldDefinitionIds);
+    
     @Modifying
     @Query("DELETE FROM CustomFieldValue v WHERE v.taskId = :taskId")
     void deleteByTaskId(Long taskId);
@@ -0,0 +1,14 @@
+package com.openflow.repository;
+
+import com.openflow.model.CustomFieldValue;
+
+import java.util.List;
+
+public interface CustomFieldValueRepositoryCustom {
+    /**
+     * Insert or update values, matched on task and field definition, with a single batched MERGE.
+     * Writes the typed columns as well. Bypasses the persistence context, so managed
+     * CustomFieldValue instances are not refreshed and IDs are not populated on the passed values.
+     */
+    void upsertAll(List<CustomFieldValue> values);
+}
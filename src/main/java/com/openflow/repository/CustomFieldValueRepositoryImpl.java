@@ -0,0 +1,52 @@
+package com.openflow.repository;
+
+import com.openflow.model.CustomFieldValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class CustomFieldValueRepositoryImpl implements CustomFieldValueRepositoryCustom {
+    // Standard MERGE accepted by both Oracle and H2; the casts give the bind parameters a type
+    private static final String UPSERT_SQL =
+            "MERGE INTO custom_field_values v " +
+            "USING (SELECT CAST(? AS NUMBER(19)) AS task_id, CAST(? AS NUMBER(19)) AS field_definition_id, " +
+            "CAST(? AS VARCHAR2(1000)) AS field_value, CAST(? AS NUMBER(38,10)) AS number_value, " +
+            "CAST(? AS TIMESTAMP) AS date_value, CAST(? AS VARCHAR2(255)) AS option_key, " +
+            "CAST(? AS TIMESTAMP) AS updated_at FROM dual) s " +
+            "ON (v.task_id = s.task_id AND v.field_definition_id = s.field_definition_id) " +
+            "WHEN MATCHED THEN UPDATE SET v.field_value = s.field_value, v.number_value = s.number_value, " +
+            "v.date_value = s.date_value, v.option_key = s.option_key, v.updated_at = s.updated_at " +
+            "WHEN NOT MATCHED THEN INSERT (task_id, field_definition_id, field_value, number_value, date_value, option_key, updated_at) " +
+            "VALUES (s.task_id, s.field_definition_id, s.field_value, s.number_value, s.date_value, s.option_key, s.updated_at)";
+
+    private static final int[] UPSERT_TYPES = {
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.NUMERIC, Types.TIMESTAMP, Types.VARCHAR, Types.TIMESTAMP
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(List<CustomFieldValue> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = values.stream()
+                .map(value -> {
+                    value.setUpdatedAt(now);
+                    return new Object[] {
+                            value.getTaskId(), value.getFieldDefinitionId(), value.getFieldValue(),
+                            value.getNumberValue(),
+                            value.getDateValue() != null ? Timestamp.valueOf(value.getDateValue()) : null,
+                            value.getOptionKey(), Timestamp.valueOf(now)
+                    };
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, UPSERT_TYPES);
+    }
+}
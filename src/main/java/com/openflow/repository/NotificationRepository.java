@@ -1,22 +1,35 @@
 package com.openflow.repository;
 
+import com.openflow.dto.NotificationDto;
 import com.openflow.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     
-    List<Notification> findTop50ByUserIdOrderByCreatedAtDesc(Long userId);
+    long countByUserIdAndIsReadFalse(Long userId);
     
-    List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
+    // Read-only listings as DTOs, no managed entities; the Pageable only carries the page size
+    @Query("SELECT new com.openflow.dto.NotificationDto(n.id, n.userId, n.type, n.message, n.referenceType, " +
+           "n.referenceId, n.isRead, n.createdAt) " +
+           "FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC")
+    List<NotificationDto> findDtosByUserId(Long userId, Pageable pageable);
     
-    long countByUserIdAndIsReadFalse(Long userId);
+    @Query("SELECT new com.openflow.dto.NotificationDto(n.id, n.userId, n.type, n.message, n.referenceType, " +
+           "n.referenceId, n.isRead, n.createdAt) " +
+           "FROM Notification n WHERE n.userId = :userId AND n.isRead = false ORDER BY n.createdAt DESC")
+    List<NotificationDto> findUnreadDtosByUserId(Long userId);
+    
+    Optional<Notification> findFirstByUserIdAndTypeAndReferenceTypeAndReferenceIdAndIsReadFalseOrderByIdDesc(
+            Long userId, String type, String referenceType, Long referenceId);
     
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
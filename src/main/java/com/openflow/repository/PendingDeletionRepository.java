@@ -0,0 +1,21 @@
+package com.openflow.repository;
+
+import com.openflow.model.PendingDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PendingDeletionRepository extends JpaRepository<PendingDeletion, Long>, PendingDeletionRepositoryCustom {
+    List<PendingDeletion> findByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            int maxAttempts, LocalDateTime now, Pageable pageable);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+    List<PendingDeletion> findByAttemptsGreaterThanEqualOrderByIdAsc(int maxAttempts, Pageable pageable);
+}
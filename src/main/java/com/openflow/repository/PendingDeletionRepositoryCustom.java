@@ -0,0 +1,10 @@
+package com.openflow.repository;
+
+import java.util.Collection;
+
+public interface PendingDeletionRepositoryCustom {
+    /**
+     * Queue storage keys for deletion with a single batched insert.
+     */
+    void insertAll(Collection<String> s3Keys);
+}
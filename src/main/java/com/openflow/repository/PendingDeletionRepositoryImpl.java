@@ -0,0 +1,32 @@
+package com.openflow.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class PendingDeletionRepositoryImpl implements PendingDeletionRepositoryCustom {
+    private static final String INSERT_SQL =
+            "INSERT INTO pending_deletions (s3_key, attempts, next_attempt_at, created_at) VALUES (?, 0, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Collection<String> s3Keys) {
+        if (s3Keys.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = s3Keys.stream()
+                .map(key -> new Object[] {key, now, now})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+    }
+}
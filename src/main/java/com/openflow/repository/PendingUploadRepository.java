@@ -0,0 +1,13 @@
+package com.openflow.repository;
+
+import com.openflow.model.PendingUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PendingUploadRepository extends JpaRepository<PendingUpload, Long> {
+    List<PendingUpload> findByCreatedAtBefore(LocalDateTime cutoff);
+}
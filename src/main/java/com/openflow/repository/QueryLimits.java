@@ -0,0 +1,14 @@
+package com.openflow.repository;
+
+/**
+ * Limits of the database that callers of the repositories have to respect.
+ */
+public final class QueryLimits {
+
+    /**
+     * Oracle rejects IN lists longer than 1000 elements; larger id lists are queried in chunks.
+     */
+    public static final int MAX_IN_CLAUSE_SIZE = 1000;
+
+    private QueryLimits() {}
+}
@@ -1,14 +1,26 @@
 package com.openflow.repository;
 
+import com.openflow.dto.StatusDto;
 import com.openflow.model.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface StatusRepository extends JpaRepository<Status, Long> {
+    // Statuses change rarely; cached results are invalidated by any write to the table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Status> findByBoardIdOrderByOrderAsc(Long boardId);
     void deleteByBoardId(Long boardId);
+    
+    // Read-only listing as DTOs, no managed entities
+    @Query("SELECT new com.openflow.dto.StatusDto(s.id, s.name, s.color, s.boardId, s.order) " +
+           "FROM Status s WHERE s.boardId = :boardId ORDER BY s.order")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<StatusDto> findDtosByBoardId(Long boardId);
 }
-
@@ -1,14 +1,27 @@
 package com.openflow.repository;
 
+import com.openflow.dto.TaskDto;
 import com.openflow.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByBoardId(Long boardId);
     List<Task> findByStatusId(Long statusId);
+    
+    // Read-only listings: DTOs with the assignee's username joined in, no managed entities
+    @Query("SELECT new com.openflow.dto.TaskDto(t.id, t.title, t.description, t.statusId, t.boardId, " +
+           "t.assignedUserId, u.username, t.createdAt) " +
+           "FROM Task t LEFT JOIN User u ON u.id = t.assignedUserId WHERE t.boardId = :boardId")
+    List<TaskDto> findDtosByBoardId(Long boardId);
+    
+    @Query("SELECT new com.openflow.dto.TaskDto(t.id, t.title, t.description, t.statusId, t.boardId, " +
+           "t.assignedUserId, u.username, t.createdAt) " +
+           "FROM Task t LEFT JOIN User u ON u.id = t.assignedUserId WHERE t.id IN :ids")
+    List<TaskDto> findDtosByIdIn(Collection<Long> ids);
 }
-
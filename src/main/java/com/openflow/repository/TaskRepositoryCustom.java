@@ -0,0 +1,11 @@
+package com.openflow.repository;
+
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+    /**
+     * Find the IDs of a board's tasks matching every condition of the query, in the query's order
+     * (tasks without a value for the sort field last, then by ID).
+     */
+    List<Long> findIdsByCustomFields(Long boardId, CustomFieldQuery query);
+}
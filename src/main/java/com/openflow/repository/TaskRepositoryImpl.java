@@ -0,0 +1,74 @@
+package com.openflow.repository;
+
+import com.openflow.model.FieldType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> findIdsByCustomFields(Long boardId, CustomFieldQuery query) {
+        StringBuilder sql = new StringBuilder("SELECT t.id FROM tasks t");
+        List<Object> params = new ArrayList<>();
+
+        CustomFieldQuery.Sort sort = query.getSort();
+        if (sort != null) {
+            sql.append(" LEFT JOIN custom_field_values s ON s.task_id = t.id AND s.field_definition_id = ?");
+            params.add(sort.fieldDefinitionId());
+        }
+        sql.append(" WHERE t.board_id = ?");
+        params.add(boardId);
+
+        // Each condition is a range scan on (field_definition_id, <typed column>, task_id)
+        for (CustomFieldQuery.Condition condition : query.getConditions()) {
+            sql.append(" AND t.id IN (SELECT v.task_id FROM custom_field_values v WHERE v.field_definition_id = ? AND v.")
+               .append(typedColumn(condition.fieldType()))
+               .append(predicate(condition))
+               .append(")");
+            params.add(condition.fieldDefinitionId());
+            condition.values().forEach(value -> params.add(toJdbcValue(value)));
+        }
+
+        sql.append(" ORDER BY ");
+        if (sort != null) {
+            sql.append("s.").append(typedColumn(sort.fieldType()))
+               .append(sort.descending() ? " DESC" : " ASC")
+               .append(" NULLS LAST, ");
+        }
+        sql.append("t.id");
+
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, params.toArray());
+    }
+
+    private static String typedColumn(FieldType type) {
+        return switch (type) {
+            case NUMBER, CHECKBOX -> "number_value";
+            case DATE -> "date_value";
+            case DROPDOWN -> "option_key";
+            default -> throw new IllegalArgumentException("Custom field type " + type + " has no typed column");
+        };
+    }
+
+    private static String predicate(CustomFieldQuery.Condition condition) {
+        return switch (condition.operator()) {
+            case EQ -> " = ?";
+            case LT -> " < ?";
+            case LTE -> " <= ?";
+            case GT -> " > ?";
+            case GTE -> " >= ?";
+            case IN -> " IN (" + String.join(", ", Collections.nCopies(condition.values().size(), "?")) + ")";
+        };
+    }
+
+    private static Object toJdbcValue(Object value) {
+        return value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime) : value;
+    }
+}
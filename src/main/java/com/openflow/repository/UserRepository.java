@@ -1,18 +1,88 @@
 package com.openflow.repository;
 
+import com.openflow.config.SecondLevelCacheConfig;
+import com.openflow.dto.UserOptionDto;
+import com.openflow.dto.UserSummary;
 import com.openflow.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    // Resolved on every authenticated request; in its own region so bulk imports can evict it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.USER_LOOKUP_REGION)
+    })
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Optional<User> findByAzureAdId(String azureAdId);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByAzureAdId(String azureAdId);
+
+    /**
+     * Load the displayed fields of many users without their password hashes and settings.
+     */
+    @Query("SELECT new com.openflow.dto.UserSummary(u.id, u.username, u.email, u.profilePictureKey, u.profilePictureVariants) " +
+            "FROM User u WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Load the users that already have one of the given usernames or emails.
+     */
+    @Query("SELECT new com.openflow.dto.UserSummary(u.id, u.username, u.email, u.profilePictureKey, u.profilePictureVariants) " +
+            "FROM User u WHERE u.username IN :usernames OR u.email IN :emails")
+    List<UserSummary> findSummariesByUsernameInOrEmailIn(Collection<String> usernames, Collection<String> emails);
+
+    // User list, keyset pages on (lower(username), id); the Pageable only carries the page size.
+    // Cursors hold the selected LOWER(u.username), so they compare exactly like the database does
+    @Query("SELECT new com.openflow.dto.UserOptionDto(u.id, u.username, LOWER(u.username)) FROM User u ORDER BY LOWER(u.username), u.id")
+    List<UserOptionDto> findOptions(Pageable pageable);
+
+    @Query("SELECT new com.openflow.dto.UserOptionDto(u.id, u.username, LOWER(u.username)) FROM User u " +
+           "WHERE LOWER(u.username) > :afterName OR (LOWER(u.username) = :afterName AND u.id > :afterId) " +
+           "ORDER BY LOWER(u.username), u.id")
+    List<UserOptionDto> findOptionsAfter(String afterName, Long afterId, Pageable pageable);
+
+    // Assignee search, prefix match on lower(username) or lower(email); both are indexed
+    @Query("SELECT new com.openflow.dto.UserOptionDto(u.id, u.username) FROM User u " +
+           "WHERE LOWER(u.username) LIKE :prefix ESCAPE '!' OR LOWER(u.email) LIKE :prefix ESCAPE '!' " +
+           "ORDER BY LOWER(u.username), u.id")
+    List<UserOptionDto> searchOptions(String prefix, Pageable pageable);
+
+    @Query("SELECT new com.openflow.dto.UserOptionDto(u.id, u.username) FROM User u " +
+           "WHERE (LOWER(u.username) LIKE :prefix ESCAPE '!' OR LOWER(u.email) LIKE :prefix ESCAPE '!') " +
+           "AND (u.id = (SELECT b.userId FROM Board b WHERE b.id = :boardId) " +
+           "OR u.id IN (SELECT a.userId FROM BoardAccess a WHERE a.boardId = :boardId)) " +
+           "ORDER BY LOWER(u.username), u.id")
+    List<UserOptionDto> searchBoardMemberOptions(String prefix, Long boardId, Pageable pageable);
+
+    /**
+     * Record the generated thumbnails of a profile picture, unless the user has changed it since.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.profilePictureVariants = :variants WHERE u.id = :id AND u.profilePictureKey = :profilePictureKey")
+    int updateProfilePictureVariants(Long id, String profilePictureKey, String variants);
+
+    /**
+     * Replace a password hash, unless the password has been changed since it was read.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePassword(Long id, String oldPassword, String newPassword);
 }
 
@@ -0,0 +1,13 @@
+package com.openflow.repository;
+
+import com.openflow.model.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    /**
+     * Insert new users with a single JDBC batch. Identity-generated IDs prevent Hibernate
+     * from batching these inserts, so IDs are not populated on the passed users.
+     */
+    void insertAll(List<User> users);
+}
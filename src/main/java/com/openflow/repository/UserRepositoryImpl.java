@@ -0,0 +1,48 @@
+package com.openflow.repository;
+
+import com.openflow.config.SecondLevelCacheConfig;
+import com.openflow.config.SecondLevelCacheInvalidator;
+import com.openflow.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, email, password, auth_provider, role, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+
+    @Override
+    public void insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = users.stream()
+                .map(user -> {
+                    user.setCreatedAt(now);
+                    return new Object[] {
+                            user.getUsername(), user.getEmail(), user.getPassword(), user.getAuthProvider(),
+                            user.getRole() != null ? user.getRole().name() : null, Timestamp.valueOf(now)
+                    };
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+        // Plain JDBC inserts bypass Hibernate's query cache invalidation, so cached "no such
+        // user" lookups of the imported usernames are dropped here
+        secondLevelCacheInvalidator.evictQueryRegion(SecondLevelCacheConfig.USER_LOOKUP_REGION);
+    }
+}
@@ -0,0 +1,276 @@
+package com.openflow.service;
+
+import com.openflow.model.Attachment;
+import com.openflow.repository.AttachmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * ZIP archives of a task's or board's attachments, assembled while they are sent.
+ * Each file is copied from storage straight into the response, so memory use does not depend on
+ * archive size and nothing is written to disk. Writes block while the client is slow to read,
+ * and the next few objects are opened in parallel so their first bytes are ready when needed.
+ * Every open object holds a storage connection, so the objects open across all archives are capped.
+ */
+@Service
+public class AttachmentArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentArchiveService.class);
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    @Lazy
+    private TaskService taskService;
+
+    @Autowired
+    @Lazy
+    private BoardService boardService;
+
+    // Objects open at once per archive, including the one being written
+    @Value("${attachments.archive.prefetch:4}")
+    private int prefetch;
+
+    // Objects open at once across all archives; kept well below the S3 client's connection pool
+    @Value("${attachments.archive.max-open-objects:24}")
+    private int maxOpenObjects;
+
+    private Semaphore openObjects;
+
+    // Threads opening objects, shared by all archives
+    @Value("${attachments.archive.prefetch-threads:16}")
+    private int prefetchThreads;
+
+    private ExecutorService prefetchExecutor;
+
+    @PostConstruct
+    public void init() {
+        openObjects = new Semaphore(maxOpenObjects);
+        prefetchExecutor = Executors.newFixedThreadPool(prefetchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "attachment-archive-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Get a task's attachments for an archive, checking that the user can read the task.
+     */
+    public List<Attachment> getTaskAttachments(Long taskId, Long userId) {
+        checkStorageEnabled();
+        taskService.getTaskById(taskId, userId);
+        return attachmentRepository.findByTaskId(taskId).stream()
+                .sorted(Comparator.comparing(Attachment::getId))
+                .toList();
+    }
+
+    /**
+     * Get the attachments of every task on a board for an archive, checking that the user can read the board.
+     */
+    public List<Attachment> getBoardAttachments(Long boardId, Long userId) {
+        checkStorageEnabled();
+        boardService.getBoardById(boardId, userId);
+        return attachmentRepository.findByBoardId(boardId).stream()
+                .sorted(Comparator.comparing(Attachment::getTaskId).thenComparing(Attachment::getId))
+                .toList();
+    }
+
+    private void checkStorageEnabled() {
+        if (!storageBackend.isEnabled()) {
+            throw new RuntimeException("File storage is not enabled");
+        }
+    }
+
+    /**
+     * Write the attachments to the output as a ZIP archive, optionally in one folder per task.
+     * Already compressed types (images, video, archives, PDFs) are stored without recompressing.
+     */
+    public void writeArchive(List<Attachment> attachments, boolean folderPerTask, OutputStream out) throws IOException {
+        Deque<CompletableFuture<InputStream>> opened = new ArrayDeque<>();
+        Iterator<Attachment> toOpen = attachments.iterator();
+        Set<String> entryNames = new HashSet<>();
+        int written = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Attachment attachment : attachments) {
+                while (opened.size() < Math.max(prefetch, 1) && toOpen.hasNext()) {
+                    // Wait for a free slot only for the next object; open ahead only while slots are free.
+                    // An archive that waits holds no slot, so the archives holding them keep going.
+                    if (opened.isEmpty()) {
+                        acquireOpenObject();
+                    } else if (!openObjects.tryAcquire()) {
+                        break;
+                    }
+                    opened.add(open(toOpen.next()));
+                }
+
+                InputStream content;
+                try {
+                    content = await(opened.poll());
+                } catch (FileNotFoundException | NoSuchFileException e) {
+                    logger.warn("Skipping missing attachment {} in archive: {}", attachment.getId(), e.getMessage());
+                    continue;
+                }
+                try (content) {
+                    zip.setLevel(isCompressed(attachment.getContentType())
+                            ? Deflater.NO_COMPRESSION
+                            : Deflater.DEFAULT_COMPRESSION);
+                    zip.putNextEntry(new ZipEntry(uniqueEntryName(entryNames, entryName(attachment, folderPerTask))));
+                    content.transferTo(zip);
+                    zip.closeEntry();
+                }
+                written++;
+            }
+        } finally {
+            // Close objects opened ahead when the client went away or a read failed
+            opened.forEach(future -> future.thenAccept(AttachmentArchiveService::closeQuietly));
+        }
+        logger.info("Streamed archive of {} attachments", written);
+    }
+
+    private void acquireOpenObject() throws IOException {
+        try {
+            openObjects.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to open attachment", e);
+        }
+    }
+
+    /**
+     * Open an object on the prefetch pool, holding an acquired slot until the stream is closed.
+     */
+    private CompletableFuture<InputStream> open(Attachment attachment) {
+        return CompletableFuture.supplyAsync(() -> {
+            InputStream stream;
+            try {
+                stream = storageBackend.openStream(attachment.getS3Key());
+            } catch (IOException e) {
+                openObjects.release();
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                openObjects.release();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return new FilterInputStream(stream) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            openObjects.release();
+                        }
+                    }
+                }
+            };
+        }, prefetchExecutor);
+    }
+
+    private static InputStream await(CompletableFuture<InputStream> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.thenAccept(AttachmentArchiveService::closeQuietly);
+            throw new IOException("Interrupted while opening attachment", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException("Failed to open attachment", cause);
+        }
+    }
+
+    private static String entryName(Attachment attachment, boolean folderPerTask) {
+        String fileName = attachment.getOriginalName() != null ? attachment.getOriginalName() : attachment.getFileName();
+        // Keep only the last path segment so entries cannot escape the extraction directory
+        fileName = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        if (fileName.isBlank() || fileName.equals(".") || fileName.equals("..")) {
+            fileName = "attachment-" + attachment.getId();
+        }
+        return folderPerTask ? "task-" + attachment.getTaskId() + "/" + fileName : fileName;
+    }
+
+    /**
+     * Number repeated names: "report.pdf", "report (2).pdf", ...
+     */
+    static String uniqueEntryName(Set<String> used, String name) {
+        if (used.add(name)) {
+            return name;
+        }
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        boolean hasExtension = dot > slash + 1;
+        String base = hasExtension ? name.substring(0, dot) : name;
+        String extension = hasExtension ? name.substring(dot) : "";
+        for (int n = 2; ; n++) {
+            String candidate = base + " (" + n + ")" + extension;
+            if (used.add(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static boolean isCompressed(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        return contentType.startsWith("image/") && !contentType.equals("image/svg+xml")
+                || contentType.startsWith("video/")
+                || contentType.startsWith("audio/")
+                || contentType.equals("application/pdf")
+                || contentType.equals("application/zip")
+                || contentType.equals("application/gzip")
+                || contentType.equals("application/x-7z-compressed")
+                || contentType.startsWith("application/vnd.openxmlformats-officedocument.");
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // Already abandoned
+        }
+    }
+}
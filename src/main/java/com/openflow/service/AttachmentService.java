@@ -1,24 +1,63 @@
 package com.openflow.service;
 
+import com.openflow.dto.UploadRequestDto;
+import com.openflow.dto.UploadSlotDto;
 import com.openflow.model.Attachment;
+import com.openflow.model.AttachmentBlob;
+import com.openflow.model.PendingUpload;
+import com.openflow.model.UploadType;
+import com.openflow.repository.AttachmentBlobRepository;
 import com.openflow.repository.AttachmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AttachmentService {
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
 
     @Autowired
     private AttachmentRepository attachmentRepository;
 
     @Autowired
-    private S3Service s3Service;
+    private AttachmentBlobRepository attachmentBlobRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private UploadService uploadService;
+
+    @Autowired
+    private StorageCleanupService storageCleanupService;
+
+    // Registering a blob only fails when a concurrent upload inserted it first; a retry then matches that row
+    private static final int MAX_REGISTER_ATTEMPTS = 3;
+
+    @Value("${uploads.streaming.max-file-size-bytes:5368709120}")
+    private long maxStreamingFileSizeBytes;
+
+    @Transactional(readOnly = true)
     public List<Attachment> getAttachmentsByTaskId(Long taskId) {
         return attachmentRepository.findByTaskId(taskId);
     }
@@ -28,20 +67,144 @@ public class AttachmentService {
                 .orElseThrow(() -> new RuntimeException("Attachment not found"));
     }
 
+    /**
+     * Upload an attachment, storing its content once however many attachments share it.
+     * The file is hashed first; if a blob with the same content exists the upload to storage is skipped.
+     * No transaction is held during the upload; only registering the blob and attachment is atomic.
+     */
     public Attachment uploadAttachment(Long taskId, Long userId, MultipartFile file) throws IOException {
-        if (!s3Service.isEnabled()) {
+        if (!storageBackend.isEnabled()) {
             throw new RuntimeException("File storage is not enabled");
         }
 
-        String s3Key = s3Service.uploadFile(file, taskId);
+        MessageDigest digest = newSha256();
+        try (InputStream content = new DigestInputStream(file.getInputStream(), digest)) {
+            content.transferTo(OutputStream.nullOutputStream());
+        }
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+
+        String uploadKey = null;
+        while (true) {
+            if (uploadKey == null && !attachmentBlobRepository.existsByContentHash(contentHash)) {
+                uploadKey = storageBackend.newBlobKey(contentHash, file.getOriginalFilename());
+                storageBackend.store(uploadKey, file.getInputStream(), file.getSize(), file.getContentType());
+            }
+            Attachment saved = register(taskId, userId, file.getOriginalFilename(), file.getContentType(),
+                    file.getSize(), contentHash, uploadKey);
+            if (saved == null) {
+                // The blob was deleted since it was looked up, so the content has to be stored after all
+                continue;
+            }
+            if (!saved.getS3Key().equals(uploadKey)) {
+                // Also when a concurrent upload of the same content registered its blob first
+                deleteUpload(uploadKey);
+                logger.info("Attachment for task {} deduplicated to {}", taskId, saved.getS3Key());
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Upload an attachment from a raw request body, streaming it to storage (in parts, with S3).
+     * Supports files far larger than the multipart form limit at constant memory.
+     * The content is hashed while it streams; if a blob with the same content already exists,
+     * the new object is deleted and the attachment references the existing blob instead.
+     */
+    public Attachment uploadAttachmentStream(Long taskId, Long userId, String fileName, String contentType,
+                                             InputStream content) throws IOException {
+        if (!storageBackend.isEnabled()) {
+            throw new RuntimeException("File storage is not enabled");
+        }
+
+        MessageDigest digest = newSha256();
+        String uploadKey = storageBackend.newTaskFileKey(taskId, fileName);
+        long size = storageBackend.storeStream(uploadKey, new DigestInputStream(content, digest), contentType,
+                maxStreamingFileSizeBytes);
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+
+        // No transaction is held while streaming; only registering the blob and attachment is atomic
+        Attachment saved = register(taskId, userId, fileName, contentType, size, contentHash, uploadKey);
+        if (!uploadKey.equals(saved.getS3Key())) {
+            storageBackend.deleteFile(uploadKey);
+            logger.info("Attachment for task {} deduplicated to {}", taskId, saved.getS3Key());
+        }
+        return saved;
+    }
+
+    /**
+     * Add a reference to the content's blob and save the attachment in one short transaction.
+     * The blob is registered under the uploaded key if it does not exist yet. Without an uploaded
+     * key, returns null when the blob no longer exists. Concurrent first uploads of the same
+     * content can both try to insert the blob; the loser retries and references the winner's.
+     * The uploaded object is deleted when registering fails.
+     */
+    private Attachment register(Long taskId, Long userId, String fileName, String contentType, long size,
+                                String contentHash, String uploadKey) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    AttachmentBlob blob = attachmentBlobRepository.acquire(contentHash,
+                            uploadKey != null ? uploadKey : storageBackend.newBlobKey(contentHash, fileName), size);
+                    if (uploadKey == null && blob.getRefCount() == 1) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+
+                    Attachment attachment = new Attachment();
+                    attachment.setTaskId(taskId);
+                    attachment.setFileName(fileName);
+                    attachment.setOriginalName(fileName);
+                    attachment.setContentType(contentType);
+                    attachment.setFileSize(size);
+                    attachment.setS3Key(blob.getS3Key());
+                    attachment.setContentHash(contentHash);
+                    attachment.setUploadedBy(userId);
+                    return attachmentRepository.save(attachment);
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_REGISTER_ATTEMPTS) {
+                    deleteUpload(uploadKey);
+                    throw e;
+                }
+                logger.debug("Blob {} was registered concurrently, retrying", contentHash);
+            } catch (RuntimeException e) {
+                deleteUpload(uploadKey);
+                throw e;
+            }
+        }
+    }
+
+    private void deleteUpload(String uploadKey) {
+        if (uploadKey != null) {
+            storageBackend.deleteFile(uploadKey);
+        }
+    }
+
+    public long getMaxStreamingFileSizeBytes() {
+        return maxStreamingFileSizeBytes;
+    }
+
+    /**
+     * Get a presigned URL to upload an attachment directly to S3.
+     */
+    public UploadSlotDto requestUpload(Long taskId, Long userId, UploadRequestDto request) {
+        return uploadService.createSlot(UploadType.ATTACHMENT, userId, taskId, request);
+    }
+
+    /**
+     * Finalize a direct upload once the file is in S3.
+     */
+    @Transactional
+    public Attachment confirmUpload(Long uploadId, Long userId) {
+        PendingUpload upload = uploadService.claim(uploadId, UploadType.ATTACHMENT, userId);
 
         Attachment attachment = new Attachment();
-        attachment.setTaskId(taskId);
-        attachment.setFileName(file.getOriginalFilename());
-        attachment.setOriginalName(file.getOriginalFilename());
-        attachment.setContentType(file.getContentType());
-        attachment.setFileSize(file.getSize());
-        attachment.setS3Key(s3Key);
+        attachment.setTaskId(upload.getTaskId());
+        attachment.setFileName(upload.getFileName());
+        attachment.setOriginalName(upload.getFileName());
+        attachment.setContentType(upload.getContentType());
+        attachment.setFileSize(upload.getFileSize());
+        attachment.setS3Key(upload.getS3Key());
         attachment.setUploadedBy(userId);
 
         return attachmentRepository.save(attachment);
@@ -50,28 +213,76 @@ public class AttachmentService {
     public String getDownloadUrl(Long attachmentId) {
         Attachment attachment = attachmentRepository.findById(attachmentId)
                 .orElseThrow(() -> new RuntimeException("Attachment not found"));
-        return s3Service.getPresignedUrl(attachment.getS3Key());
+        return storageBackend.getDownloadUrl(attachment.getS3Key());
     }
 
     @Transactional
     public void deleteAttachment(Long attachmentId) {
         Attachment attachment = attachmentRepository.findById(attachmentId)
                 .orElseThrow(() -> new RuntimeException("Attachment not found"));
-        s3Service.deleteFile(attachment.getS3Key());
         attachmentRepository.delete(attachment);
+        storageCleanupService.deleteAfterCommit(releaseFiles(List.of(attachment)));
     }
 
+    /**
+     * Delete a task's attachments. Their files are removed in the background after commit.
+     */
     @Transactional
     public void deleteAttachmentsByTaskId(Long taskId) {
-        List<Attachment> attachments = attachmentRepository.findByTaskId(taskId);
+        deleteAttachments(attachmentRepository.findByTaskId(taskId));
+    }
+
+    /**
+     * Delete the attachments of every task on a board. Their files are removed in the background after commit.
+     */
+    @Transactional
+    public void deleteAttachmentsByBoardId(Long boardId) {
+        deleteAttachments(attachmentRepository.findByBoardId(boardId));
+    }
+
+    private void deleteAttachments(List<Attachment> attachments) {
+        if (attachments.isEmpty()) {
+            return;
+        }
+        attachmentRepository.deleteAllInBatch(attachments);
+        storageCleanupService.deleteAfterCommit(releaseFiles(attachments));
+    }
+
+    /**
+     * Drop the attachments' blob references and return the keys of the objects that are
+     * no longer referenced: objects owned by a single attachment, and blobs whose last
+     * reference was released.
+     */
+    private List<String> releaseFiles(List<Attachment> attachments) {
+        List<String> unreferenced = new ArrayList<>();
         for (Attachment attachment : attachments) {
-            s3Service.deleteFile(attachment.getS3Key());
+            if (attachment.getContentHash() == null) {
+                unreferenced.add(attachment.getS3Key());
+            } else {
+                attachmentBlobRepository.release(attachment.getContentHash()).ifPresent(unreferenced::add);
+            }
+        }
+        return unreferenced;
+    }
+
+    public Map<String, Object> getStorageCleanupStats() {
+        return storageCleanupService.getStats();
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
         }
-        attachmentRepository.deleteByTaskId(taskId);
     }
 
     public boolean isS3Enabled() {
-        return s3Service.isEnabled();
+        return storageBackend.isEnabled();
+    }
+
+    public Map<String, Object> getPresignedUrlCacheStats() {
+        return storageBackend.getDownloadUrlCacheStats();
     }
 }
 
@@ -26,6 +26,9 @@ public class AzureAdUserService {
 
     @Autowired
     private JwtService jwtService;
+
+    @Autowired
+    private UserDirectory userDirectory;
     
     // Azure AD Group IDs for role mapping
     @Value("${azure.ad.admin-group-id:}")
@@ -221,6 +224,7 @@ public class AzureAdUserService {
             }
             if (updated) {
                 user = userRepository.save(user);
+                userDirectory.evict(user.getId());
             }
             return user;
         }
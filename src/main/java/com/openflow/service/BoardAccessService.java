@@ -1,6 +1,7 @@
 package com.openflow.service;
 
 import com.openflow.dto.BoardAccessDto;
+import com.openflow.dto.UserSummary;
 import com.openflow.model.AccessLevel;
 import com.openflow.model.Board;
 import com.openflow.model.BoardAccess;
@@ -13,7 +14,10 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,17 +31,38 @@ public class BoardAccessService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
     @Autowired
     @Lazy
     private ChangeLogService changeLogService;
 
     private BoardAccessDto toDto(BoardAccess access) {
-        String username = userRepository.findById(access.getUserId())
-                .map(User::getUsername)
-                .orElse("Unknown");
-        String grantedByUsername = userRepository.findById(access.getGrantedBy())
-                .map(User::getUsername)
-                .orElse("Unknown");
+        return toDtos(List.of(access)).get(0);
+    }
+
+    /**
+     * Convert accesses, resolving all users and granters at once.
+     */
+    private List<BoardAccessDto> toDtos(List<BoardAccess> accesses) {
+        Set<Long> userIds = new HashSet<>();
+        for (BoardAccess access : accesses) {
+            userIds.add(access.getUserId());
+            userIds.add(access.getGrantedBy());
+        }
+        Map<Long, UserSummary> users = userDirectory.resolveAll(userIds);
+        return accesses.stream()
+                .map(access -> toDto(access, username(users, access.getUserId()), username(users, access.getGrantedBy())))
+                .collect(Collectors.toList());
+    }
+
+    private static String username(Map<Long, UserSummary> users, Long userId) {
+        UserSummary user = users.get(userId);
+        return user != null ? user.username() : "Unknown";
+    }
+
+    private BoardAccessDto toDto(BoardAccess access, String username, String grantedByUsername) {
         return new BoardAccessDto(
             access.getId(),
             access.getBoardId(),
@@ -53,6 +78,7 @@ public class BoardAccessService {
     /**
      * Get all users with access to a board (excluding the owner).
      */
+    @Transactional(readOnly = true)
     public List<BoardAccessDto> getBoardAccesses(Long boardId, Long requesterId) {
         // Verify requester is board owner or has ADMIN access
         Board board = boardRepository.findById(boardId)
@@ -64,7 +90,7 @@ public class BoardAccessService {
         }
 
         List<BoardAccess> accesses = boardAccessRepository.findByBoardId(boardId);
-        return accesses.stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(accesses);
     }
 
     /**
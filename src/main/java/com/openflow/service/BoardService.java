@@ -1,6 +1,8 @@
 package com.openflow.service;
 
 import com.openflow.dto.BoardDto;
+import com.openflow.dto.BoardSummaryDto;
+import com.openflow.dto.BoardSummaryPageDto;
 import com.openflow.model.Board;
 import com.openflow.model.CustomFieldDefinition;
 import com.openflow.model.Status;
@@ -9,6 +11,7 @@ import com.openflow.repository.CustomFieldDefinitionRepository;
 import com.openflow.repository.StatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +36,17 @@ public class BoardService {
     @Lazy
     private BoardAccessService boardAccessService;
 
+    @Autowired
+    @Lazy
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private PublicBoardCache publicBoardCache;
+
+    // Default and maximum page sizes for the public board directory
+    private static final int DEFAULT_DIRECTORY_PAGE_SIZE = 50;
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 100;
+
     private BoardDto toDto(Board board) {
         return new BoardDto(
             board.getId(),
@@ -55,20 +69,25 @@ public class BoardService {
         return board;
     }
 
+    @Transactional(readOnly = true)
     public List<BoardDto> getAllBoardsByUserIdDto(Long userId) {
-        return getAllBoardsByUserId(userId).stream().map(this::toDto).toList();
+        // Owned boards first, then boards shared with the user
+        return boardRepository.findAccessibleDtos(userId);
     }
 
+    @Transactional(readOnly = true)
     public BoardDto getBoardByIdDto(Long id, Long userId) {
         return toDto(getBoardById(id, userId));
     }
 
+    @Transactional
     public BoardDto createBoardDto(BoardDto boardDto, Long userId) {
         Board board = toEntity(boardDto);
         Board created = createBoard(board, userId);
         return toDto(created);
     }
 
+    @Transactional
     public BoardDto updateBoardDto(Long id, BoardDto boardDto, Long userId) {
         Board updated = updateBoard(id, toEntity(boardDto), userId);
         return toDto(updated);
@@ -152,23 +171,63 @@ public class BoardService {
         }
         existingBoard.setIsTemplate(newIsTemplate);
         
-        return boardRepository.save(existingBoard);
+        Board saved = boardRepository.save(existingBoard);
+        publicBoardCache.evictBoard(id);
+        return saved;
     }
 
+    @Transactional
     public void deleteBoard(Long id, Long userId) {
         Board board = getBoardById(id, userId);
         
         // Log deletion before deleting
         changeLogService.logDelete(ChangeLogService.ENTITY_BOARD, id, userId);
         
+        attachmentService.deleteAttachmentsByBoardId(id);
         boardRepository.delete(board);
+        publicBoardCache.evictBoard(id);
     }
 
     // Public board methods for anonymous access
-    public List<BoardDto> getAllPublicBoardsDto() {
-        return boardRepository.findByIsPublicTrue().stream().map(this::toDto).toList();
+    /**
+     * Get the first public boards in name order, at most limit of them.
+     */
+    @Transactional(readOnly = true)
+    public List<BoardDto> getFirstPublicBoardsDto(int limit) {
+        return boardRepository.findPublicDtos(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Get one page of the public board directory in name order, optionally only boards whose name
+     * starts with the query (case-insensitive). The cursor is the nextCursor of the previous page
+     * (null for the first page).
+     */
+    @Transactional(readOnly = true)
+    public BoardSummaryPageDto getPublicBoardDirectory(String query, String cursor, Integer limit) {
+        int pageSize = limit == null || limit < 1 ? DEFAULT_DIRECTORY_PAGE_SIZE : Math.min(limit, MAX_DIRECTORY_PAGE_SIZE);
+        String namePrefix = KeysetCursor.likePrefix(query);
+        // Fetch one extra row to know whether another page follows
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+        
+        List<BoardSummaryDto> boards;
+        if (cursor == null || cursor.isEmpty()) {
+            boards = boardRepository.findPublicSummaries(namePrefix, fetch);
+        } else {
+            KeysetCursor.Position after = KeysetCursor.decode(cursor);
+            boards = boardRepository.findPublicSummariesAfter(namePrefix, after.afterName(), after.afterId(), fetch);
+        }
+        
+        boolean hasMore = boards.size() > pageSize;
+        List<BoardSummaryDto> page = hasMore ? boards.subList(0, pageSize) : boards;
+        String nextCursor = null;
+        if (hasMore) {
+            BoardSummaryDto last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getId(), last.getSortName());
+        }
+        return new BoardSummaryPageDto(page, nextCursor, hasMore);
     }
 
+    @Transactional(readOnly = true)
     public BoardDto getPublicBoardByIdDto(Long id) {
         Board board = boardRepository.findByIdAndIsPublicTrue(id)
                 .orElseThrow(() -> new RuntimeException("Public board not found"));
@@ -181,11 +240,9 @@ public class BoardService {
     }
 
     // Template methods
+    @Transactional(readOnly = true)
     public List<BoardDto> getTemplatesDto(Long userId) {
-        return boardRepository.findByUserIdAndIsTemplateTrue(userId)
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return boardRepository.findTemplateDtos(userId);
     }
 
     /**
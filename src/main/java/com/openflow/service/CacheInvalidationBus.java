@@ -0,0 +1,200 @@
+package com.openflow.service;
+
+import com.openflow.config.ReadWriteRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the in-process caches of all nodes coherent. A cache that evicts an entry locally also
+ * publishes the eviction here; the other nodes receive it through the transport and drop their
+ * copy. Staleness on the other nodes is bounded by the transport latency, which is reported as
+ * the lag between writing and applying an invalidation. With a read replica, every eviction is
+ * applied again once the replica has caught up, since a cache may have reloaded the old value from
+ * it in between.
+ */
+@Service
+public class CacheInvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // Absent when cache-invalidation.transport=none; evictions then stay local
+    @Autowired(required = false)
+    private CacheInvalidationTransport transport;
+
+    // Present when reads are routed to a replica, whose lag bounds how long it serves old values
+    @Autowired(required = false)
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    // Identifies this node's own invalidations, which it has already applied
+    private final String nodeId = System.getenv().getOrDefault("HOSTNAME", "node") + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService reapplier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-reapply");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder reapplied = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder unknownCache = new LongAdder();
+    private final LongAdder lagMillisTotal = new LongAdder();
+    private final AtomicLong lagMillisMax = new AtomicLong();
+    private volatile long lagMillisLast;
+
+    /**
+     * Drop entries of the named cache when another node invalidates them. The handler gets the
+     * published key as a string, or null for the whole cache.
+     */
+    public void subscribe(String cacheName, Consumer<String> handler) {
+        handlers.put(cacheName, handler);
+    }
+
+    /**
+     * Evict an entry from a local cache now and again once the surrounding transaction completes,
+     * so a concurrent read cannot re-cache the pre-commit state, and publish the eviction to the
+     * other nodes.
+     */
+    public void evictLocallyAndPublish(String cacheName, Object key, Runnable localEvict) {
+        localEvict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    localEvict.run();
+                }
+            });
+        }
+        publish(cacheName, key);
+    }
+
+    /**
+     * Tell the other nodes to drop an entry that this node has evicted; a null key drops the whole
+     * cache. Inside a transaction the invalidation is only sent if it commits.
+     */
+    public void publish(String cacheName, Object key) {
+        String keyString = key != null ? key.toString() : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleReapply(cacheName, keyString);
+                }
+            });
+        } else {
+            scheduleReapply(cacheName, keyString);
+        }
+        if (transport == null) {
+            return;
+        }
+        transport.publish(nodeId, cacheName, keyString);
+        published.increment();
+    }
+
+    /**
+     * Start receiving once every cache has subscribed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (transport != null) {
+            transport.start(this::receive);
+            logger.info("Cache invalidation bus started on node {}", nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        reapplier.shutdownNow();
+    }
+
+    void receive(CacheInvalidationTransport.Message message) {
+        if (nodeId.equals(message.origin())) {
+            return;
+        }
+        received.increment();
+        // Node and database clocks may differ slightly
+        long lag = Math.max(0, Duration.between(message.createdAt(), LocalDateTime.now()).toMillis());
+        lagMillisTotal.add(lag);
+        lagMillisMax.accumulateAndGet(lag, Math::max);
+        lagMillisLast = lag;
+
+        Consumer<String> handler = handlers.get(message.cacheName());
+        if (handler == null) {
+            unknownCache.increment();
+            return;
+        }
+        apply(message.cacheName(), handler, message.key());
+        scheduleReapply(message.cacheName(), message.key());
+    }
+
+    /**
+     * Evict the entry again once the replica has caught up with the write that caused the eviction.
+     */
+    private void scheduleReapply(String cacheName, String key) {
+        long delay = readWriteRoutingDataSource != null ? readWriteRoutingDataSource.getMaxLagMillis() : 0;
+        Consumer<String> handler = handlers.get(cacheName);
+        if (delay <= 0 || handler == null) {
+            return;
+        }
+        reapplier.schedule(() -> {
+            reapplied.increment();
+            apply(cacheName, handler, key);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void apply(String cacheName, Consumer<String> handler, String key) {
+        try {
+            handler.accept(key);
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.warn("Failed to apply invalidation of {} {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Published and received invalidations, and how long after being written they were applied.
+     */
+    public Map<String, Object> getStats() {
+        long count = received.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("enabled", transport != null);
+        stats.put("caches", new TreeSet<>(handlers.keySet()));
+        stats.put("published", published.sum());
+        stats.put("received", count);
+        stats.put("reapplied", reapplied.sum());
+        stats.put("failed", failed.sum());
+        stats.put("unknownCache", unknownCache.sum());
+        stats.put("lagMillisAvg", count > 0 ? lagMillisTotal.sum() / (double) count : 0.0);
+        stats.put("lagMillisMax", lagMillisMax.get());
+        stats.put("lagMillisLast", lagMillisLast);
+        if (transport != null) {
+            stats.putAll(transport.getStats());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,34 @@
+package com.openflow.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations between the nodes of a deployment. The database table is the
+ * default transport; set {@code cache-invalidation.transport=none} on a single node.
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * An invalidation written by {@code origin} at {@code createdAt}. A null key stands for the
+     * whole cache.
+     */
+    record Message(String origin, String cacheName, String key, LocalDateTime createdAt) {}
+
+    /**
+     * Send an invalidation to all nodes. Called inside the changing transaction when there is one,
+     * so nothing is sent for a change that rolls back.
+     */
+    void publish(String origin, String cacheName, String key);
+
+    /**
+     * Start delivering the invalidations of all nodes, including this one, to the listener.
+     */
+    void start(Consumer<Message> listener);
+
+    /**
+     * Transport health, e.g. when it last received messages.
+     */
+    Map<String, Object> getStats();
+}
@@ -2,17 +2,22 @@ package com.openflow.service;
 
 import com.openflow.dto.ChangeLogDto;
 import com.openflow.model.ChangeLog;
-import com.openflow.model.User;
+import com.openflow.dto.UserSummary;
 import com.openflow.repository.ChangeLogRepository;
-import com.openflow.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,7 +28,7 @@ public class ChangeLogService {
     private ChangeLogRepository changeLogRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
 
     // Entity type constants
     public static final String ENTITY_TASK = "TASK";
@@ -36,6 +41,29 @@ public class ChangeLogService {
     public static final String ACTION_DELETE = "DELETE";
     public static final String ACTION_MOVE = "MOVE";
 
+    // Fields whose entries describe discrete events rather than successive values of one field,
+    // so merging them would lose history (e.g. granting access to two different users)
+    private static final Set<String> NON_COALESCED_FIELDS = Set.of("access", "comment");
+
+    /**
+     * Consecutive edits of the same field by the same user within this window are merged
+     * into a single entry. Zero disables coalescing.
+     */
+    @Value("${changelog.coalesce-window-seconds:30}")
+    private long coalesceWindowSeconds;
+
+    /**
+     * Values shorter than this are always stored in full.
+     */
+    @Value("${changelog.delta.min-length:64}")
+    private int deltaMinLength;
+
+    /**
+     * Maximum length of a delta chain before a full snapshot is written again.
+     */
+    @Value("${changelog.delta.snapshot-interval:10}")
+    private int deltaSnapshotInterval;
+
     /**
      * Log a create action
      */
@@ -63,16 +91,254 @@ public class ChangeLogService {
         String newStr = newValue != null ? String.valueOf(newValue) : null;
         
         // Only log if values actually changed
-        if ((oldStr == null && newStr == null) || (oldStr != null && oldStr.equals(newStr))) {
+        if (sameValue(oldStr, newStr)) {
             return null;
         }
         
+        // The latest entry for this field is both the coalescing candidate and the delta base
+        ChangeLog latest = fieldName != null
+            ? changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(entityType, entityId, fieldName)
+                .orElse(null)
+            : null;
+        DecodedValues latestValues = latest != null ? decode(latest) : null;
+        
+        if (latest != null && isCoalescible(latest, userId, fieldName)) {
+            return coalesce(latest, latestValues, newStr);
+        }
+        
         ChangeLog log = ChangeLog.fieldChange(entityType, entityId, userId, fieldName, oldStr, newStr);
+        encodeAgainst(log, latest, latestValues);
         logger.info("Logging FIELD CHANGE: {} #{} field '{}' changed from '{}' to '{}' by user {}", 
                    entityType, entityId, fieldName, oldStr, newStr, userId);
         return changeLogRepository.save(log);
     }
 
+    /**
+     * Whether an edit can be merged into the latest entry for its field: it must have been
+     * written by the same user within the coalescing window. An edit by anyone else in between
+     * breaks the run.
+     */
+    private boolean isCoalescible(ChangeLog latest, Long userId, String fieldName) {
+        if (coalesceWindowSeconds <= 0 || userId == null || NON_COALESCED_FIELDS.contains(fieldName)) {
+            return false;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(coalesceWindowSeconds);
+        return ACTION_UPDATE.equals(latest.getAction())
+            && userId.equals(latest.getUserId())
+            && latest.getLastModifiedAt() != null
+            && latest.getLastModifiedAt().isAfter(cutoff);
+    }
+
+    /**
+     * Merge an edit into an existing entry, keeping its original old value. If the edits
+     * cancel out the entry is removed, since the field ended up where it started.
+     */
+    private ChangeLog coalesce(ChangeLog existing, DecodedValues existingValues, String newStr) {
+        if (!mergeInto(existing, existingValues, newStr)) {
+            changeLogRepository.delete(existing);
+            return null;
+        }
+        return changeLogRepository.save(existing);
+    }
+
+    /**
+     * Apply a coalesced edit to an entry in memory. Returns false when the edit reverts the
+     * entry's original value, in which case the entry should be deleted.
+     */
+    private boolean mergeInto(ChangeLog existing, DecodedValues existingValues, String newStr) {
+        String originalStr = existingValues.oldValue();
+        if (sameValue(originalStr, newStr)) {
+            logger.info("Dropping reverted FIELD CHANGE #{}: {} #{} field '{}'",
+                       existing.getId(), existing.getEntityType(), existing.getEntityId(), existing.getFieldName());
+            return false;
+        }
+        String patch = existing.isDeltaEncoded() ? TextDelta.diff(originalStr, newStr) : null;
+        if (patch != null && fitsAsPatch(patch, newStr)) {
+            existing.setNewValue(patch);
+        } else {
+            // Also when a rewrite does not fit as a patch: nothing is based on the latest entry
+            // yet, so it can switch back to full values
+            existing.setOldValue(originalStr);
+            existing.setNewValue(newStr);
+            existing.setBaseId(null);
+            existing.setSnapshotId(null);
+        }
+        existing.setUpdatedAt(LocalDateTime.now());
+        logger.info("Coalescing FIELD CHANGE into #{}: {} #{} field '{}' now '{}'",
+                   existing.getId(), existing.getEntityType(), existing.getEntityId(), existing.getFieldName(), newStr);
+        return true;
+    }
+
+    private static boolean sameValue(String a, String b) {
+        return (a == null && b == null) || (a != null && a.equals(b));
+    }
+
+    /**
+     * Log several field changes of one entity at once, e.g. a batch of custom field values.
+     * The latest entry of every field is loaded with one query, new entries are written with a
+     * single JDBC batch, and coalescing and delta encoding apply as for {@link #logFieldChange}.
+     * The changes are expected to come from {@link ChangeLog#fieldChange}.
+     */
+    public List<ChangeLog> logFieldChanges(List<ChangeLog> changes) {
+        List<ChangeLog> effective = changes.stream()
+            .filter(change -> change.getFieldName() != null)
+            .filter(change -> !sameValue(change.getOldValue(), change.getNewValue()))
+            .collect(Collectors.toList());
+        if (effective.isEmpty()) {
+            return List.of();
+        }
+        
+        ChangeLog first = effective.get(0);
+        Set<String> fieldNames = effective.stream().map(ChangeLog::getFieldName).collect(Collectors.toSet());
+        Map<String, ChangeLog> latestByField = new HashMap<>();
+        for (ChangeLog latest : changeLogRepository.findLatestByFieldNames(first.getEntityType(), first.getEntityId(), fieldNames)) {
+            latestByField.put(latest.getFieldName(), latest);
+        }
+        Map<Long, DecodedValues> latestValues = decodeAll(new ArrayList<>(latestByField.values()));
+        
+        List<ChangeLog> inserts = new ArrayList<>();
+        List<ChangeLog> merged = new ArrayList<>();
+        List<ChangeLog> reverted = new ArrayList<>();
+        for (ChangeLog change : effective) {
+            // A field repeated within the batch has no persisted base for its second change
+            ChangeLog latest = latestByField.remove(change.getFieldName());
+            DecodedValues values = latest != null ? latestValues.get(latest.getId()) : null;
+            if (latest != null && isCoalescible(latest, change.getUserId(), change.getFieldName())) {
+                (mergeInto(latest, values, change.getNewValue()) ? merged : reverted).add(latest);
+                continue;
+            }
+            encodeAgainst(change, latest, values);
+            inserts.add(change);
+        }
+        
+        if (!reverted.isEmpty()) {
+            changeLogRepository.deleteAll(reverted);
+        }
+        if (!merged.isEmpty()) {
+            changeLogRepository.saveAll(merged);
+        }
+        changeLogRepository.insertAll(inserts);
+        logger.info("Logging {} FIELD CHANGES ({} coalesced, {} reverted): {} #{} by user {}",
+                   inserts.size(), merged.size(), reverted.size(),
+                   first.getEntityType(), first.getEntityId(), first.getUserId());
+        
+        List<ChangeLog> logged = new ArrayList<>(inserts);
+        logged.addAll(merged);
+        return logged;
+    }
+
+    /**
+     * Store a new entry's values as patches against the previous entry for the same field when
+     * the text is long enough to benefit. Every {@code deltaSnapshotInterval} entries the chain
+     * restarts with full values so reconstruction stays bounded.
+     */
+    private void encodeAgainst(ChangeLog log, ChangeLog base, DecodedValues baseValues) {
+        String oldStr = log.getOldValue();
+        String newStr = log.getNewValue();
+        int fullLength = length(oldStr) + length(newStr);
+        if (base == null || base.getId() == null || baseValues.unavailable()
+                || Math.max(length(oldStr), length(newStr)) < deltaMinLength
+                || baseValues.depth() + 1 >= deltaSnapshotInterval) {
+            return;
+        }
+        String oldPatch = TextDelta.diff(baseValues.newValue(), oldStr);
+        String newPatch = TextDelta.diff(oldStr, newStr);
+        if (!fitsAsPatch(oldPatch, oldStr) || !fitsAsPatch(newPatch, newStr)
+                || length(oldPatch) + length(newPatch) >= fullLength) {
+            return;
+        }
+        log.setOldValue(oldPatch);
+        log.setNewValue(newPatch);
+        log.setBaseId(base.getId());
+        log.setSnapshotId(base.isDeltaEncoded() ? base.getSnapshotId() : base.getId());
+    }
+
+    /**
+     * Whether a patch can be stored in place of a value: it has to fit the column and must not be
+     * longer than the value itself, which a full rewrite's patch is by its header.
+     */
+    private static boolean fitsAsPatch(String patch, String value) {
+        return length(patch) <= ChangeLog.VALUE_LENGTH && length(patch) <= length(value);
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * Reconstruct the full values of a single entry.
+     */
+    private DecodedValues decode(ChangeLog log) {
+        if (!log.isDeltaEncoded()) {
+            return new DecodedValues(log.getOldValue(), log.getNewValue(), 0, false);
+        }
+        return decodeAll(List.of(log)).get(log.getId());
+    }
+
+    /**
+     * Reconstruct full values for a batch of entries. Delta chains are loaded with one range
+     * query per (entity, field), from the chain's snapshot up to the newest entry requested.
+     */
+    private Map<Long, DecodedValues> decodeAll(List<ChangeLog> logs) {
+        Map<Long, DecodedValues> decoded = new HashMap<>();
+        Map<String, List<ChangeLog>> chains = new HashMap<>();
+        for (ChangeLog log : logs) {
+            if (log.isDeltaEncoded()) {
+                chains.computeIfAbsent(log.getEntityType() + "#" + log.getEntityId() + "#" + log.getFieldName(),
+                    key -> new ArrayList<>()).add(log);
+            } else {
+                decoded.put(log.getId(), new DecodedValues(log.getOldValue(), log.getNewValue(), 0, false));
+            }
+        }
+        for (List<ChangeLog> group : chains.values()) {
+            ChangeLog first = group.get(0);
+            long fromId = group.stream().mapToLong(ChangeLog::getSnapshotId).min().getAsLong();
+            long toId = group.stream().mapToLong(ChangeLog::getId).max().getAsLong();
+            List<ChangeLog> chain = changeLogRepository.findByEntityTypeAndEntityIdAndFieldNameAndIdBetweenOrderByIdAsc(
+                first.getEntityType(), first.getEntityId(), first.getFieldName(), fromId, toId);
+            Map<Long, DecodedValues> chainValues = replay(chain);
+            for (ChangeLog log : group) {
+                decoded.put(log.getId(), chainValues.getOrDefault(log.getId(), DecodedValues.UNAVAILABLE));
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Replay a chain in id order, applying each entry's patches to its base entry's values.
+     */
+    private Map<Long, DecodedValues> replay(List<ChangeLog> chain) {
+        Map<Long, DecodedValues> values = new HashMap<>();
+        for (ChangeLog log : chain) {
+            if (!log.isDeltaEncoded()) {
+                values.put(log.getId(), new DecodedValues(log.getOldValue(), log.getNewValue(), 0, false));
+                continue;
+            }
+            DecodedValues base = values.get(log.getBaseId());
+            if (base == null || base.unavailable()) {
+                logger.warn("Cannot reconstruct change log #{}: base #{} is missing", log.getId(), log.getBaseId());
+                values.put(log.getId(), DecodedValues.UNAVAILABLE);
+                continue;
+            }
+            try {
+                String oldStr = TextDelta.apply(base.newValue(), log.getOldValue());
+                String newStr = TextDelta.apply(oldStr, log.getNewValue());
+                values.put(log.getId(), new DecodedValues(oldStr, newStr, base.depth() + 1, false));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Cannot reconstruct change log #{}: {}", log.getId(), e.getMessage());
+                values.put(log.getId(), DecodedValues.UNAVAILABLE);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Full old/new values of an entry and its distance from the chain's snapshot.
+     */
+    private record DecodedValues(String oldValue, String newValue, int depth, boolean unavailable) {
+        static final DecodedValues UNAVAILABLE = new DecodedValues(null, null, 0, true);
+    }
+
     /**
      * Log a move action (e.g., task moved between statuses)
      */
@@ -90,6 +356,7 @@ public class ChangeLogService {
     /**
      * Get change history for an entity
      */
+    @Transactional(readOnly = true)
     public List<ChangeLogDto> getEntityHistory(String entityType, Long entityId) {
         List<ChangeLog> logs = changeLogRepository.findTop50ByEntityTypeAndEntityIdOrderByCreatedAtDesc(
             entityType, entityId);
@@ -99,6 +366,7 @@ public class ChangeLogService {
     /**
      * Get change history for a task
      */
+    @Transactional(readOnly = true)
     public List<ChangeLogDto> getTaskHistory(Long taskId) {
         return getEntityHistory(ENTITY_TASK, taskId);
     }
@@ -106,6 +374,7 @@ public class ChangeLogService {
     /**
      * Get change history for a board
      */
+    @Transactional(readOnly = true)
     public List<ChangeLogDto> getBoardHistory(Long boardId) {
         return getEntityHistory(ENTITY_BOARD, boardId);
     }
@@ -113,6 +382,7 @@ public class ChangeLogService {
     /**
      * Get user's recent activity
      */
+    @Transactional(readOnly = true)
     public List<ChangeLogDto> getUserActivity(Long userId) {
         List<ChangeLog> logs = changeLogRepository.findByUserIdOrderByCreatedAtDesc(userId);
         return enrichWithUsernames(logs);
@@ -129,13 +399,17 @@ public class ChangeLogService {
             .distinct()
             .collect(Collectors.toList());
 
-        // Batch fetch users
-        Map<Long, String> usernames = userRepository.findAllById(userIds).stream()
-            .collect(Collectors.toMap(User::getId, User::getUsername));
+        // Batch resolve users
+        Map<Long, String> usernames = userDirectory.resolveAll(userIds).values().stream()
+            .collect(Collectors.toMap(UserSummary::id, UserSummary::username));
+
+        // Reconstruct delta-encoded values
+        Map<Long, DecodedValues> values = decodeAll(logs);
 
         // Convert to DTOs with usernames
         return logs.stream()
             .map(log -> {
+                DecodedValues decoded = values.get(log.getId());
                 ChangeLogDto dto = new ChangeLogDto();
                 dto.setId(log.getId());
                 dto.setEntityType(log.getEntityType());
@@ -144,8 +418,8 @@ public class ChangeLogService {
                 dto.setUsername(log.getUserId() != null ? usernames.get(log.getUserId()) : "System");
                 dto.setAction(log.getAction());
                 dto.setFieldName(log.getFieldName());
-                dto.setOldValue(log.getOldValue());
-                dto.setNewValue(log.getNewValue());
+                dto.setOldValue(decoded.oldValue());
+                dto.setNewValue(decoded.newValue());
                 dto.setCreatedAt(log.getCreatedAt());
                 return dto;
             })
@@ -1,16 +1,24 @@
 package com.openflow.service;
 
 import com.openflow.dto.CommentDto;
+import com.openflow.dto.CommentPageDto;
+import com.openflow.dto.UserSummary;
 import com.openflow.model.Comment;
 import com.openflow.model.Role;
 import com.openflow.model.User;
 import com.openflow.repository.CommentRepository;
 import com.openflow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,28 +32,55 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
     @Autowired
     @Lazy
     private ChangeLogService changeLogService;
 
     @Autowired
-    private S3Service s3Service;
+    private ProfilePictureService profilePictureService;
+
+    // Edge length of the profile picture variant shown next to comments
+    @Value("${profile-pictures.comment-size:64}")
+    private int commentPictureSize;
 
 
+    // Default and maximum page sizes for cursor-paginated comment listing
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private CommentDto toDto(Comment comment) {
-        User user = userRepository.findById(comment.getUserId()).orElse(null);
-        String username = user != null ? user.getUsername() : "Unknown";
-        String profilePictureUrl = null;
-        
-        // Get profile picture URL if available
-        if (user != null && user.getProfilePictureKey() != null && s3Service.isEnabled()) {
-            try {
-                profilePictureUrl = s3Service.getPresignedUrl(user.getProfilePictureKey());
-            } catch (Exception e) {
-                // Ignore - profile picture not available
-            }
+        UserSummary user = userDirectory.resolve(comment.getUserId()).orElse(null);
+        return toDto(comment, user, getProfilePictureUrl(user));
+    }
+
+    /**
+     * Convert comments resolving all authors at once and signing each author's
+     * profile picture URL once, however many comments they wrote.
+     */
+    private List<CommentDto> toDtos(List<Comment> comments) {
+        Set<Long> authorIds = comments.stream().map(Comment::getUserId).collect(Collectors.toSet());
+        Map<Long, UserSummary> authors = userDirectory.resolveAll(authorIds);
+        Map<Long, String> profilePictureUrls = new HashMap<>();
+        authors.values().forEach(user -> profilePictureUrls.put(user.id(), getProfilePictureUrl(user)));
+        
+        return comments.stream()
+                .map(comment -> toDto(comment, authors.get(comment.getUserId()),
+                        profilePictureUrls.get(comment.getUserId())))
+                .collect(Collectors.toList());
+    }
+
+    private String getProfilePictureUrl(UserSummary user) {
+        if (user != null && user.profilePictureKey() != null) {
+            return profilePictureService.getUrl(user, commentPictureSize);
         }
-        
+        return null;
+    }
+
+    private CommentDto toDto(Comment comment, UserSummary user, String profilePictureUrl) {
+        String username = user != null ? user.username() : "Unknown";
         return new CommentDto(
             comment.getId(),
             comment.getTaskId(),
@@ -71,18 +106,43 @@ public class CommentService {
      * Get all comments for a task.
      * Validates that the user has access to the task's board.
      */
+    @Transactional(readOnly = true)
     public List<CommentDto> getCommentsByTaskId(Long taskId, Long userId) {
         // Validate user has access to the task's board
         taskService.getTaskById(taskId, userId);
         
         List<Comment> comments = commentRepository.findByTaskIdOrderByCreatedAtAsc(taskId);
-        return comments.stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(comments);
+    }
+
+    /**
+     * Get one page of a task's comments, oldest-first or newest-first.
+     * The cursor is the nextCursor of the previous page (null for the first page).
+     * Validates that the user has access to the task's board.
+     */
+    @Transactional(readOnly = true)
+    public CommentPageDto getCommentsPage(Long taskId, Long userId, Long cursor, Integer limit, boolean newestFirst) {
+        // Validate user has access to the task's board
+        taskService.getTaskById(taskId, userId);
+        
+        int pageSize = limit == null || limit < 1 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page follows
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+        List<Comment> comments = newestFirst
+                ? commentRepository.findByTaskIdAndIdLessThanOrderByIdDesc(taskId, cursor != null ? cursor : Long.MAX_VALUE, fetch)
+                : commentRepository.findByTaskIdAndIdGreaterThanOrderByIdAsc(taskId, cursor != null ? cursor : 0L, fetch);
+        
+        boolean hasMore = comments.size() > pageSize;
+        List<Comment> page = hasMore ? comments.subList(0, pageSize) : comments;
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return new CommentPageDto(toDtos(page), nextCursor, hasMore);
     }
 
     /**
      * Create a new comment.
      * Validates that the user has access to the task's board.
      */
+    @Transactional
     public CommentDto createComment(CommentDto dto, Long userId) {
         // Validate user has access to the task's board
         taskService.getTaskById(dto.getTaskId(), userId);
@@ -101,6 +161,7 @@ public class CommentService {
      * Update a comment.
      * Only the comment author or admin can update.
      */
+    @Transactional
     public CommentDto updateComment(Long id, CommentDto dto, Long userId) {
         Comment existingComment = commentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
@@ -118,12 +179,13 @@ public class CommentService {
             throw new RuntimeException("Unauthorized: Only comment author or admin can update");
         }
         
+        String previousContent = existingComment.getContent();
         existingComment.setContent(dto.getContent());
         Comment saved = commentRepository.save(existingComment);
         
-        // Log comment update
+        // Log comment update (long comments are delta-encoded against the previous content)
         changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, existingComment.getTaskId(), userId,
-            "comment", "updated", dto.getContent());
+            "comment", previousContent, dto.getContent());
         
         return toDto(saved);
     }
@@ -132,6 +194,7 @@ public class CommentService {
      * Delete a comment.
      * Only the comment author or admin can delete.
      */
+    @Transactional
     public void deleteComment(Long id, Long userId) {
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
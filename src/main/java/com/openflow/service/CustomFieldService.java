@@ -4,19 +4,36 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openflow.dto.CustomFieldDefinitionDto;
+import com.openflow.dto.CustomFieldFilterDto;
 import com.openflow.dto.CustomFieldValueDto;
+import com.openflow.dto.TaskQueryDto;
+import com.openflow.model.ChangeLog;
 import com.openflow.model.CustomFieldDefinition;
 import com.openflow.model.CustomFieldValue;
+import com.openflow.model.FieldType;
+import com.openflow.model.FilterOperator;
+import com.openflow.repository.CustomFieldQuery;
 import com.openflow.repository.CustomFieldDefinitionRepository;
 import com.openflow.repository.CustomFieldValueRepository;
+import com.openflow.repository.QueryLimits;
+import com.openflow.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,18 +52,122 @@ public class CustomFieldService {
     @Autowired
     private ChangeLogService changeLogService;
     
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Maximum number of fields shown on a task card
+    private static final int MAX_CARD_FIELDS = 3;
+
+    static final String CACHE_NAME = "custom-field-definitions";
+
+    @Value("${custom-field-cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${custom-field-cache.max-entries:5000}")
+    private int maxEntries;
+
+    private record CachedDefinitions(List<CustomFieldDefinitionDto> definitions, long expiresAtMillis) {}
+
+    /**
+     * Per-board definitions in display order with options already parsed. Entries are
+     * evicted on all nodes whenever a definition on the board is created, updated or deleted,
+     * and expire after a TTL. Access-ordered, so the least recently used boards are dropped
+     * first once full.
+     */
+    private final Map<Long, CachedDefinitions> boardDefinitionCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedDefinitions> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Boards being loaded, guarded by the cache. An eviction removes the board's token, so a load
+     * that may have read the definitions before the change is not cached.
+     */
+    private final Map<Long, Object> loadTokens = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CACHE_NAME, key -> {
+            if (key != null) {
+                removeBoardDefinitions(Long.valueOf(key));
+            } else {
+                synchronized (boardDefinitionCache) {
+                    loadTokens.clear();
+                    boardDefinitionCache.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * Get a board's definitions from the cache, loading them on first use.
+     */
+    private List<CustomFieldDefinitionDto> getBoardDefinitions(Long boardId) {
+        long now = System.currentTimeMillis();
+        Object token = new Object();
+        synchronized (boardDefinitionCache) {
+            CachedDefinitions cached = boardDefinitionCache.get(boardId);
+            if (cached != null && cached.expiresAtMillis() > now) {
+                return cached.definitions();
+            }
+            loadTokens.put(boardId, token);
+        }
+        List<CustomFieldDefinitionDto> definitions = null;
+        try {
+            definitions = definitionRepository.findByBoardIdOrderByDisplayOrderAsc(boardId)
+                    .stream()
+                    .map(this::toDefinitionDto)
+                    .toList();
+        } finally {
+            long expiresAt = now + Duration.ofMinutes(ttlMinutes).toMillis();
+            synchronized (boardDefinitionCache) {
+                if (loadTokens.remove(boardId, token) && definitions != null) {
+                    boardDefinitionCache.put(boardId, new CachedDefinitions(definitions, expiresAt));
+                }
+            }
+        }
+        return definitions;
+    }
+
+    /**
+     * Drop a board's cached definitions on all nodes.
+     */
+    private void evictBoardDefinitions(Long boardId) {
+        cacheInvalidationBus.evictLocallyAndPublish(CACHE_NAME, boardId, () -> removeBoardDefinitions(boardId));
+    }
+
+    private void removeBoardDefinitions(Long boardId) {
+        synchronized (boardDefinitionCache) {
+            loadTokens.remove(boardId);
+            boardDefinitionCache.remove(boardId);
+        }
+    }
+
+    private List<CustomFieldDefinitionDto> getCardDefinitions(Long boardId) {
+        return getBoardDefinitions(boardId).stream()
+                .filter(d -> Boolean.TRUE.equals(d.getShowInCard()))
+                .limit(MAX_CARD_FIELDS)
+                .toList();
+    }
+
     // ==================== Field Definition Methods ====================
 
     /**
      * Get all custom field definitions for a board.
      */
+    @Transactional(readOnly = true)
     public List<CustomFieldDefinitionDto> getFieldDefinitions(Long boardId, Long userId) {
         boardService.getBoardById(boardId, userId); // Validate access
-        return definitionRepository.findByBoardIdOrderByDisplayOrderAsc(boardId)
+        return getBoardDefinitions(boardId)
                 .stream()
-                .map(this::toDefinitionDto)
+                .map(this::copyOf)
                 .collect(Collectors.toList());
     }
 
@@ -59,11 +180,11 @@ public class CustomFieldService {
         
         // Check if we're trying to add a showInCard field and there are already 3
         if (dto.getShowInCard() != null && dto.getShowInCard()) {
-            long currentShowInCardCount = definitionRepository.findByBoardIdOrderByDisplayOrderAsc(dto.getBoardId())
+            long currentShowInCardCount = getBoardDefinitions(dto.getBoardId())
                     .stream()
                     .filter(d -> d.getShowInCard() != null && d.getShowInCard())
                     .count();
-            if (currentShowInCardCount >= 3) {
+            if (currentShowInCardCount >= MAX_CARD_FIELDS) {
                 throw new RuntimeException("Maximum of 3 fields can be shown in card");
             }
         }
@@ -78,6 +199,7 @@ public class CustomFieldService {
         definition.setShowInCard(dto.getShowInCard() != null ? dto.getShowInCard() : false);
         
         CustomFieldDefinition saved = definitionRepository.save(definition);
+        evictBoardDefinitions(saved.getBoardId());
         
         changeLogService.logCreate("CUSTOM_FIELD", saved.getId(), userId);
         
@@ -99,11 +221,11 @@ public class CustomFieldService {
         Boolean currentShowInCard = existing.getShowInCard() != null ? existing.getShowInCard() : false;
         
         if (newShowInCard && !currentShowInCard) {
-            long currentShowInCardCount = definitionRepository.findByBoardIdOrderByDisplayOrderAsc(existing.getBoardId())
+            long currentShowInCardCount = getBoardDefinitions(existing.getBoardId())
                     .stream()
                     .filter(d -> d.getShowInCard() != null && d.getShowInCard() && !d.getId().equals(id))
                     .count();
-            if (currentShowInCardCount >= 3) {
+            if (currentShowInCardCount >= MAX_CARD_FIELDS) {
                 throw new RuntimeException("Maximum of 3 fields can be shown in card");
             }
         }
@@ -113,6 +235,7 @@ public class CustomFieldService {
                 "name", existing.getName(), dto.getName());
         }
         
+        FieldType previousType = existing.getFieldType();
         existing.setName(dto.getName());
         existing.setFieldType(dto.getFieldType());
         existing.setOptions(serializeOptions(dto.getOptions()));
@@ -120,7 +243,16 @@ public class CustomFieldService {
         existing.setIsRequired(dto.getIsRequired() != null ? dto.getIsRequired() : existing.getIsRequired());
         existing.setShowInCard(newShowInCard);
         
-        return toDefinitionDto(definitionRepository.save(existing));
+        CustomFieldDefinition saved = definitionRepository.save(existing);
+        evictBoardDefinitions(saved.getBoardId());
+        
+        // Typed columns depend on the field type, so re-derive them for every stored value
+        if (previousType != saved.getFieldType()) {
+            List<CustomFieldValue> values = valueRepository.findByFieldDefinitionId(id);
+            values.forEach(value -> TypedFieldValue.populate(value, saved.getFieldType()));
+            valueRepository.saveAll(values);
+        }
+        return toDefinitionDto(saved);
     }
 
     /**
@@ -139,6 +271,7 @@ public class CustomFieldService {
         changeLogService.logDelete("CUSTOM_FIELD", id, userId);
         
         definitionRepository.delete(definition);
+        evictBoardDefinitions(definition.getBoardId());
     }
 
     // ==================== Field Value Methods ====================
@@ -146,6 +279,7 @@ public class CustomFieldService {
     /**
      * Get all custom field values for a task.
      */
+    @Transactional(readOnly = true)
     public List<CustomFieldValueDto> getTaskFieldValues(Long taskId) {
         List<CustomFieldValue> values = valueRepository.findByTaskId(taskId);
         
@@ -154,12 +288,13 @@ public class CustomFieldService {
             return List.of();
         }
         
-        // Enrich with field definition info
-        Map<Long, CustomFieldDefinition> definitionMap = values.stream()
+        // Enrich with field definition info (one query for all definitions)
+        List<Long> definitionIds = values.stream()
                 .map(CustomFieldValue::getFieldDefinitionId)
                 .distinct()
-                .map(defId -> definitionRepository.findById(defId).orElse(null))
-                .filter(def -> def != null)
+                .collect(Collectors.toList());
+        Map<Long, CustomFieldDefinition> definitionMap = definitionRepository.findAllById(definitionIds)
+                .stream()
                 .collect(Collectors.toMap(CustomFieldDefinition::getId, def -> def));
         
         return values.stream()
@@ -170,34 +305,56 @@ public class CustomFieldService {
     /**
      * Get visible custom field values for a task (fields with showInCard=true).
      */
+    @Transactional(readOnly = true)
     public List<CustomFieldValueDto> getTaskVisibleFieldValues(Long taskId, Long boardId) {
-        // Get definitions that should be shown in card
-        List<CustomFieldDefinition> visibleDefinitions = definitionRepository.findByBoardIdOrderByDisplayOrderAsc(boardId)
-                .stream()
-                .filter(d -> d.getShowInCard() != null && d.getShowInCard())
-                .limit(3)
-                .collect(Collectors.toList());
+        return getTasksVisibleFieldValues(List.of(taskId), boardId).getOrDefault(taskId, List.of());
+    }
+
+    /**
+     * Get visible custom field values for many tasks on a board, keyed by task ID.
+     * Values are loaded with a single IN query per 1000 tasks.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<CustomFieldValueDto>> getTasksVisibleFieldValues(Collection<Long> taskIds, Long boardId) {
+        List<CustomFieldDefinitionDto> visibleDefinitions = getCardDefinitions(boardId);
         
+        Map<Long, List<CustomFieldValueDto>> result = new LinkedHashMap<>();
+        if (taskIds.isEmpty()) {
+            return result;
+        }
         if (visibleDefinitions.isEmpty()) {
-            return List.of();
+            taskIds.forEach(taskId -> result.put(taskId, List.of()));
+            return result;
         }
         
-        // Get values for these definitions
-        List<CustomFieldValue> values = valueRepository.findByTaskId(taskId);
-        Map<Long, String> valueMap = values.stream()
-                .collect(Collectors.toMap(CustomFieldValue::getFieldDefinitionId, CustomFieldValue::getValue, (a, b) -> a));
+        // Get values for these definitions, grouped by task
+        List<Long> definitionIds = visibleDefinitions.stream().map(CustomFieldDefinitionDto::getId).toList();
+        List<Long> distinctTaskIds = taskIds.stream().distinct().toList();
+        Map<Long, Map<Long, String>> valuesByTask = new HashMap<>();
+        for (int from = 0; from < distinctTaskIds.size(); from += QueryLimits.MAX_IN_CLAUSE_SIZE) {
+            List<Long> chunk = distinctTaskIds.subList(from, Math.min(from + QueryLimits.MAX_IN_CLAUSE_SIZE, distinctTaskIds.size()));
+            for (CustomFieldValue value : valueRepository.findByTaskIdInAndFieldDefinitionIdIn(chunk, definitionIds)) {
+                valuesByTask.computeIfAbsent(value.getTaskId(), id -> new HashMap<>())
+                        .putIfAbsent(value.getFieldDefinitionId(), value.getValue());
+            }
+        }
         
         // Create DTOs with values (or empty if no value set)
-        return visibleDefinitions.stream()
-                .map(def -> {
-                    CustomFieldValueDto dto = new CustomFieldValueDto();
-                    dto.setFieldDefinitionId(def.getId());
-                    dto.setFieldName(def.getName());
-                    dto.setFieldType(def.getFieldType());
-                    dto.setValue(valueMap.getOrDefault(def.getId(), ""));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        for (Long taskId : distinctTaskIds) {
+            Map<Long, String> valueMap = valuesByTask.getOrDefault(taskId, Map.of());
+            List<CustomFieldValueDto> dtos = new ArrayList<>(visibleDefinitions.size());
+            for (CustomFieldDefinitionDto def : visibleDefinitions) {
+                CustomFieldValueDto dto = new CustomFieldValueDto();
+                dto.setTaskId(taskId);
+                dto.setFieldDefinitionId(def.getId());
+                dto.setFieldName(def.getName());
+                dto.setFieldType(def.getFieldType());
+                dto.setValue(valueMap.getOrDefault(def.getId(), ""));
+                dtos.add(dto);
+            }
+            result.put(taskId, dtos);
+        }
+        return result;
     }
 
     /**
@@ -220,6 +377,7 @@ public class CustomFieldService {
         
         String oldValue = fieldValue.getValue();
         fieldValue.setValue(value);
+        TypedFieldValue.populate(fieldValue, definition.getFieldType());
         
         CustomFieldValue saved = valueRepository.save(fieldValue);
         
@@ -234,14 +392,129 @@ public class CustomFieldService {
 
     /**
      * Set multiple custom field values for a task.
+     * Definitions and existing values are loaded with one query each, changed values are written
+     * with a single batched MERGE and their change-log entries with a single batched insert.
      */
     @Transactional
     public List<CustomFieldValueDto> setFieldValues(Long taskId, Map<Long, String> fieldValues, Long userId) {
+        if (fieldValues.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, CustomFieldDefinition> definitions = definitionRepository.findAllById(fieldValues.keySet())
+                .stream()
+                .collect(Collectors.toMap(CustomFieldDefinition::getId, def -> def));
+        if (definitions.size() < fieldValues.size()) {
+            throw new RuntimeException("Custom field definition not found");
+        }
+        Map<Long, CustomFieldValue> existingValues = valueRepository
+                .findByTaskIdAndFieldDefinitionIdIn(taskId, fieldValues.keySet())
+                .stream()
+                .collect(Collectors.toMap(CustomFieldValue::getFieldDefinitionId, value -> value, (a, b) -> a));
+        
+        // Only write fields that are new or whose value actually changed
+        List<CustomFieldValue> changedValues = new ArrayList<>();
+        List<ChangeLog> changes = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : fieldValues.entrySet()) {
+            CustomFieldDefinition definition = definitions.get(entry.getKey());
+            CustomFieldValue existing = existingValues.get(entry.getKey());
+            String oldValue = existing != null ? existing.getValue() : null;
+            if (existing == null || !Objects.equals(oldValue, entry.getValue())) {
+                CustomFieldValue changed = new CustomFieldValue();
+                changed.setTaskId(taskId);
+                changed.setFieldDefinitionId(entry.getKey());
+                changed.setValue(entry.getValue());
+                TypedFieldValue.populate(changed, definition.getFieldType());
+                changedValues.add(changed);
+                changes.add(ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+                    "custom:" + definition.getName(), oldValue, entry.getValue()));
+            }
+        }
+        
+        valueRepository.upsertAll(changedValues);
+        changeLogService.logFieldChanges(changes);
+        
+        // Look up the IDs of rows the MERGE inserted
+        List<Long> insertedDefinitionIds = changedValues.stream()
+                .map(CustomFieldValue::getFieldDefinitionId)
+                .filter(defId -> !existingValues.containsKey(defId))
+                .toList();
+        Map<Long, Long> insertedIds = insertedDefinitionIds.isEmpty()
+                ? Map.of()
+                : valueRepository.findByTaskIdAndFieldDefinitionIdIn(taskId, insertedDefinitionIds)
+                        .stream()
+                        .collect(Collectors.toMap(CustomFieldValue::getFieldDefinitionId, CustomFieldValue::getId, (a, b) -> a));
+        
         return fieldValues.entrySet().stream()
-                .map(entry -> setFieldValue(taskId, entry.getKey(), entry.getValue(), userId))
+                .map(entry -> {
+                    CustomFieldDefinition definition = definitions.get(entry.getKey());
+                    CustomFieldValue existing = existingValues.get(entry.getKey());
+                    CustomFieldValueDto dto = new CustomFieldValueDto();
+                    dto.setId(existing != null ? existing.getId() : insertedIds.get(entry.getKey()));
+                    dto.setTaskId(taskId);
+                    dto.setFieldDefinitionId(entry.getKey());
+                    dto.setFieldName(definition.getName());
+                    dto.setFieldType(definition.getFieldType());
+                    dto.setValue(entry.getValue());
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
+    // ==================== Task Query Methods ====================
+
+    /**
+     * Find the IDs of a board's tasks matching all custom-field filters, optionally sorted by a
+     * custom field. Filters and sorting use the typed value columns, so only NUMBER, DATE,
+     * DROPDOWN and CHECKBOX fields are supported.
+     */
+    public List<Long> findTaskIds(Long boardId, TaskQueryDto request) {
+        Map<Long, CustomFieldDefinitionDto> definitions = getBoardDefinitions(boardId)
+                .stream()
+                .collect(Collectors.toMap(CustomFieldDefinitionDto::getId, def -> def));
+        
+        CustomFieldQuery query = new CustomFieldQuery();
+        if (request.getFilters() != null) {
+            for (CustomFieldFilterDto filter : request.getFilters()) {
+                CustomFieldDefinitionDto definition = getQueryableDefinition(definitions, filter.getFieldDefinitionId());
+                if (filter.getOperator() == null) {
+                    throw new RuntimeException("Filter operator is required");
+                }
+                List<String> rawValues = filter.getOperator() == FilterOperator.IN
+                        ? filter.getValues()
+                        : Collections.singletonList(filter.getValue());
+                if (rawValues == null || rawValues.isEmpty() || rawValues.size() > QueryLimits.MAX_IN_CLAUSE_SIZE) {
+                    throw new RuntimeException("Invalid number of values for custom field " + definition.getName());
+                }
+                List<Object> values = new ArrayList<>(rawValues.size());
+                for (String rawValue : rawValues) {
+                    Object value = TypedFieldValue.parse(definition.getFieldType(), rawValue);
+                    if (value == null) {
+                        throw new RuntimeException("Invalid value for custom field " + definition.getName());
+                    }
+                    values.add(value);
+                }
+                query.where(definition.getId(), definition.getFieldType(), filter.getOperator(), values);
+            }
+        }
+        if (request.getSortFieldId() != null) {
+            CustomFieldDefinitionDto definition = getQueryableDefinition(definitions, request.getSortFieldId());
+            query.orderBy(definition.getId(), definition.getFieldType(), "DESC".equalsIgnoreCase(request.getSortDirection()));
+        }
+        return taskRepository.findIdsByCustomFields(boardId, query);
+    }
+
+    private CustomFieldDefinitionDto getQueryableDefinition(Map<Long, CustomFieldDefinitionDto> definitions, Long id) {
+        CustomFieldDefinitionDto definition = definitions.get(id);
+        if (definition == null) {
+            throw new RuntimeException("Custom field definition not found");
+        }
+        if (!TypedFieldValue.isIndexed(definition.getFieldType())) {
+            throw new RuntimeException("Custom field " + definition.getName() + " cannot be filtered or sorted");
+        }
+        return definition;
+    }
+
     // ==================== Conversion Methods ====================
 
     private CustomFieldDefinitionDto toDefinitionDto(CustomFieldDefinition definition) {
@@ -257,6 +530,19 @@ public class CustomFieldService {
         return dto;
     }
 
+    private CustomFieldDefinitionDto copyOf(CustomFieldDefinitionDto cached) {
+        return new CustomFieldDefinitionDto(
+            cached.getId(),
+            cached.getBoardId(),
+            cached.getName(),
+            cached.getFieldType(),
+            cached.getOptions(),
+            cached.getDisplayOrder(),
+            cached.getIsRequired(),
+            cached.getShowInCard()
+        );
+    }
+
     private CustomFieldValueDto toValueDto(CustomFieldValue value, CustomFieldDefinition definition) {
         CustomFieldValueDto dto = new CustomFieldValueDto();
         dto.setId(value.getId());
@@ -287,7 +573,7 @@ public class CustomFieldService {
             return List.of();
         }
         try {
-            return objectMapper.readValue(options, new TypeReference<List<String>>() {});
+            return Collections.unmodifiableList(objectMapper.readValue(options, new TypeReference<List<String>>() {}));
         } catch (JsonProcessingException e) {
             logger.error("Failed to deserialize options", e);
             return List.of();
@@ -0,0 +1,192 @@
+package com.openflow.service;
+
+import com.openflow.config.ReadWriteRoutingDataSource;
+import com.openflow.model.CacheInvalidation;
+import com.openflow.repository.CacheInvalidationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Invalidations as rows of the cache_invalidation table, written in the changing transaction and
+ * polled by every node. Each poll reads the rows after the highest id delivered so far. A row
+ * created earlier can commit after a later one, so about once a second the poll instead re-reads
+ * an overlap window by creation time; rows already delivered are skipped by id. A transaction
+ * running longer than the overlap can be missed, the cache TTLs cover that case.
+ */
+@Service
+@ConditionalOnProperty(name = "cache-invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcCacheInvalidationTransport.class);
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Value("${cache-invalidation.jdbc.poll-interval-ms:250}")
+    private long pollIntervalMs;
+
+    // How far behind the newest row already read each poll looks for late commits
+    @Value("${cache-invalidation.jdbc.overlap-seconds:30}")
+    private long overlapSeconds;
+
+    // How often a poll re-reads the overlap window instead of only the rows after the last id
+    @Value("${cache-invalidation.jdbc.overlap-scan-interval-ms:1000}")
+    private long overlapScanIntervalMs;
+
+    @Value("${cache-invalidation.jdbc.batch-size:1000}")
+    private int batchSize;
+
+    // Rows older than this are purged; must be well above the overlap
+    @Value("${cache-invalidation.jdbc.retention-minutes:10}")
+    private long retentionMinutes;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only used on the poller thread
+    private Consumer<Message> listener;
+    private LocalDateTime watermark;
+    private long lastId;
+    private long lastOverlapScanAtMillis;
+    private final Map<Long, LocalDateTime> delivered = new HashMap<>();
+
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder overlapScans = new LongAdder();
+    private final LongAdder pollFailures = new LongAdder();
+    private final LongAdder rowsDelivered = new LongAdder();
+    private final LongAdder rowsPurged = new LongAdder();
+    private volatile long lastPollAtMillis;
+
+    @Override
+    public void publish(String origin, String cacheName, String key) {
+        cacheInvalidationRepository.insert(origin, cacheName, key);
+    }
+
+    @Override
+    public void start(Consumer<Message> listener) {
+        poller.execute(() -> {
+            this.listener = listener;
+            // Nothing is cached yet, so only rows that may still be committing matter
+            watermark = LocalDateTime.now();
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::purgeSafely, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+            polls.increment();
+            lastPollAtMillis = System.currentTimeMillis();
+        } catch (Exception e) {
+            // Retried on the next tick; the lag shows up in the stats
+            pollFailures.increment();
+            logger.warn("Failed to poll cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deliver the rows after the last delivered id, or every row created since the watermark minus
+     * the overlap that was not delivered yet when an overlap scan is due.
+     */
+    void poll() {
+        long now = System.currentTimeMillis();
+        if (now - lastOverlapScanAtMillis >= overlapScanIntervalMs) {
+            scanOverlap();
+            lastOverlapScanAtMillis = now;
+            overlapScans.increment();
+        } else {
+            readAfterLastId();
+        }
+    }
+
+    private void scanOverlap() {
+        LocalDateTime since = watermark.minusSeconds(overlapSeconds);
+        while (true) {
+            LocalDateTime from = since;
+            // Read from the primary, a lagging replica would delay every invalidation
+            List<CacheInvalidation> rows = ReadWriteRoutingDataSource.onPrimary(() -> cacheInvalidationRepository
+                    .findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(from, PageRequest.of(0, batchSize)));
+            rows.forEach(this::deliver);
+            LocalDateTime last = rows.isEmpty() ? since : rows.get(rows.size() - 1).getCreatedAt();
+            // A full page continues after its last row, unless the page did not move forward
+            if (rows.size() < batchSize || !last.isAfter(since)) {
+                break;
+            }
+            since = last;
+        }
+        // Rows before the overlap window are not read again
+        LocalDateTime horizon = watermark.minusSeconds(overlapSeconds);
+        delivered.values().removeIf(createdAt -> createdAt.isBefore(horizon));
+    }
+
+    private void readAfterLastId() {
+        // The overlap bounds the first read after startup, when no id has been delivered yet
+        LocalDateTime since = watermark.minusSeconds(overlapSeconds);
+        List<CacheInvalidation> rows;
+        do {
+            long after = lastId;
+            rows = ReadWriteRoutingDataSource.onPrimary(() -> cacheInvalidationRepository
+                    .findByIdGreaterThanAndCreatedAtGreaterThanEqualOrderByIdAsc(after, since, PageRequest.of(0, batchSize)));
+            rows.forEach(this::deliver);
+        } while (rows.size() == batchSize);
+    }
+
+    private void deliver(CacheInvalidation row) {
+        if (delivered.putIfAbsent(row.getId(), row.getCreatedAt()) == null) {
+            listener.accept(new Message(row.getOrigin(), row.getCacheName(), row.getCacheKey(), row.getCreatedAt()));
+            rowsDelivered.increment();
+        }
+        if (row.getCreatedAt().isAfter(watermark)) {
+            watermark = row.getCreatedAt();
+        }
+        lastId = Math.max(lastId, row.getId());
+    }
+
+    private void purgeSafely() {
+        try {
+            rowsPurged.add(cacheInvalidationRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        } catch (Exception e) {
+            logger.warn("Failed to purge cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long lastPoll = lastPollAtMillis;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("transport", "jdbc");
+        stats.put("pollIntervalMs", pollIntervalMs);
+        stats.put("polls", polls.sum());
+        stats.put("overlapScans", overlapScans.sum());
+        stats.put("pollFailures", pollFailures.sum());
+        stats.put("lastPollAgeMillis", lastPoll > 0 ? System.currentTimeMillis() - lastPoll : null);
+        stats.put("rowsDelivered", rowsDelivered.sum());
+        stats.put("rowsPurged", rowsPurged.sum());
+        return stats;
+    }
+}
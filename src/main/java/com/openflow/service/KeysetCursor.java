@@ -0,0 +1,52 @@
+package com.openflow.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Cursors of listings paged by keyset on (lower(name), id), and the LIKE prefix patterns that
+ * filter them. The name in a cursor must be the LOWER(...) value selected by the query, so the
+ * next page compares exactly like the database orders.
+ */
+final class KeysetCursor {
+
+    /**
+     * The position of the last listed row.
+     */
+    record Position(Long afterId, String afterName) {}
+
+    private KeysetCursor() {}
+
+    static String encode(Long id, String sortName) {
+        String position = id + ":" + sortName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        int separator = decoded.indexOf(':');
+        if (separator < 1) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        try {
+            return new Position(Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    /**
+     * A pattern for {@code LOWER(column) LIKE :prefix ESCAPE '!'} matching values that start with
+     * the query; wildcards in the query match literally.
+     */
+    static String likePrefix(String query) {
+        String value = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
@@ -0,0 +1,228 @@
+package com.openflow.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import jakarta.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Filesystem storage backend for on-prem installs without S3, enabled with {@code storage.backend=local}.
+ * Objects are files under the root directory named by their key. Download URLs point at
+ * {@code /api/storage/files} and carry an HMAC signature and expiry instead of requiring a login,
+ * so they can be used in {@code <img>} tags and links like presigned S3 URLs.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageService implements StorageBackend {
+    private static final Logger logger = LoggerFactory.getLogger(LocalStorageService.class);
+
+    public static final String DOWNLOAD_PATH = "/api/storage/files";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${storage.local.root-dir:./storage}")
+    private String rootDir;
+
+    @Value("${storage.local.signing-secret:${jwt.secret}}")
+    private String signingSecret;
+
+    // Download URLs are valid for this long
+    @Value("${storage.local.download-url-minutes:60}")
+    private long downloadUrlMinutes;
+
+    // Expiry is rounded up to this granularity so the same URL is returned for a while
+    // and browsers can cache the file
+    @Value("${storage.local.download-url-granularity-minutes:15}")
+    private long downloadUrlGranularityMinutes;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(rootDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        logger.info("Local file storage initialized at {}", root);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return root != null;
+    }
+
+    @Override
+    public void store(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        long size = storeStream(key, content, contentType, contentLength);
+        if (size != contentLength) {
+            deleteFile(key);
+            throw new RuntimeException("Uploaded file does not match the declared size");
+        }
+    }
+
+    /**
+     * Copy the input to a temporary file next to the target and move it into place once complete,
+     * so readers never see a partially written object.
+     */
+    @Override
+    public long storeStream(String key, InputStream content, String contentType, long maxBytes) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            long total = 0;
+            byte[] buffer = new byte[64 * 1024];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new RuntimeException("File exceeds maximum size of " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("File stored locally: {} ({} bytes)", key, total);
+            return total;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream openStream(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public String getDownloadUrl(String key) {
+        long granularity = Math.max(1, Duration.ofMinutes(downloadUrlGranularityMinutes).toSeconds());
+        long now = System.currentTimeMillis() / 1000;
+        long expires = (now + Duration.ofMinutes(downloadUrlMinutes).toSeconds() + granularity - 1) / granularity * granularity;
+
+        UriComponentsBuilder builder = RequestContextHolder.getRequestAttributes() != null
+                ? ServletUriComponentsBuilder.fromCurrentContextPath()
+                : UriComponentsBuilder.newInstance();
+        return builder.path(DOWNLOAD_PATH)
+                .queryParam("key", key)
+                .queryParam("expires", expires)
+                .queryParam("signature", sign(key, expires))
+                .encode()
+                .toUriString();
+    }
+
+    /**
+     * Check a download URL's signature and expiry.
+     */
+    public boolean isValidSignature(String key, long expires, String signature) {
+        if (signature == null || expires < System.currentTimeMillis() / 1000) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(key, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) {
+        Path path = resolve(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            String contentType = Files.probeContentType(path);
+            // Objects are never rewritten in place, so size and modification time identify the content
+            String eTag = "\"" + Long.toHexString(attributes.lastModifiedTime().toMillis())
+                    + "-" + Long.toHexString(attributes.size()) + "\"";
+            return Optional.of(new StoredObject(attributes.size(),
+                    contentType != null ? contentType : "application/octet-stream", eTag));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file metadata: " + key, e);
+        }
+    }
+
+    /**
+     * Get the file holding an object, for serving it.
+     */
+    public Path getFile(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public void deleteFile(String key) {
+        try {
+            if (Files.deleteIfExists(resolve(key))) {
+                logger.info("File deleted locally: {}", key);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to delete local file: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, String> deleteFiles(Collection<String> keys) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException | RuntimeException e) {
+                failures.put(key, e.getMessage());
+            }
+        }
+        logger.info("Deleted {} local files", keys.size() - failures.size());
+        return failures;
+    }
+
+    @Override
+    public PresignedUpload presignUpload(String key, String contentType, long contentLength, Duration validity) {
+        throw new RuntimeException("Direct uploads are not supported by the local storage backend");
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new RuntimeException("Invalid storage key");
+        }
+        return path;
+    }
+
+    private String sign(String key, long expires) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            byte[] digest = mac.doFinal((key + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to sign download URL", e);
+        }
+    }
+}
@@ -2,20 +2,26 @@ package com.openflow.service;
 
 import com.openflow.dto.AlertSubscriptionDto;
 import com.openflow.dto.NotificationDto;
+import com.openflow.dto.UserSummary;
 import com.openflow.model.AlertSubscription;
 import com.openflow.model.Notification;
-import com.openflow.model.User;
 import com.openflow.repository.AlertSubscriptionRepository;
 import com.openflow.repository.NotificationRepository;
-import com.openflow.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,12 +35,21 @@ public class NotificationService {
     private AlertSubscriptionRepository subscriptionRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
 
     @Autowired
     @Lazy
     private EmailService emailService;
 
+    // Notification types where a burst of events (e.g. autosaved edits) collapses into one
+    private static final Set<String> COLLAPSIBLE_TYPES = Set.of(Notification.TYPE_TASK_UPDATED);
+
+    /**
+     * Shares the change-log coalescing window so one editing session yields one notification.
+     */
+    @Value("${changelog.coalesce-window-seconds:30}")
+    private long coalesceWindowSeconds;
+
     // ==================== Notification Methods ====================
 
     /**
@@ -53,6 +68,11 @@ public class NotificationService {
                 continue;
             }
 
+            // Fold repeated updates into the subscriber's pending notification, skipping the email too
+            if (collapseIntoRecent(sub.getUserId(), notificationType, message, entityType, entityId)) {
+                continue;
+            }
+
             // Create in-app notification if enabled
             if (Boolean.TRUE.equals(sub.getInAppEnabled())) {
                 createNotification(sub.getUserId(), notificationType, message, entityType, entityId);
@@ -65,6 +85,31 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Refresh the user's latest unread notification of the same type and reference if it
+     * was touched within the coalescing window. Returns true if the event was absorbed.
+     */
+    private boolean collapseIntoRecent(Long userId, String type, String message,
+                                       String referenceType, Long referenceId) {
+        if (coalesceWindowSeconds <= 0 || !COLLAPSIBLE_TYPES.contains(type)) {
+            return false;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(coalesceWindowSeconds);
+        Optional<Notification> recent = notificationRepository
+                .findFirstByUserIdAndTypeAndReferenceTypeAndReferenceIdAndIsReadFalseOrderByIdDesc(
+                        userId, type, referenceType, referenceId)
+                .filter(n -> n.getLastModifiedAt() != null && n.getLastModifiedAt().isAfter(cutoff));
+        if (recent.isEmpty()) {
+            return false;
+        }
+        Notification notification = recent.get();
+        notification.setMessage(message);
+        notification.setUpdatedAt(LocalDateTime.now());
+        notificationRepository.save(notification);
+        logger.info("Collapsed {} for user {} into notification #{}", type, userId, notification.getId());
+        return true;
+    }
+
     /**
      * Create an in-app notification.
      */
@@ -83,14 +128,30 @@ public class NotificationService {
     }
 
     /**
-     * Send an email notification.
+     * Send an email notification once the surrounding transaction commits, so the database
+     * connection is not held while talking to the mail service and nothing is sent for a
+     * change that is rolled back.
      */
     private void sendEmailNotification(Long userId, String type, String message,
                                         String referenceType, Long referenceId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendEmailNow(userId, type, message, referenceType, referenceId);
+                }
+            });
+        } else {
+            sendEmailNow(userId, type, message, referenceType, referenceId);
+        }
+    }
+
+    private void sendEmailNow(Long userId, String type, String message,
+                              String referenceType, Long referenceId) {
         try {
-            User user = userRepository.findById(userId).orElse(null);
-            if (user != null && user.getEmail() != null) {
-                emailService.sendNotificationEmail(user.getEmail(), type, message, referenceType, referenceId);
+            UserSummary user = userDirectory.resolve(userId).orElse(null);
+            if (user != null && user.email() != null) {
+                emailService.sendNotificationEmail(user.email(), type, message, referenceType, referenceId);
             }
         } catch (Exception e) {
             logger.error("Failed to send email notification to user {}: {}", userId, e.getMessage());
@@ -100,26 +161,23 @@ public class NotificationService {
     /**
      * Get notifications for a user.
      */
+    @Transactional(readOnly = true)
     public List<NotificationDto> getUserNotifications(Long userId) {
-        return notificationRepository.findTop50ByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(this::toNotificationDto)
-                .collect(Collectors.toList());
+        return notificationRepository.findDtosByUserId(userId, PageRequest.of(0, 50));
     }
 
     /**
      * Get unread notifications for a user.
      */
+    @Transactional(readOnly = true)
     public List<NotificationDto> getUnreadNotifications(Long userId) {
-        return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(this::toNotificationDto)
-                .collect(Collectors.toList());
+        return notificationRepository.findUnreadDtosByUserId(userId);
     }
 
     /**
      * Get unread count for a user.
      */
+    @Transactional(readOnly = true)
     public long getUnreadCount(Long userId) {
         return notificationRepository.countByUserIdAndIsReadFalse(userId);
     }
@@ -190,6 +248,7 @@ public class NotificationService {
     /**
      * Check if user is subscribed to an entity.
      */
+    @Transactional(readOnly = true)
     public boolean isSubscribed(Long userId, String entityType, Long entityId) {
         return subscriptionRepository.existsByUserIdAndEntityTypeAndEntityId(userId, entityType, entityId);
     }
@@ -197,6 +256,7 @@ public class NotificationService {
     /**
      * Get subscription for an entity (if exists).
      */
+    @Transactional(readOnly = true)
     public AlertSubscriptionDto getSubscription(Long userId, String entityType, Long entityId) {
         return subscriptionRepository.findByUserIdAndEntityTypeAndEntityId(userId, entityType, entityId)
                 .map(this::toSubscriptionDto)
@@ -206,6 +266,7 @@ public class NotificationService {
     /**
      * Get all subscriptions for a user.
      */
+    @Transactional(readOnly = true)
     public List<AlertSubscriptionDto> getUserSubscriptions(Long userId) {
         return subscriptionRepository.findByUserId(userId)
                 .stream()
@@ -215,19 +276,6 @@ public class NotificationService {
 
     // ==================== Conversion Methods ====================
 
-    private NotificationDto toNotificationDto(Notification notification) {
-        NotificationDto dto = new NotificationDto();
-        dto.setId(notification.getId());
-        dto.setUserId(notification.getUserId());
-        dto.setType(notification.getType());
-        dto.setMessage(notification.getMessage());
-        dto.setReferenceType(notification.getReferenceType());
-        dto.setReferenceId(notification.getReferenceId());
-        dto.setIsRead(notification.getIsRead());
-        dto.setCreatedAt(notification.getCreatedAt());
-        return dto;
-    }
-
     private AlertSubscriptionDto toSubscriptionDto(AlertSubscription subscription) {
         AlertSubscriptionDto dto = new AlertSubscriptionDto();
         dto.setId(subscription.getId());
@@ -0,0 +1,168 @@
+package com.openflow.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Password hashing and verification on a small dedicated pool, so a burst of logins cannot
+ * occupy every request thread with BCrypt. Requests wait for their hash; when the queue is full,
+ * or a client or username already has too many hashes in flight, they fail fast with
+ * {@link BusyException} instead. At most threads + queue-capacity request threads are ever
+ * waiting here.
+ */
+@Service
+public class PasswordHashingService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    /**
+     * Thrown when a hash cannot be scheduled now; clients should retry later (HTTP 429).
+     */
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // Hashing threads; 0 uses half the available processors, leaving CPU for other requests
+    @Value("${password-hashing.threads:0}")
+    private int threads;
+
+    // Hashes waiting for a thread; beyond this requests are rejected
+    @Value("${password-hashing.queue-capacity:32}")
+    private int queueCapacity;
+
+    // Hashes in flight at once for one client address or one username
+    @Value("${password-hashing.max-per-client:4}")
+    private int maxPerClient;
+
+    @Value("${password-hashing.max-per-username:2}")
+    private int maxPerUsername;
+
+    // How long a request waits for its hash before giving up
+    @Value("${password-hashing.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor workers;
+
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        workers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Check a login attempt's password against the stored hash.
+     */
+    public boolean matches(String rawPassword, String encodedPassword, String clientAddress, String username) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), clientAddress, username);
+    }
+
+    /**
+     * Hash a new password.
+     */
+    public String encode(String rawPassword, String clientAddress) {
+        return run(() -> passwordEncoder.encode(rawPassword), clientAddress, null);
+    }
+
+    /**
+     * Whether a stored hash was made with a weaker work factor than currently configured and
+     * should be replaced after the next successful login.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task, String clientAddress, String username) {
+        List<String> acquired = new ArrayList<>();
+        try {
+            if (clientAddress != null && !acquire("client:" + clientAddress, maxPerClient, acquired)) {
+                throw new BusyException("Too many login attempts from this address, try again shortly");
+            }
+            if (username != null && !acquire("user:" + username, maxPerUsername, acquired)) {
+                throw new BusyException("Too many login attempts for this user, try again shortly");
+            }
+
+            Future<T> result;
+            try {
+                result = workers.submit(task);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Password hashing queue is full, rejecting request");
+                throw new BusyException("Server is busy, try again shortly");
+            }
+            try {
+                return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                result.cancel(true);
+                throw new BusyException("Server is busy, try again shortly");
+            } catch (InterruptedException e) {
+                result.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while hashing password");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new RuntimeException("Failed to hash password", e.getCause());
+            }
+        } finally {
+            acquired.forEach(this::release);
+        }
+    }
+
+    private boolean acquire(String key, int limit, List<String> acquired) {
+        boolean[] granted = {false};
+        inFlight.compute(key, (k, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= limit) {
+                return count;
+            }
+            granted[0] = true;
+            return current + 1;
+        });
+        if (granted[0]) {
+            acquired.add(key);
+        }
+        return granted[0];
+    }
+
+    private void release(String key) {
+        // Idle keys are removed so the map only holds clients with hashes in flight
+        inFlight.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,314 @@
+package com.openflow.service;
+
+import com.openflow.dto.UserSummary;
+import com.openflow.model.User;
+import com.openflow.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Square thumbnails of profile pictures in a few fixed sizes, so avatars next to comments and in
+ * headers are not served as the full-size upload. Variants are generated after upload on a small
+ * bounded pool and stored next to the original; until they exist the original is served.
+ */
+@Service
+public class ProfilePictureService {
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePictureService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    // Edge lengths in pixels of the generated square variants
+    @Value("${profile-pictures.variant-sizes:32,64,256}")
+    private int[] variantSizes;
+
+    @Value("${profile-pictures.worker-threads:2}")
+    private int workerThreads;
+
+    // Uploads waiting for a worker; beyond this the uploading request generates its own variants
+    @Value("${profile-pictures.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Larger originals are not decoded, so a small file cannot expand into gigabytes of pixels
+    @Value("${profile-pictures.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void init() {
+        variantSizes = Arrays.stream(variantSizes).sorted().distinct().toArray();
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "profile-picture-variants");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Pictures without variants keep serving the original
+        workers.shutdownNow();
+    }
+
+    /**
+     * Generate the variants of a user's new profile picture once the current transaction commits.
+     */
+    public void generateVariantsAfterCommit(Long userId, String originalKey) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    workers.execute(() -> generateVariants(userId, originalKey));
+                }
+            });
+        } else {
+            workers.execute(() -> generateVariants(userId, originalKey));
+        }
+    }
+
+    /**
+     * Store the variants of a picture and record them on the user, unless the picture was
+     * replaced in the meantime.
+     */
+    void generateVariants(Long userId, String originalKey) {
+        List<String> storedKeys = new ArrayList<>();
+        try {
+            BufferedImage source;
+            try (InputStream in = storageBackend.openStream(originalKey)) {
+                source = decode(in, variantSizes[variantSizes.length - 1]);
+            }
+            if (source == null) {
+                logger.info("Profile picture {} is not a supported image, serving the original", originalKey);
+                return;
+            }
+
+            String format = variantFormat(originalKey);
+            // Largest first, each variant scaled from the previous one
+            BufferedImage image = source;
+            for (int i = variantSizes.length - 1; i >= 0; i--) {
+                image = thumbnail(image, variantSizes[i], format.equals("png"));
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(image, format, out);
+                String key = variantKey(originalKey, variantSizes[i]);
+                storageBackend.store(key, new ByteArrayInputStream(out.toByteArray()), out.size(), "image/" + (format.equals("png") ? "png" : "jpeg"));
+                storedKeys.add(key);
+            }
+
+            String variants = Arrays.stream(variantSizes).mapToObj(String::valueOf).collect(Collectors.joining(","));
+            if (userRepository.updateProfilePictureVariants(userId, originalKey, variants) == 0) {
+                // Replaced or removed while the variants were generated
+                storageBackend.deleteFiles(storedKeys);
+                return;
+            }
+            userDirectory.evict(userId);
+            logger.info("Generated {} profile picture variants for {}", storedKeys.size(), originalKey);
+        } catch (Exception e) {
+            logger.warn("Failed to generate profile picture variants for {}: {}", originalKey, e.getMessage());
+            if (!storedKeys.isEmpty()) {
+                storageBackend.deleteFiles(storedKeys);
+            }
+        }
+    }
+
+    /**
+     * Get a download URL for the user's picture at the given edge length: the smallest variant at
+     * least that large, or the original when there is none. Null when the user has no picture.
+     */
+    public String getUrl(User user, Integer size) {
+        if (user == null) {
+            return null;
+        }
+        return getUrl(user.getProfilePictureKey(), user.getProfilePictureVariants(), size);
+    }
+
+    /**
+     * Same as {@link #getUrl(User, Integer)} for a cached user summary.
+     */
+    public String getUrl(UserSummary user, Integer size) {
+        if (user == null) {
+            return null;
+        }
+        return getUrl(user.profilePictureKey(), user.profilePictureVariants(), size);
+    }
+
+    private String getUrl(String originalKey, String variants, Integer size) {
+        if (originalKey == null || !storageBackend.isEnabled()) {
+            return null;
+        }
+        try {
+            return storageBackend.getDownloadUrl(getKey(originalKey, variants, size));
+        } catch (Exception e) {
+            // Ignore - profile picture not available
+            return null;
+        }
+    }
+
+    /**
+     * Get download URLs of all variants of the user's picture by edge length.
+     */
+    public Map<Integer, String> getVariantUrls(User user) {
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        if (user == null || user.getProfilePictureKey() == null || !storageBackend.isEnabled()) {
+            return urls;
+        }
+        for (int size : storedSizes(user.getProfilePictureVariants())) {
+            try {
+                urls.put(size, storageBackend.getDownloadUrl(variantKey(user.getProfilePictureKey(), size)));
+            } catch (Exception e) {
+                // Ignore - variant not available
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Get the keys of the user's picture and all its variants, for deleting them.
+     */
+    public List<String> getAllKeys(User user) {
+        List<String> keys = new ArrayList<>();
+        if (user.getProfilePictureKey() != null) {
+            keys.add(user.getProfilePictureKey());
+            for (int size : storedSizes(user.getProfilePictureVariants())) {
+                keys.add(variantKey(user.getProfilePictureKey(), size));
+            }
+        }
+        return keys;
+    }
+
+    private String getKey(String originalKey, String variants, Integer size) {
+        if (size != null) {
+            for (int stored : storedSizes(variants)) {
+                if (stored >= size) {
+                    return variantKey(originalKey, stored);
+                }
+            }
+        }
+        return originalKey;
+    }
+
+    private static int[] storedSizes(String variants) {
+        if (variants == null || variants.isBlank()) {
+            return new int[0];
+        }
+        return Arrays.stream(variants.split(","))
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Key of a variant next to the original: "profiles/1/abc.jpg" becomes "profiles/1/abc-64.jpg".
+     */
+    static String variantKey(String originalKey, int size) {
+        int slash = originalKey.lastIndexOf('/');
+        int dot = originalKey.lastIndexOf('.');
+        String base = dot > slash ? originalKey.substring(0, dot) : originalKey;
+        return base + "-" + size + "." + variantFormat(originalKey);
+    }
+
+    /**
+     * PNG for formats that can be transparent, JPEG for everything else.
+     */
+    private static String variantFormat(String originalKey) {
+        String lower = originalKey.toLowerCase();
+        return lower.endsWith(".png") || lower.endsWith(".gif") || lower.endsWith(".webp") ? "png" : "jpg";
+    }
+
+    /**
+     * Decode an image, skipping pixels while reading when it is much larger than the biggest
+     * variant. Returns null for formats ImageIO cannot read.
+     */
+    private BufferedImage decode(InputStream in, int largestSize) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new RuntimeException("Picture is too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.min(width, height) / (largestSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Crop the center square and scale it to the given edge length. Large reductions are done by
+     * repeated halving, since a single bilinear step skips most source pixels and aliases.
+     */
+    static BufferedImage thumbnail(BufferedImage source, int size, boolean keepAlpha) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage image = source.getSubimage((source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+        int current = side;
+        do {
+            current = current / 2 >= size ? current / 2 : size;
+            BufferedImage next = new BufferedImage(current, current,
+                    keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (!keepAlpha) {
+                    // JPEG has no transparency
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, current, current);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(image, 0, 0, current, current, null);
+            } finally {
+                graphics.dispose();
+            }
+            image = next;
+        } while (current > size);
+        return image;
+    }
+}
@@ -0,0 +1,201 @@
+package com.openflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openflow.repository.BoardRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized, gzip-compressed responses of the anonymous public board endpoints. Spikes of traffic
+ * on a shared board are served from memory without touching the database or Jackson. Entries are
+ * evicted on all nodes when the board, its statuses or its tasks change, and expire after a TTL to
+ * bound the staleness of data changed elsewhere (e.g. a renamed assignee).
+ */
+@Service
+public class PublicBoardCache {
+
+    /**
+     * The cached public endpoints of a board.
+     */
+    public enum View { BOARD, STATUSES, TASKS }
+
+    /**
+     * A gzip-compressed JSON body with its ETag. The ETag is weak because the same JSON is also
+     * sent uncompressed.
+     */
+    public record CachedResponse(byte[] gzippedJson, String eTag, long createdAtMillis) {}
+
+    private record CacheKey(Long boardId, View view) {}
+
+    static final String CACHE_NAME = "public-board";
+
+    @Autowired
+    @Lazy
+    private BoardService boardService;
+
+    @Autowired
+    @Lazy
+    private StatusService statusService;
+
+    @Autowired
+    @Lazy
+    private TaskService taskService;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${public-board-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${public-board-cache.max-entries:3000}")
+    private int maxEntries;
+
+    private final Map<CacheKey, CachedResponse> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Responses being built, so concurrent misses share one build.
+     */
+    private final Map<CacheKey, CompletableFuture<CachedResponse>> loading = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CACHE_NAME, key -> {
+            if (key != null) {
+                removeBoard(Long.valueOf(key));
+            } else {
+                loading.clear();
+                cache.clear();
+            }
+        });
+    }
+
+    /**
+     * Get the response for a public board view, building it on a miss. Fails when the board does
+     * not exist or is not public; such lookups are not cached.
+     */
+    public CachedResponse get(Long boardId, View view) {
+        CacheKey key = new CacheKey(boardId, view);
+        long now = System.currentTimeMillis();
+        CachedResponse cached = cache.get(key);
+        if (cached != null && now - cached.createdAtMillis() < Duration.ofSeconds(ttlSeconds).toMillis()) {
+            return cached;
+        }
+
+        // Concurrent misses on the same view wait for one load instead of all querying
+        CompletableFuture<CachedResponse> load = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        CachedResponse built;
+        try {
+            built = build(boardId, view, now);
+        } catch (RuntimeException e) {
+            // Board deleted or no longer public
+            loading.remove(key, load);
+            if (cached != null) {
+                cache.remove(key, cached);
+            }
+            load.completeExceptionally(e);
+            throw e;
+        }
+        if (cached == null && cache.size() >= maxEntries) {
+            evictOldest();
+        }
+        cache.put(key, built);
+        // An eviction while building removed the load, and the response may already be stale
+        if (!loading.remove(key, load)) {
+            cache.remove(key, built);
+        }
+        load.complete(built);
+        return built;
+    }
+
+    private static CachedResponse await(CompletableFuture<CachedResponse> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CachedResponse build(Long boardId, View view, long now) {
+        // Verify board is public
+        Object body = boardService.getPublicBoardByIdDto(boardId);
+        if (view == View.STATUSES) {
+            body = statusService.getStatusesByBoardIdDtoPublic(boardId);
+        } else if (view == View.TASKS) {
+            body = taskService.getTasksByBoardIdDtoPublic(boardId);
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(json);
+            }
+            return new CachedResponse(gzipped.toByteArray(), "W/\"" + DigestUtils.md5DigestAsHex(json) + "\"", now);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize public board " + boardId, e);
+        }
+    }
+
+    private void evictOldest() {
+        cache.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().createdAtMillis()))
+                .ifPresent(entry -> cache.remove(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Drop a board's cached responses on all nodes.
+     */
+    public void evictBoard(Long boardId) {
+        if (boardId == null) {
+            return;
+        }
+        cacheInvalidationBus.evictLocallyAndPublish(CACHE_NAME, boardId, () -> removeBoard(boardId));
+    }
+
+    /**
+     * Drop a board's cached responses after a change to its statuses or tasks, if it is public.
+     * Private boards are never cached, so their changes publish nothing. The board is usually
+     * already loaded by the access check of the same transaction.
+     */
+    public void evictBoardIfPublic(Long boardId) {
+        if (boardId != null && boardRepository.findById(boardId)
+                .map(board -> Boolean.TRUE.equals(board.getIsPublic()))
+                .orElse(false)) {
+            evictBoard(boardId);
+        }
+    }
+
+    private void removeBoard(Long boardId) {
+        for (View view : View.values()) {
+            CacheKey key = new CacheKey(boardId, view);
+            loading.remove(key);
+            cache.remove(key);
+        }
+    }
+}
@@ -4,25 +4,47 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import jakarta.annotation.PostConstruct;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
 import java.time.Duration;
-import java.util.UUID;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
-public class S3Service {
+public class S3Service implements StorageBackend {
     private static final Logger logger = LoggerFactory.getLogger(S3Service.class);
 
     @Value("${aws.s3.bucket-name:openflow-attachments}")
@@ -34,10 +56,61 @@ public class S3Service {
     @Value("${aws.s3.enabled:}")
     private String s3EnabledStr;
 
+    // Optional endpoint of an S3-compatible store; empty uses AWS
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    // Maximum number of keys in one DeleteObjects request
+    private static final int DELETE_OBJECTS_MAX_KEYS = 1000;
+
+    // Presigned URLs are valid for this long
+    private static final Duration PRESIGNED_URL_VALIDITY = Duration.ofHours(1);
+
+    // Cached URLs are reused for this long, so a returned URL always has at least
+    // (validity - ttl) left before its signature expires
+    @Value("${aws.s3.presigned-url-cache.ttl-minutes:45}")
+    private long presignedUrlCacheTtlMinutes;
+
+    @Value("${aws.s3.presigned-url-cache.max-entries:10000}")
+    private int presignedUrlCacheMaxEntries;
+
+    // Streaming uploads: part size (S3 minimum is 5MB), per-upload buffer budget and part attempts
+    @Value("${aws.s3.multipart.part-size-bytes:8388608}")
+    private int multipartPartSizeBytes;
+
+    @Value("${aws.s3.multipart.max-buffer-bytes:33554432}")
+    private long multipartMaxBufferBytes;
+
+    @Value("${aws.s3.multipart.max-part-attempts:3}")
+    private int multipartMaxPartAttempts;
+
     private boolean s3Enabled;
     private S3Client s3Client;
+    private S3AsyncClient s3AsyncClient;
     private S3Presigner s3Presigner;
 
+    private record CachedUrl(String url, long expiresAtMillis) {}
+
+    /**
+     * Presigned GET URLs by S3 key, least recently used first. Reusing a URL until it is
+     * close to expiry saves a signature per request and keeps the URL stable across
+     * responses so browsers can cache the object.
+     */
+    private final Map<String, CachedUrl> presignedUrlCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedUrl> eldest) {
+            if (size() > presignedUrlCacheMaxEntries) {
+                presignedUrlCacheEvictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final LongAdder presignedUrlCacheHits = new LongAdder();
+    private final LongAdder presignedUrlCacheMisses = new LongAdder();
+    private final LongAdder presignedUrlCacheEvictions = new LongAdder();
+
     @PostConstruct
     public void init() {
         // Parse s3Enabled from string, handling empty values
@@ -53,33 +126,40 @@ public class S3Service {
                 String sessionToken = System.getenv("AWS_SESSION_TOKEN");
                 
                 // Use session credentials if session token is present (AWS Academy)
+                AwsCredentialsProvider credentialsProvider;
                 if (accessKeyId != null && secretAccessKey != null && sessionToken != null && !sessionToken.isEmpty()) {
                     logger.info("Using AWS session credentials (AWS Academy mode)");
                     AwsSessionCredentials sessionCredentials = AwsSessionCredentials.create(
                             accessKeyId, secretAccessKey, sessionToken);
-                    StaticCredentialsProvider credentialsProvider = StaticCredentialsProvider.create(sessionCredentials);
-                    
-                    s3Client = S3Client.builder()
-                            .region(region)
-                            .credentialsProvider(credentialsProvider)
-                            .build();
-                    s3Presigner = S3Presigner.builder()
-                            .region(region)
-                            .credentialsProvider(credentialsProvider)
-                            .build();
+                    credentialsProvider = StaticCredentialsProvider.create(sessionCredentials);
                 } else {
                     // Fall back to default credentials provider
                     logger.info("Using default AWS credentials provider");
-                    s3Client = S3Client.builder()
-                            .region(region)
-                            .credentialsProvider(DefaultCredentialsProvider.create())
-                            .build();
-                    s3Presigner = S3Presigner.builder()
-                            .region(region)
-                            .credentialsProvider(DefaultCredentialsProvider.create())
-                            .build();
+                    credentialsProvider = DefaultCredentialsProvider.create();
                 }
                 
+                S3ClientBuilder clientBuilder = S3Client.builder()
+                        .region(region)
+                        .credentialsProvider(credentialsProvider);
+                S3AsyncClientBuilder asyncClientBuilder = S3AsyncClient.builder()
+                        .region(region)
+                        .credentialsProvider(credentialsProvider);
+                S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+                        .region(region)
+                        .credentialsProvider(credentialsProvider);
+                
+                // S3-compatible stores (MinIO, LocalStack) need an explicit endpoint and path-style URLs
+                if (endpoint != null && !endpoint.isBlank()) {
+                    logger.info("Using S3 endpoint override: {}", endpoint);
+                    clientBuilder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+                    asyncClientBuilder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+                    presignerBuilder.endpointOverride(URI.create(endpoint))
+                            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+                }
+                s3Client = clientBuilder.build();
+                s3AsyncClient = asyncClientBuilder.build();
+                s3Presigner = presignerBuilder.build();
+                
                 logger.info("AWS S3 client initialized successfully. Bucket: {}", bucketName);
             } catch (Exception e) {
                 logger.warn("Failed to initialize AWS S3 client: {}. File storage disabled.", e.getMessage());
@@ -90,6 +170,7 @@ public class S3Service {
         }
     }
 
+    @Override
     public boolean isEnabled() {
         return s3Enabled && s3Client != null;
     }
@@ -99,30 +180,218 @@ public class S3Service {
     }
 
     /**
-     * Upload a file to S3 for a task and return the S3 key.
+     * Upload an object of known length with a single PUT.
      */
-    public String uploadFile(MultipartFile file, Long taskId) throws IOException {
-        String s3Key = "tasks/" + taskId + "/" + UUID.randomUUID().toString() + getFileExtension(file);
-        return uploadToS3(file, s3Key);
+    @Override
+    public void store(String s3Key, InputStream content, long contentLength, String contentType) throws IOException {
+        if (!isEnabled()) {
+            throw new RuntimeException("S3 storage is not enabled");
+        }
+
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(s3Key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+
+        s3Client.putObject(putRequest, RequestBody.fromInputStream(content, contentLength));
+        
+        logger.info("File uploaded to S3: {}", s3Key);
     }
 
     /**
-     * Upload a profile picture to S3 and return the S3 key.
+     * Read the input part by part and upload the parts concurrently with an S3 multipart upload.
+     * At most {@code multipartMaxBufferBytes / multipartPartSizeBytes} part buffers exist at once,
+     * so memory stays flat regardless of file size: reading waits until an in-flight part finishes.
+     * A failed part is retried from its buffer; if it still fails the multipart upload is aborted.
+     * Inputs smaller than one part are sent with a single PUT.
      */
-    public String uploadProfilePicture(MultipartFile file, Long userId) throws IOException {
-        String s3Key = "profiles/" + userId + "/" + UUID.randomUUID().toString() + getFileExtension(file);
-        return uploadToS3(file, s3Key);
+    @Override
+    public long storeStream(String s3Key, InputStream input, String contentType, long maxBytes) throws IOException {
+        if (!isEnabled() || s3AsyncClient == null) {
+            throw new RuntimeException("S3 storage is not enabled");
+        }
+
+        int maxBuffers = (int) Math.max(1, multipartMaxBufferBytes / multipartPartSizeBytes);
+        Semaphore buffers = new Semaphore(maxBuffers);
+        acquire(buffers);
+        byte[] part = input.readNBytes(multipartPartSizeBytes);
+        if (part.length < multipartPartSizeBytes) {
+            if (part.length > maxBytes) {
+                throw new RuntimeException("File exceeds maximum size of " + maxBytes + " bytes");
+            }
+            byte[] content = part;
+            join(s3AsyncClient.putObject(builder -> builder.bucket(bucketName).key(s3Key)
+                            .contentType(contentType).contentLength((long) content.length),
+                    AsyncRequestBody.fromBytesUnsafe(content)));
+            logger.info("File uploaded to S3: {} ({} bytes)", s3Key, content.length);
+            return content.length;
+        }
+
+        String uploadId = join(s3AsyncClient.createMultipartUpload(builder -> builder.bucket(bucketName)
+                .key(s3Key).contentType(contentType))).uploadId();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long total = 0;
+        try {
+            while (part.length > 0) {
+                total += part.length;
+                if (total > maxBytes) {
+                    throw new RuntimeException("File exceeds maximum size of " + maxBytes + " bytes");
+                }
+                if (failure.get() != null) {
+                    throw new RuntimeException("Failed to upload file to S3", failure.get());
+                }
+                parts.add(uploadPart(s3Key, uploadId, parts.size() + 1, part, 1)
+                        .whenComplete((completed, error) -> {
+                            buffers.release();
+                            if (error != null) {
+                                failure.compareAndSet(null, error);
+                            }
+                        }));
+                acquire(buffers);
+                part = input.readNBytes(multipartPartSizeBytes);
+            }
+            buffers.release();
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> future : parts) {
+                completedParts.add(join(future));
+            }
+            join(s3AsyncClient.completeMultipartUpload(builder -> builder.bucket(bucketName).key(s3Key)
+                    .uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completedParts))));
+            logger.info("File uploaded to S3: {} ({} bytes in {} parts)", s3Key, total, parts.size());
+            return total;
+        } catch (IOException | RuntimeException e) {
+            parts.forEach(future -> future.cancel(true));
+            s3AsyncClient.abortMultipartUpload(builder -> builder.bucket(bucketName).key(s3Key).uploadId(uploadId))
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            logger.warn("Failed to abort multipart upload {}: {}", s3Key, error.getMessage());
+                        }
+                    });
+            throw e;
+        }
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(String s3Key, String uploadId, int partNumber, byte[] data, int attempt) {
+        return s3AsyncClient.uploadPart(builder -> builder.bucket(bucketName).key(s3Key).uploadId(uploadId)
+                                .partNumber(partNumber).contentLength((long) data.length),
+                        AsyncRequestBody.fromBytesUnsafe(data))
+                .thenApply(response -> CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build())
+                .exceptionallyCompose(error -> {
+                    if (attempt >= multipartMaxPartAttempts) {
+                        return CompletableFuture.failedFuture(error);
+                    }
+                    logger.warn("Retrying part {} of {} (attempt {}): {}", partNumber, s3Key, attempt + 1, error.getMessage());
+                    return uploadPart(s3Key, uploadId, partNumber, data, attempt + 1);
+                });
     }
 
-    private String getFileExtension(MultipartFile file) {
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename != null && originalFilename.contains(".")) {
-            return originalFilename.substring(originalFilename.lastIndexOf("."));
+    private static void acquire(Semaphore semaphore) throws IOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an upload buffer");
         }
-        return "";
     }
 
-    private String uploadToS3(MultipartFile file, String s3Key) throws IOException {
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to upload file to S3", e.getCause());
+        }
+    }
+
+    /**
+     * Abort multipart uploads started before the cutoff, e.g. by an instance that died mid-upload.
+     * Their parts are otherwise billed indefinitely.
+     */
+    @Override
+    public void abortIncompleteUploads(Instant cutoff) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            s3Client.listMultipartUploadsPaginator(builder -> builder.bucket(bucketName))
+                    .uploads()
+                    .stream()
+                    .filter(upload -> upload.initiated() != null && upload.initiated().isBefore(cutoff))
+                    .forEach(upload -> {
+                        s3Client.abortMultipartUpload(builder -> builder.bucket(bucketName)
+                                .key(upload.key()).uploadId(upload.uploadId()));
+                        logger.info("Aborted stale multipart upload: {}", upload.key());
+                    });
+        } catch (Exception e) {
+            logger.error("Failed to abort stale multipart uploads: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Open a file in S3 for reading. Data is streamed from the connection as the caller reads it.
+     */
+    @Override
+    public InputStream openStream(String s3Key) throws IOException {
+        if (!isEnabled()) {
+            throw new RuntimeException("S3 storage is not enabled");
+        }
+        try {
+            return s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .build());
+        } catch (NoSuchKeyException e) {
+            throw new FileNotFoundException("File not found in S3: " + s3Key);
+        }
+    }
+
+    @Override
+    public String getDownloadUrl(String s3Key) {
+        return getPresignedUrl(s3Key);
+    }
+
+    /**
+     * Get a presigned URL for downloading a file (valid for 1 hour when signed).
+     * URLs are cached per key and re-signed once the cache TTL has passed.
+     */
+    public String getPresignedUrl(String s3Key) {
+        if (!isEnabled()) {
+            throw new RuntimeException("S3 storage is not enabled");
+        }
+
+        long now = System.currentTimeMillis();
+        CachedUrl cached;
+        synchronized (presignedUrlCache) {
+            cached = presignedUrlCache.get(s3Key);
+        }
+        if (cached != null && cached.expiresAtMillis() > now) {
+            presignedUrlCacheHits.increment();
+            return cached.url();
+        }
+        presignedUrlCacheMisses.increment();
+
+        // Sign outside the lock; concurrent misses for one key at worst sign twice
+        String url = presign(s3Key);
+        long ttlMillis = Duration.ofMinutes(presignedUrlCacheTtlMinutes).toMillis();
+        if (ttlMillis > 0 && ttlMillis < PRESIGNED_URL_VALIDITY.toMillis()) {
+            synchronized (presignedUrlCache) {
+                presignedUrlCache.put(s3Key, new CachedUrl(url, now + ttlMillis));
+            }
+        }
+        return url;
+    }
+
+    /**
+     * Generate a presigned PUT URL that lets a client upload one object directly to S3.
+     * Content type and length are signed, so S3 rejects uploads that do not match them.
+     * The returned headers must be sent with the PUT request.
+     */
+    @Override
+    public PresignedUpload presignUpload(String s3Key, String contentType, long contentLength, Duration validity) {
         if (!isEnabled()) {
             throw new RuntimeException("S3 storage is not enabled");
         }
@@ -130,31 +399,87 @@ public class S3Service {
         PutObjectRequest putRequest = PutObjectRequest.builder()
                 .bucket(bucketName)
                 .key(s3Key)
-                .contentType(file.getContentType())
-                .contentLength(file.getSize())
+                .contentType(contentType)
+                .contentLength(contentLength)
                 .build();
 
-        s3Client.putObject(putRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-        
-        logger.info("File uploaded to S3: {}", s3Key);
-        return s3Key;
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(validity)
+                .putObjectRequest(putRequest)
+                .build();
+
+        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
+        Map<String, String> headers = new LinkedHashMap<>();
+        presignedRequest.signedHeaders().forEach((name, values) -> {
+            // The host header is set by the HTTP client from the URL
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return new PresignedUpload(presignedRequest.url().toString(), "PUT", headers, presignedRequest.expiration());
     }
 
-    /**
-     * Generate a presigned URL for downloading a file (valid for 1 hour).
-     */
-    public String getPresignedUrl(String s3Key) {
+    @Override
+    public Optional<StoredObject> stat(String s3Key) {
         if (!isEnabled()) {
             throw new RuntimeException("S3 storage is not enabled");
         }
+        try {
+            HeadObjectResponse object = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .build());
+            return Optional.of(new StoredObject(object.contentLength() != null ? object.contentLength() : 0L,
+                    object.contentType(), object.eTag()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, Object> getDownloadUrlCacheStats() {
+        return getPresignedUrlCacheStats();
+    }
+
+    /**
+     * Presigned URL cache counters and hit rate.
+     */
+    public Map<String, Object> getPresignedUrlCacheStats() {
+        long hits = presignedUrlCacheHits.sum();
+        long misses = presignedUrlCacheMisses.sum();
+        int size;
+        synchronized (presignedUrlCache) {
+            size = presignedUrlCache.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", presignedUrlCacheMaxEntries);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", presignedUrlCacheEvictions.sum());
+        stats.put("hitRate", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        return stats;
+    }
+
+    private void evictPresignedUrl(String s3Key) {
+        synchronized (presignedUrlCache) {
+            presignedUrlCache.remove(s3Key);
+        }
+    }
 
+    private String presign(String s3Key) {
         GetObjectRequest getRequest = GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(s3Key)
                 .build();
 
         GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofHours(1))
+                .signatureDuration(PRESIGNED_URL_VALIDITY)
                 .getObjectRequest(getRequest)
                 .build();
 
@@ -162,10 +487,47 @@ public class S3Service {
         return presignedRequest.url().toString();
     }
 
+    /**
+     * Delete files from S3 with DeleteObjects, up to 1000 keys per request.
+     */
+    @Override
+    public Map<String, String> deleteFiles(Collection<String> s3Keys) {
+        s3Keys.forEach(this::evictPresignedUrl);
+        Map<String, String> failures = new LinkedHashMap<>();
+        if (!isEnabled()) {
+            s3Keys.forEach(key -> failures.put(key, "S3 storage is not enabled"));
+            return failures;
+        }
+
+        List<String> keys = new ArrayList<>(s3Keys);
+        for (int from = 0; from < keys.size(); from += DELETE_OBJECTS_MAX_KEYS) {
+            List<String> batch = keys.subList(from, Math.min(from + DELETE_OBJECTS_MAX_KEYS, keys.size()));
+            List<ObjectIdentifier> objects = batch.stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            try {
+                // Quiet mode only reports the keys that failed
+                DeleteObjectsRequest deleteRequest = DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(objects).quiet(true).build())
+                        .build();
+                DeleteObjectsResponse response = s3Client.deleteObjects(deleteRequest);
+                response.errors().forEach(error -> failures.put(error.key(), error.code() + ": " + error.message()));
+                logger.info("Deleted {} files from S3", batch.size() - response.errors().size());
+            } catch (Exception e) {
+                logger.error("Failed to delete {} files from S3: {}", batch.size(), e.getMessage());
+                batch.forEach(key -> failures.put(key, e.getMessage()));
+            }
+        }
+        return failures;
+    }
+
     /**
      * Delete a file from S3.
      */
+    @Override
     public void deleteFile(String s3Key) {
+        evictPresignedUrl(s3Key);
         if (!isEnabled()) {
             logger.warn("S3 is disabled, cannot delete file: {}", s3Key);
             return;
@@ -6,6 +6,7 @@ import com.openflow.repository.StatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -21,6 +22,9 @@ public class StatusService {
     @Lazy
     private ChangeLogService changeLogService;
 
+    @Autowired
+    private PublicBoardCache publicBoardCache;
+
     private StatusDto toDto(Status status) {
         return new StatusDto(
             status.getId(),
@@ -41,30 +45,30 @@ public class StatusService {
         return status;
     }
 
+    @Transactional(readOnly = true)
     public List<StatusDto> getStatusesByBoardIdDto(Long boardId, Long userId) {
-        return getStatusesByBoardId(boardId, userId).stream().map(this::toDto).toList();
+        boardService.getBoardById(boardId, userId); // Validate board access
+        return statusRepository.findDtosByBoardId(boardId);
     }
 
+    @Transactional(readOnly = true)
     public StatusDto getStatusByIdDto(Long id, Long userId) {
         return toDto(getStatusById(id, userId));
     }
 
+    @Transactional
     public StatusDto createStatusDto(StatusDto statusDto, Long userId) {
         Status status = toEntity(statusDto);
         Status created = createStatus(status, userId);
         return toDto(created);
     }
 
+    @Transactional
     public StatusDto updateStatusDto(Long id, StatusDto statusDto, Long userId) {
         Status updated = updateStatus(id, toEntity(statusDto), userId);
         return toDto(updated);
     }
 
-    public List<Status> getStatusesByBoardId(Long boardId, Long userId) {
-        boardService.getBoardById(boardId, userId); // Validate board access
-        return statusRepository.findByBoardIdOrderByOrderAsc(boardId);
-    }
-
     public Status getStatusById(Long id, Long userId) {
         Status status = statusRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Status not found"));
@@ -86,6 +90,7 @@ public class StatusService {
         }
         
         Status saved = statusRepository.save(status);
+        publicBoardCache.evictBoardIfPublic(saved.getBoardId());
         
         // Log creation
         changeLogService.logCreate(ChangeLogService.ENTITY_STATUS, saved.getId(), userId);
@@ -121,9 +126,12 @@ public class StatusService {
             existingStatus.setOrder(updatedStatus.getOrder());
         }
         
-        return statusRepository.save(existingStatus);
+        Status saved = statusRepository.save(existingStatus);
+        publicBoardCache.evictBoardIfPublic(saved.getBoardId());
+        return saved;
     }
 
+    @Transactional
     public void deleteStatus(Long id, Long userId) {
         Status status = getStatusById(id, userId);
         
@@ -137,6 +145,7 @@ public class StatusService {
         changeLogService.logDelete(ChangeLogService.ENTITY_STATUS, id, userId);
         
         statusRepository.delete(status);
+        publicBoardCache.evictBoardIfPublic(status.getBoardId());
     }
 
     /**
@@ -146,6 +155,7 @@ public class StatusService {
      * @param userId The user ID for authorization
      * @return Updated list of statuses
      */
+    @Transactional
     public List<StatusDto> reorderStatuses(Long boardId, List<Long> statusIds, Long userId) {
         // Validate user has ADMIN access or is owner
         String accessLevel = boardService.getBoardAccessLevel(boardId, userId);
@@ -170,6 +180,7 @@ public class StatusService {
                 }
             }
         }
+        publicBoardCache.evictBoardIfPublic(boardId);
         
         return getStatusesByBoardIdDto(boardId, userId);
     }
@@ -177,10 +188,8 @@ public class StatusService {
     /**
      * Get statuses for a public board (no user validation).
      */
+    @Transactional(readOnly = true)
     public List<StatusDto> getStatusesByBoardIdDtoPublic(Long boardId) {
-        return statusRepository.findByBoardIdOrderByOrderAsc(boardId)
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return statusRepository.findDtosByBoardId(boardId);
     }
 }
\ No newline at end of file
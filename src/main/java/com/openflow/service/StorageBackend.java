@@ -0,0 +1,116 @@
+package com.openflow.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Object storage for attachments and profile pictures. S3 is the default backend;
+ * set {@code storage.backend=local} to keep files on the local filesystem instead.
+ */
+public interface StorageBackend {
+
+    /**
+     * Size, content type and entity tag of a stored object.
+     */
+    record StoredObject(long size, String contentType, String eTag) {}
+
+    /**
+     * A presigned direct upload: the client sends the file to {@code url} with {@code method}
+     * and {@code headers} before {@code expiresAt}.
+     */
+    record PresignedUpload(String url, String method, Map<String, String> headers, Instant expiresAt) {}
+
+    boolean isEnabled();
+
+    /**
+     * Store an object of known length.
+     */
+    void store(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    /**
+     * Store an object of unknown length with bounded memory and return its size.
+     * Fails once more than {@code maxBytes} have been read.
+     */
+    long storeStream(String key, InputStream content, String contentType, long maxBytes) throws IOException;
+
+    /**
+     * Open an object for reading. The caller must close the stream.
+     */
+    InputStream openStream(String key) throws IOException;
+
+    /**
+     * Get a time-limited URL the client can download the object from without further authentication.
+     */
+    String getDownloadUrl(String key);
+
+    /**
+     * Look up a stored object, or empty when it does not exist.
+     */
+    Optional<StoredObject> stat(String key);
+
+    void deleteFile(String key);
+
+    /**
+     * Delete many objects, batching where the backend supports it.
+     * Returns the keys that could not be deleted with the reason; missing objects count as deleted.
+     */
+    default Map<String, String> deleteFiles(Collection<String> keys) {
+        keys.forEach(this::deleteFile);
+        return Map.of();
+    }
+
+    /**
+     * Get a URL the client can upload one object to directly, restricted to the given type and length.
+     */
+    PresignedUpload presignUpload(String key, String contentType, long contentLength, Duration validity);
+
+    /**
+     * Clean up uploads that were started before the cutoff but never completed.
+     */
+    default void abortIncompleteUploads(Instant cutoff) {
+    }
+
+    /**
+     * Download URL cache counters, if the backend caches URLs.
+     */
+    default Map<String, Object> getDownloadUrlCacheStats() {
+        return Map.of();
+    }
+
+    /**
+     * Generate a new, unique key for a task attachment.
+     */
+    default String newTaskFileKey(Long taskId, String originalFilename) {
+        return "tasks/" + taskId + "/" + UUID.randomUUID().toString() + getFileExtension(originalFilename);
+    }
+
+    /**
+     * Generate a new, unique key for a profile picture.
+     */
+    default String newProfilePictureKey(Long userId, String originalFilename) {
+        return "profiles/" + userId + "/" + UUID.randomUUID().toString() + getFileExtension(originalFilename);
+    }
+
+    /**
+     * Generate the content-addressed key of a blob from the SHA-256 of its content.
+     * Each blob gets a fresh suffix, so deleting a released blob in the background can never
+     * remove a later upload of the same content.
+     */
+    default String newBlobKey(String contentHash, String originalFilename) {
+        return "blobs/" + contentHash.substring(0, 2) + "/" + contentHash + "/" + UUID.randomUUID().toString()
+                + getFileExtension(originalFilename);
+    }
+
+    private static String getFileExtension(String originalFilename) {
+        if (originalFilename != null && originalFilename.contains(".")) {
+            return originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        return "";
+    }
+}
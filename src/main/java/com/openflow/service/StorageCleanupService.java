@@ -0,0 +1,174 @@
+package com.openflow.service;
+
+import com.openflow.model.PendingDeletion;
+import com.openflow.repository.PendingDeletionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background deletion of stored objects. Callers queue keys inside their transaction; the keys are
+ * deleted in batches on a worker thread once it commits, so deleting a task or board with many
+ * attachments does not wait on storage. Failed keys are retried with backoff and kept for
+ * inspection once they run out of attempts.
+ */
+@Service
+public class StorageCleanupService {
+    private static final Logger logger = LoggerFactory.getLogger(StorageCleanupService.class);
+
+    // Keys listed in the stats for deletions that ran out of attempts
+    private static final int MAX_REPORTED_LEFTOVERS = 50;
+
+    @Autowired
+    private PendingDeletionRepository pendingDeletionRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    // Keys per storage request (S3 DeleteObjects accepts at most 1000)
+    @Value("${storage.cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${storage.cleanup.max-attempts:5}")
+    private int maxAttempts;
+
+    // Doubled after every failed attempt
+    @Value("${storage.cleanup.retry-backoff-seconds:60}")
+    private long retryBackoffSeconds;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * Queue objects for deletion. The keys are recorded in the caller's transaction, so nothing is
+     * deleted if it rolls back, and the worker starts draining once it commits.
+     */
+    public void deleteAfterCommit(Collection<String> s3Keys) {
+        if (s3Keys.isEmpty()) {
+            return;
+        }
+        pendingDeletionRepository.insertAll(s3Keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleDrain();
+                }
+            });
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Retry failed deletions once their backoff has passed, and pick up keys queued
+     * before a restart.
+     */
+    @Scheduled(fixedDelayString = "${storage.cleanup.retry-interval-ms:60000}")
+    public void retryPendingDeletions() {
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        // Requests arriving while a drain is queued but not started are covered by it
+        if (drainScheduled.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                drainScheduled.set(false);
+                try {
+                    drain();
+                } catch (Exception e) {
+                    logger.error("Storage cleanup failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Delete due keys batch by batch until none are left or a whole batch fails.
+     */
+    void drain() {
+        while (true) {
+            List<PendingDeletion> batch = pendingDeletionRepository
+                    .findByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                            maxAttempts, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Map<String, String> failures = storageBackend.deleteFiles(
+                    batch.stream().map(PendingDeletion::getS3Key).distinct().toList());
+
+            List<Long> deleted = new ArrayList<>();
+            List<PendingDeletion> failed = new ArrayList<>();
+            for (PendingDeletion pending : batch) {
+                String error = failures.get(pending.getS3Key());
+                if (error == null) {
+                    deleted.add(pending.getId());
+                } else {
+                    markFailed(pending, error);
+                    failed.add(pending);
+                }
+            }
+            pendingDeletionRepository.deleteAllByIdInBatch(deleted);
+            pendingDeletionRepository.saveAll(failed);
+
+            if (deleted.isEmpty() || batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void markFailed(PendingDeletion pending, String error) {
+        int attempts = pending.getAttempts() + 1;
+        pending.setAttempts(attempts);
+        pending.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        pending.setNextAttemptAt(LocalDateTime.now().plusSeconds(retryBackoffSeconds << Math.min(attempts - 1, 16)));
+        if (attempts >= maxAttempts) {
+            logger.error("Giving up deleting {} after {} attempts: {}", pending.getS3Key(), attempts, error);
+        }
+    }
+
+    /**
+     * Queued and abandoned deletions, with the keys that ran out of attempts.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pendingDeletionRepository.countByAttemptsLessThan(maxAttempts));
+        stats.put("failed", pendingDeletionRepository.countByAttemptsGreaterThanEqual(maxAttempts));
+        stats.put("failedKeys", pendingDeletionRepository
+                .findByAttemptsGreaterThanEqualOrderByIdAsc(maxAttempts, PageRequest.of(0, MAX_REPORTED_LEFTOVERS))
+                .stream()
+                .map(pending -> Map.of("key", pending.getS3Key(),
+                        "error", pending.getLastError() != null ? pending.getLastError() : ""))
+                .toList());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Undrained keys stay queued and are picked up after the next start
+        worker.shutdown();
+    }
+}
@@ -1,17 +1,20 @@
 package com.openflow.service;
 
 import com.openflow.dto.TaskDto;
+import com.openflow.dto.TaskQueryDto;
 import com.openflow.model.Task;
-import com.openflow.model.User;
+import com.openflow.repository.QueryLimits;
 import com.openflow.repository.TaskRepository;
-import com.openflow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class TaskService {
@@ -25,7 +28,7 @@ public class TaskService {
     private StatusService statusService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
 
     @Autowired
     @Lazy
@@ -39,13 +42,18 @@ public class TaskService {
     @Lazy
     private CustomFieldService customFieldService;
 
+    @Autowired
+    @Lazy
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private PublicBoardCache publicBoardCache;
+
     private TaskDto toDto(Task task) {
-        String assignedUsername = null;
-        if (task.getAssignedUserId() != null) {
-            assignedUsername = userRepository.findById(task.getAssignedUserId())
-                    .map(User::getUsername)
-                    .orElse(null);
-        }
+        return toDto(task, userDirectory.getUsername(task.getAssignedUserId(), null));
+    }
+
+    private TaskDto toDto(Task task, String assignedUsername) {
         return new TaskDto(
             task.getId(),
             task.getTitle(),
@@ -70,14 +78,39 @@ public class TaskService {
         return task;
     }
 
+    @Transactional(readOnly = true)
     public List<TaskDto> getTasksByBoardIdDto(Long boardId, Long userId) {
-        return getTasksByBoardId(boardId, userId).stream().map(this::toDto).toList();
+        boardService.getBoardById(boardId, userId); // Validate board access (READ or higher)
+        return taskRepository.findDtosByBoardId(boardId);
     }
 
+    /**
+     * Get a board's tasks filtered and sorted by custom field values.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDto> queryTasksDto(Long boardId, TaskQueryDto query, Long userId) {
+        boardService.getBoardById(boardId, userId); // Validate board access (READ or higher)
+        List<Long> taskIds = customFieldService.findTaskIds(boardId, query);
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TaskDto> tasks = new HashMap<>();
+        for (int from = 0; from < taskIds.size(); from += QueryLimits.MAX_IN_CLAUSE_SIZE) {
+            taskRepository.findDtosByIdIn(taskIds.subList(from, Math.min(from + QueryLimits.MAX_IN_CLAUSE_SIZE, taskIds.size())))
+                    .forEach(task -> tasks.put(task.getId(), task));
+        }
+        return taskIds.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
     public TaskDto getTaskByIdDto(Long id, Long userId) {
         return toDto(getTaskById(id, userId));
     }
 
+    @Transactional
     public TaskDto createTaskDto(TaskDto taskDto, Long userId) {
         Task task = toEntity(taskDto);
         Task created = createTask(task, userId);
@@ -97,6 +130,7 @@ public class TaskService {
         return toDto(created);
     }
 
+    @Transactional
     public TaskDto updateTaskDto(Long id, TaskDto taskDto, Long userId) {
         Task updated = updateTask(id, toEntity(taskDto), userId);
         return toDto(updated);
@@ -123,6 +157,7 @@ public class TaskService {
         }
         statusService.getStatusById(task.getStatusId(), userId); // Validate status exists and belongs to board
         Task saved = taskRepository.save(task);
+        publicBoardCache.evictBoardIfPublic(saved.getBoardId());
         
         // Log creation
         changeLogService.logCreate(ChangeLogService.ENTITY_TASK, saved.getId(), userId);
@@ -181,10 +216,10 @@ public class TaskService {
             (newAssignedUserId != null && !newAssignedUserId.equals(existingAssignedUserId))) {
             
             String oldUsername = existingAssignedUserId != null 
-                ? userRepository.findById(existingAssignedUserId).map(User::getUsername).orElse("none")
+                ? userDirectory.getUsername(existingAssignedUserId, "none")
                 : "none";
             String newUsername = newAssignedUserId != null 
-                ? userRepository.findById(newAssignedUserId).map(User::getUsername).orElse("none")
+                ? userDirectory.getUsername(newAssignedUserId, "none")
                 : "none";
             
             changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, id, userId,
@@ -194,6 +229,7 @@ public class TaskService {
         }
         
         Task saved = taskRepository.save(existingTask);
+        publicBoardCache.evictBoardIfPublic(saved.getBoardId());
         
         // Send notifications
         if (wasMoved) {
@@ -215,6 +251,7 @@ public class TaskService {
         return saved;
     }
 
+    @Transactional
     public void deleteTask(Long id, Long userId) {
         Task task = getTaskById(id, userId);
         
@@ -235,16 +272,16 @@ public class TaskService {
             userId
         );
         
+        attachmentService.deleteAttachmentsByTaskId(id);
         taskRepository.delete(task);
+        publicBoardCache.evictBoardIfPublic(task.getBoardId());
     }
 
     /**
      * Get tasks for a public board (no user validation).
      */
+    @Transactional(readOnly = true)
     public List<TaskDto> getTasksByBoardIdDtoPublic(Long boardId) {
-        return taskRepository.findByBoardId(boardId)
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return taskRepository.findDtosByBoardId(boardId);
     }
 }
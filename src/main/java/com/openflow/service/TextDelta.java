@@ -0,0 +1,58 @@
+package com.openflow.service;
+
+/**
+ * Compact single-edit diff used to delta-encode change-log values.
+ *
+ * A patch has the form {@code <prefixLength>:<suffixLength>:<insertedText>}: keep that many
+ * leading and trailing characters of the base and put the inserted text between them. Typing,
+ * deleting or replacing a run of text therefore costs only the changed characters.
+ * A null target is encoded as a null patch.
+ */
+final class TextDelta {
+
+    private TextDelta() {
+    }
+
+    /**
+     * Build a patch that turns {@code base} into {@code target}.
+     */
+    static String diff(String base, String target) {
+        if (target == null) {
+            return null;
+        }
+        String from = base != null ? base : "";
+        int maxPrefix = Math.min(from.length(), target.length());
+        int prefix = 0;
+        while (prefix < maxPrefix && from.charAt(prefix) == target.charAt(prefix)) {
+            prefix++;
+        }
+        int maxSuffix = Math.min(from.length(), target.length()) - prefix;
+        int suffix = 0;
+        while (suffix < maxSuffix
+                && from.charAt(from.length() - 1 - suffix) == target.charAt(target.length() - 1 - suffix)) {
+            suffix++;
+        }
+        return prefix + ":" + suffix + ":" + target.substring(prefix, target.length() - suffix);
+    }
+
+    /**
+     * Apply a patch produced by {@link #diff(String, String)} to {@code base}.
+     */
+    static String apply(String base, String patch) {
+        if (patch == null) {
+            return null;
+        }
+        String from = base != null ? base : "";
+        int first = patch.indexOf(':');
+        int second = patch.indexOf(':', first + 1);
+        if (first < 0 || second < 0) {
+            throw new IllegalArgumentException("Malformed text delta: " + patch);
+        }
+        int prefix = Integer.parseInt(patch.substring(0, first));
+        int suffix = Integer.parseInt(patch.substring(first + 1, second));
+        if (prefix + suffix > from.length()) {
+            throw new IllegalArgumentException("Text delta does not match its base");
+        }
+        return from.substring(0, prefix) + patch.substring(second + 1) + from.substring(from.length() - suffix);
+    }
+}
@@ -0,0 +1,100 @@
+package com.openflow.service;
+
+import com.openflow.model.CustomFieldValue;
+import com.openflow.model.FieldType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Converts custom field string values into the typed columns used for filtering and sorting.
+ *
+ * NUMBER values go to {@code number_value}, CHECKBOX values to {@code number_value} as 1/0,
+ * DATE values to {@code date_value} and DROPDOWN values to {@code option_key}. TEXT and
+ * TEXTAREA values have no typed column. Values that cannot be parsed leave the column null.
+ */
+final class TypedFieldValue {
+
+    // number_value is NUMBER(38,10)
+    private static final int MAX_SCALE = 10;
+    private static final int MAX_INTEGER_DIGITS = 28;
+
+    private static final int MAX_OPTION_KEY_LENGTH = 255;
+
+    private TypedFieldValue() {
+    }
+
+    /**
+     * Whether values of this type have an indexed typed column.
+     */
+    static boolean isIndexed(FieldType type) {
+        return type != FieldType.TEXT && type != FieldType.TEXTAREA;
+    }
+
+    /**
+     * Set the typed columns of {@code value} from its string value.
+     */
+    static void populate(CustomFieldValue value, FieldType type) {
+        Object typed = parse(type, value.getValue());
+        value.setNumberValue(typed instanceof BigDecimal number ? number : null);
+        value.setDateValue(typed instanceof LocalDateTime date ? date : null);
+        value.setOptionKey(typed instanceof String key ? key : null);
+    }
+
+    /**
+     * Parse a string value into its typed column value: a BigDecimal, LocalDateTime or
+     * normalized option key, or null when the type has no column or the value is invalid.
+     */
+    static Object parse(FieldType type, String raw) {
+        if (type == null || raw == null || raw.isBlank()) {
+            return null;
+        }
+        String value = raw.trim();
+        return switch (type) {
+            case NUMBER -> parseNumber(value);
+            case CHECKBOX -> Boolean.parseBoolean(value) ? BigDecimal.ONE : BigDecimal.ZERO;
+            case DATE -> parseDate(value);
+            case DROPDOWN -> {
+                String key = value.toLowerCase(Locale.ROOT);
+                yield key.length() > MAX_OPTION_KEY_LENGTH ? key.substring(0, MAX_OPTION_KEY_LENGTH) : key;
+            }
+            default -> null;
+        };
+    }
+
+    private static BigDecimal parseNumber(String value) {
+        try {
+            BigDecimal number = new BigDecimal(value);
+            if (number.scale() > MAX_SCALE) {
+                number = number.setScale(MAX_SCALE, RoundingMode.HALF_UP);
+            }
+            return number.precision() - number.scale() > MAX_INTEGER_DIGITS ? null : number;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Date pickers send yyyy-MM-dd; full ISO date-times are accepted as well
+    private static LocalDateTime parseDate(String value) {
+        try {
+            return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException ignored) {
+            // Not a plain date
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException ignored) {
+            // Not a local date-time
+        }
+        try {
+            return OffsetDateTime.parse(value).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.openflow.service;
+
+import com.openflow.dto.UploadRequestDto;
+import com.openflow.dto.UploadSlotDto;
+import com.openflow.model.PendingUpload;
+import com.openflow.model.UploadType;
+import com.openflow.repository.PendingUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Direct-to-S3 uploads. Clients request an upload slot, PUT the file to the presigned URL
+ * and then confirm it, so file bytes never pass through the application.
+ */
+@Service
+public class UploadService {
+    private static final Logger logger = LoggerFactory.getLogger(UploadService.class);
+
+    @Autowired
+    private PendingUploadRepository pendingUploadRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private StorageCleanupService storageCleanupService;
+
+    // Matches spring.servlet.multipart.max-file-size for proxied uploads
+    @Value("${uploads.max-file-size-bytes:10485760}")
+    private long maxFileSizeBytes;
+
+    @Value("${uploads.presigned-url-minutes:15}")
+    private long presignedUrlMinutes;
+
+    // Unconfirmed slots older than this are swept; must be longer than the URL validity
+    @Value("${uploads.pending-ttl-minutes:60}")
+    private long pendingTtlMinutes;
+
+    // Streaming multipart uploads of several GB can run for hours, so they get their own, much longer cutoff
+    @Value("${uploads.multipart-abort-after-hours:24}")
+    private long multipartAbortAfterHours;
+
+    /**
+     * Reserve an S3 key and return a presigned PUT restricted to the declared size and content type.
+     */
+    @Transactional
+    public UploadSlotDto createSlot(UploadType type, Long userId, Long taskId, UploadRequestDto request) {
+        if (!storageBackend.isEnabled()) {
+            throw new RuntimeException("File storage is not enabled");
+        }
+        if (request.getFileSize() == null || request.getFileSize() <= 0) {
+            throw new RuntimeException("File is empty");
+        }
+        if (request.getFileSize() > maxFileSizeBytes) {
+            throw new RuntimeException("File exceeds maximum size of " + maxFileSizeBytes + " bytes");
+        }
+        if (type == UploadType.PROFILE_PICTURE
+                && (request.getContentType() == null || !request.getContentType().startsWith("image/"))) {
+            throw new RuntimeException("File must be an image");
+        }
+
+        String s3Key = type == UploadType.PROFILE_PICTURE
+                ? storageBackend.newProfilePictureKey(userId, request.getFileName())
+                : storageBackend.newTaskFileKey(taskId, request.getFileName());
+
+        PendingUpload pending = new PendingUpload();
+        pending.setUploadType(type);
+        pending.setUserId(userId);
+        pending.setTaskId(taskId);
+        pending.setS3Key(s3Key);
+        pending.setFileName(request.getFileName());
+        pending.setContentType(request.getContentType());
+        pending.setFileSize(request.getFileSize());
+        PendingUpload saved = pendingUploadRepository.save(pending);
+
+        StorageBackend.PresignedUpload upload = storageBackend.presignUpload(s3Key, request.getContentType(),
+                request.getFileSize(), Duration.ofMinutes(presignedUrlMinutes));
+        return new UploadSlotDto(saved.getId(), upload.url(), upload.method(), upload.headers(), upload.expiresAt());
+    }
+
+    /**
+     * Check that a slot's object was uploaded as declared and release the slot.
+     * The caller finalizes the returned upload (creates the attachment, sets the profile picture).
+     */
+    @Transactional
+    public PendingUpload claim(Long uploadId, UploadType type, Long userId) {
+        PendingUpload pending = pendingUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+        if (pending.getUploadType() != type || !pending.getUserId().equals(userId)) {
+            throw new RuntimeException("Upload not found");
+        }
+
+        StorageBackend.StoredObject object = storageBackend.stat(pending.getS3Key())
+                .orElseThrow(() -> new RuntimeException("File has not been uploaded yet"));
+        // The presigned PUT signs the length, so a mismatch means the object was tampered with
+        if (object.size() != pending.getFileSize()) {
+            throw new RuntimeException("Uploaded file does not match the declared size");
+        }
+
+        pendingUploadRepository.delete(pending);
+        return pending;
+    }
+
+    /**
+     * Remove upload slots that were never confirmed, along with any object uploaded to them,
+     * and abort streaming multipart uploads that were never completed.
+     */
+    @Scheduled(fixedDelayString = "${uploads.sweep-interval-ms:600000}")
+    @Transactional
+    public void sweepAbandonedUploads() {
+        storageBackend.abortIncompleteUploads(Instant.now().minus(Duration.ofHours(multipartAbortAfterHours)));
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(pendingTtlMinutes);
+        List<PendingUpload> abandoned = pendingUploadRepository.findByCreatedAtBefore(cutoff);
+        if (abandoned.isEmpty()) {
+            return;
+        }
+        pendingUploadRepository.deleteAllInBatch(abandoned);
+        storageCleanupService.deleteAfterCommit(abandoned.stream().map(PendingUpload::getS3Key).toList());
+        logger.info("Swept {} abandoned uploads", abandoned.size());
+    }
+}
@@ -0,0 +1,158 @@
+package com.openflow.service;
+
+import com.openflow.dto.UserSummary;
+import com.openflow.repository.QueryLimits;
+import com.openflow.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cached id to username, email and profile picture lookups for rendering tasks, comments, access
+ * lists, change logs and notifications. Lists resolve all their users with one call, which only
+ * queries the ids not already cached. Entries are evicted on all nodes when a user is saved and
+ * expire after a TTL to bound the staleness of writes made elsewhere.
+ */
+@Service
+public class UserDirectory {
+
+    static final String CACHE_NAME = "user-directory";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${user-directory.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${user-directory.max-entries:10000}")
+    private int maxEntries;
+
+    private record CachedUser(UserSummary user, long expiresAtMillis) {}
+
+    /**
+     * Access-ordered, so the least recently used users are dropped first once full.
+     */
+    private final Map<Long, CachedUser> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedUser> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Users being loaded, guarded by the cache. An eviction removes the user's token, so a load
+     * that may have read the user before the change is not cached.
+     */
+    private final Map<Long, Object> loadTokens = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CACHE_NAME, key -> {
+            if (key != null) {
+                remove(Long.valueOf(key));
+            } else {
+                synchronized (cache) {
+                    loadTokens.clear();
+                    cache.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * Look up one user, or empty when there is no user with that id.
+     */
+    public Optional<UserSummary> resolve(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(resolveAll(List.of(userId)).get(userId));
+    }
+
+    /**
+     * Look up many users at once. Ids without a user (and null ids) are missing from the result.
+     */
+    public Map<Long, UserSummary> resolveAll(Collection<Long> userIds) {
+        Map<Long, UserSummary> users = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+        Object token = new Object();
+        synchronized (cache) {
+            for (Long userId : userIds) {
+                if (userId == null || users.containsKey(userId)) {
+                    continue;
+                }
+                CachedUser cached = cache.get(userId);
+                if (cached != null && cached.expiresAtMillis() > now) {
+                    users.put(userId, cached.user());
+                } else if (missing.add(userId)) {
+                    loadTokens.put(userId, token);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return users;
+        }
+
+        long expiresAt = now + Duration.ofMinutes(ttlMinutes).toMillis();
+        List<Long> missingIds = new ArrayList<>(missing);
+        for (int from = 0; from < missingIds.size(); from += QueryLimits.MAX_IN_CLAUSE_SIZE) {
+            List<Long> chunk = missingIds.subList(from, Math.min(from + QueryLimits.MAX_IN_CLAUSE_SIZE, missingIds.size()));
+            Map<Long, UserSummary> loaded = new HashMap<>();
+            try {
+                userRepository.findSummariesByIdIn(chunk).forEach(user -> loaded.put(user.id(), user));
+            } finally {
+                synchronized (cache) {
+                    for (Long userId : chunk) {
+                        UserSummary user = loaded.get(userId);
+                        if (loadTokens.remove(userId, token) && user != null) {
+                            cache.put(userId, new CachedUser(user, expiresAt));
+                        }
+                    }
+                }
+            }
+            users.putAll(loaded);
+        }
+        return users;
+    }
+
+    /**
+     * Get a user's name, or the fallback when the id is null or the user no longer exists.
+     */
+    public String getUsername(Long userId, String fallback) {
+        return resolve(userId).map(UserSummary::username).orElse(fallback);
+    }
+
+    /**
+     * Drop a user's cached entry on all nodes.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cacheInvalidationBus.evictLocallyAndPublish(CACHE_NAME, userId, () -> remove(userId));
+    }
+
+    private void remove(Long userId) {
+        synchronized (cache) {
+            loadTokens.remove(Objects.requireNonNull(userId));
+            cache.remove(userId);
+        }
+    }
+}
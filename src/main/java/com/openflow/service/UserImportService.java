@@ -0,0 +1,414 @@
+package com.openflow.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openflow.dto.RegisterRequest;
+import com.openflow.dto.UserSummary;
+import com.openflow.model.Role;
+import com.openflow.model.User;
+import com.openflow.repository.QueryLimits;
+import com.openflow.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk creation of password users from CSV or NDJSON. Rows are read and processed in chunks:
+ * uniqueness is checked with one query per chunk, passwords are hashed in parallel on a dedicated
+ * fork-join pool, and the new users are inserted with one JDBC batch. A result line per row is
+ * written as soon as its chunk is done, so the import can be followed while it runs.
+ */
+@Service
+public class UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_DONE = "DONE";
+
+    /**
+     * One line of the import response: a row's outcome, or the final DONE summary.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ImportResult(Integer line, String username, String status, String error,
+                               Integer created, Integer failed) {
+        static ImportResult created(ImportRow row) {
+            return new ImportResult(row.line, row.request.getUsername(), STATUS_CREATED, null, null, null);
+        }
+
+        static ImportResult failed(ImportRow row) {
+            return new ImportResult(row.line, row.request.getUsername(), STATUS_FAILED, row.error, null, null);
+        }
+    }
+
+    private static class ImportRow {
+        final int line;
+        final RegisterRequest request = new RegisterRequest();
+        Role role = Role.USER;
+        String error;
+        String passwordHash;
+
+        ImportRow(int line) {
+            this.line = line;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Rows checked, hashed and inserted together (at most 1000)
+    @Value("${user-import.chunk-size:500}")
+    private int chunkSize;
+
+    // Threads hashing passwords; 0 uses half the available processors, leaving CPU for logins
+    @Value("${user-import.hashing-parallelism:0}")
+    private int hashingParallelism;
+
+    @Value("${user-import.max-rows:50000}")
+    private int maxRows;
+
+    private ForkJoinPool hashingPool;
+
+    // Imports run one at a time
+    private final Semaphore running = new Semaphore(1);
+
+    @PostConstruct
+    public void init() {
+        int parallelism = hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        hashingPool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Import users from CSV (a header line naming the username, email, password and optional role
+     * columns) or NDJSON (one object with those fields per line), writing one NDJSON result line per
+     * row and a final summary to {@code out}. Fails before writing anything when another import is
+     * running or the CSV header is invalid.
+     */
+    public void importUsers(InputStream in, boolean csv, OutputStream out) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new RuntimeException("Another user import is running");
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            int lineNumber = 0;
+            Map<String, Integer> columns = null;
+            if (csv) {
+                columns = parseHeader(reader.readLine());
+                lineNumber++;
+            }
+
+            Set<String> seenUsernames = new HashSet<>();
+            Set<String> seenEmails = new HashSet<>();
+            List<ImportRow> chunk = new ArrayList<>();
+            int size = Math.max(1, Math.min(chunkSize, QueryLimits.MAX_IN_CLAUSE_SIZE));
+            int rows = 0;
+            int created = 0;
+            int failed = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (++rows > maxRows) {
+                    writeResult(out, new ImportResult(lineNumber, null, STATUS_FAILED,
+                            "Import is limited to " + maxRows + " rows, the rest was skipped", null, null));
+                    failed++;
+                    break;
+                }
+                chunk.add(csv ? parseCsvRow(line, lineNumber, columns) : parseJsonRow(line, lineNumber));
+                if (chunk.size() == size) {
+                    int chunkCreated = processChunk(chunk, seenUsernames, seenEmails, out);
+                    created += chunkCreated;
+                    failed += chunk.size() - chunkCreated;
+                    chunk.clear();
+                }
+            }
+            int chunkCreated = processChunk(chunk, seenUsernames, seenEmails, out);
+            created += chunkCreated;
+            failed += chunk.size() - chunkCreated;
+
+            writeResult(out, new ImportResult(null, null, STATUS_DONE, null, created, failed));
+            logger.info("Imported {} users, {} rows failed", created, failed);
+        } finally {
+            running.release();
+        }
+    }
+
+    /**
+     * Validate, hash and insert a chunk of rows and write their results. Returns the number of
+     * users created.
+     */
+    private int processChunk(List<ImportRow> chunk, Set<String> seenUsernames, Set<String> seenEmails,
+                             OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<ImportRow> valid = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            if (row.error == null) {
+                validate(row);
+            }
+            if (row.error == null) {
+                valid.add(row);
+            }
+        }
+
+        // One query for all usernames and emails of the chunk
+        if (!valid.isEmpty()) {
+            Set<String> existingUsernames = new HashSet<>();
+            Set<String> existingEmails = new HashSet<>();
+            for (UserSummary user : userRepository.findSummariesByUsernameInOrEmailIn(
+                    valid.stream().map(row -> row.request.getUsername()).toList(),
+                    valid.stream().map(row -> row.request.getEmail()).toList())) {
+                existingUsernames.add(user.username());
+                existingEmails.add(user.email());
+            }
+            for (ImportRow row : valid) {
+                if (existingUsernames.contains(row.request.getUsername())) {
+                    row.error = "Username already exists";
+                } else if (existingEmails.contains(row.request.getEmail())) {
+                    row.error = "Email already exists";
+                } else if (seenUsernames.contains(row.request.getUsername())) {
+                    row.error = "Duplicate username in import";
+                } else if (seenEmails.contains(row.request.getEmail())) {
+                    row.error = "Duplicate email in import";
+                } else {
+                    // Only accepted rows reserve their username and email
+                    seenUsernames.add(row.request.getUsername());
+                    seenEmails.add(row.request.getEmail());
+                }
+            }
+            valid.removeIf(row -> row.error != null);
+        }
+
+        if (!valid.isEmpty()) {
+            hashPasswords(valid);
+            insert(valid);
+        }
+
+        int created = 0;
+        for (ImportRow row : chunk) {
+            if (row.error == null) {
+                writeResult(out, ImportResult.created(row));
+                created++;
+            } else {
+                writeResult(out, ImportResult.failed(row));
+            }
+        }
+        out.flush();
+        return created;
+    }
+
+    private void validate(ImportRow row) {
+        // Same rules as self-registration
+        row.request.setUsername(trimToNull(row.request.getUsername()));
+        row.request.setEmail(trimToNull(row.request.getEmail()));
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(row.request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<RegisterRequest> violation = violations.stream()
+                    .min(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .get();
+            row.error = violation.getPropertyPath() + " " + violation.getMessage();
+        }
+    }
+
+    private void hashPasswords(List<ImportRow> rows) {
+        try {
+            hashingPool.submit(() -> rows.parallelStream()
+                    .forEach(row -> row.passwordHash = passwordEncoder.encode(row.request.getPassword())))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing passwords");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to hash passwords", e.getCause());
+        }
+    }
+
+    private void insert(List<ImportRow> rows) {
+        List<User> users = rows.stream().map(this::toUser).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.insertAll(users));
+        } catch (DataAccessException e) {
+            // A concurrent registration took a username or email; the batch was rolled back, so
+            // insert row by row to find the conflicting rows
+            logger.info("Batch insert of {} imported users failed, retrying row by row: {}", users.size(), e.getMessage());
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    userRepository.insertAll(List.of(users.get(i)));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    rows.get(i).error = "Username or email already exists";
+                } catch (DataAccessException rowFailure) {
+                    rows.get(i).error = "Could not be saved";
+                    logger.warn("Failed to import user on line {}: {}", rows.get(i).line, rowFailure.getMessage());
+                }
+            }
+        }
+    }
+
+    private User toUser(ImportRow row) {
+        User user = new User();
+        user.setUsername(row.request.getUsername());
+        user.setEmail(row.request.getEmail());
+        user.setPassword(row.passwordHash);
+        user.setAuthProvider("jwt");
+        user.setRole(row.role);
+        return user;
+    }
+
+    private ImportRow parseJsonRow(String line, int lineNumber) {
+        ImportRow row = new ImportRow(lineNumber);
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                row.error = "Expected a JSON object";
+                return row;
+            }
+            row.request.setUsername(text(node, "username"));
+            row.request.setEmail(text(node, "email"));
+            row.request.setPassword(text(node, "password"));
+            setRole(row, text(node, "role"));
+        } catch (JsonProcessingException e) {
+            row.error = "Invalid JSON";
+        }
+        return row;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        if (header == null) {
+            throw new RuntimeException("CSV header is missing");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new RuntimeException("CSV header has no " + required + " column");
+            }
+        }
+        return columns;
+    }
+
+    private static ImportRow parseCsvRow(String line, int lineNumber, Map<String, Integer> columns) {
+        ImportRow row = new ImportRow(lineNumber);
+        List<String> values = parseCsvLine(line);
+        row.request.setUsername(column(values, columns.get("username")));
+        row.request.setEmail(column(values, columns.get("email")));
+        row.request.setPassword(column(values, columns.get("password")));
+        setRole(row, column(values, columns.get("role")));
+        return row;
+    }
+
+    private static String column(List<String> values, Integer index) {
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Split a CSV line into fields. Fields may be quoted, with "" for a quote inside; quoted line
+     * breaks are not supported.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void setRole(ImportRow row, String role) {
+        if (role == null || role.isBlank()) {
+            return;
+        }
+        try {
+            row.role = Role.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            row.error = "Unknown role " + role.trim();
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private void writeResult(OutputStream out, ImportResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+}
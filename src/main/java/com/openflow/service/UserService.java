@@ -1,20 +1,33 @@
 package com.openflow.service;
 
+import com.openflow.config.ReadWriteRoutingDataSource;
 import com.openflow.dto.AuthRequest;
 import com.openflow.dto.AuthResponse;
 import com.openflow.dto.RegisterRequest;
+import com.openflow.dto.UploadRequestDto;
+import com.openflow.dto.UploadSlotDto;
 import com.openflow.dto.UserInfoResponse;
+import com.openflow.dto.UserOptionDto;
+import com.openflow.dto.UserOptionPageDto;
+import com.openflow.model.PendingUpload;
 import com.openflow.model.Role;
+import com.openflow.model.UploadType;
 import com.openflow.model.User;
 import com.openflow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UserService {
@@ -22,7 +35,7 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtService jwtService;
@@ -34,7 +47,7 @@ public class UserService {
         return user.getRole() != null ? user.getRole() : Role.USER;
     }
 
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientAddress) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
@@ -45,7 +58,7 @@ public class UserService {
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword(), clientAddress));
         user.setAuthProvider("jwt");
         user.setRole(Role.USER); // Explicitly set role for new users
 
@@ -56,45 +69,140 @@ public class UserService {
         return new AuthResponse(token, user.getUsername(), role.name());
     }
 
-    public AuthResponse login(AuthRequest request) {
-        User user = userRepository.findByUsername(request.getUsername())
+    /**
+     * Log in with username and password. Fails with {@link PasswordHashingService.BusyException}
+     * when too many logins are being verified.
+     */
+    public AuthResponse login(AuthRequest request, String clientAddress) {
+        User user = ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findByUsername(request.getUsername()))
                 .orElseThrow(() -> new RuntimeException("Invalid username or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword(), clientAddress, user.getUsername())) {
             throw new RuntimeException("Invalid username or password");
         }
 
+        // Move the stored hash to the current work factor while the password is at hand
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            try {
+                String rehashed = passwordHashingService.encode(request.getPassword(), clientAddress);
+                userRepository.updatePassword(user.getId(), user.getPassword(), rehashed);
+            } catch (PasswordHashingService.BusyException e) {
+                // Rehashed on a later login
+            }
+        }
+
         Role role = getEffectiveRole(user);
         String token = jwtService.generateToken(user.getUsername(), role);
         return new AuthResponse(token, user.getUsername(), role.name());
     }
 
     @Autowired
-    private S3Service s3Service;
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private UploadService uploadService;
+
+    @Autowired
+    private ProfilePictureService profilePictureService;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    @Lazy
+    private BoardService boardService;
 
+    // Default and maximum page sizes for the user list
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Default and maximum number of user search results
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
+    // Edge length of the profile picture variant returned with the user info
+    @Value("${profile-pictures.user-info-size:256}")
+    private int userInfoPictureSize;
+
+    /**
+     * Resolve a user by name on the primary database, so a user registered a moment ago is found
+     * even when the replica lags.
+     */
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    /**
+     * Get one page of all users in username order. The cursor is the nextCursor of the previous
+     * page (null for the first page).
+     */
+    @Transactional(readOnly = true)
+    public UserOptionPageDto getUsersPage(String cursor, Integer limit) {
+        int pageSize = limit == null || limit < 1 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page follows
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+        
+        List<UserOptionDto> users;
+        if (cursor == null || cursor.isEmpty()) {
+            users = userRepository.findOptions(fetch);
+        } else {
+            KeysetCursor.Position after = KeysetCursor.decode(cursor);
+            users = userRepository.findOptionsAfter(after.afterName(), after.afterId(), fetch);
+        }
+        
+        boolean hasMore = users.size() > pageSize;
+        List<UserOptionDto> page = hasMore ? users.subList(0, pageSize) : users;
+        String nextCursor = null;
+        if (hasMore) {
+            UserOptionDto last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getId(), last.getSortName());
+        }
+        return new UserOptionPageDto(page, nextCursor, hasMore);
     }
 
     /**
-     * Get user info with profile picture URL.
+     * Find users whose username or email starts with the query (case-insensitive), at most
+     * {@code limit} of them. With a board, its owner and the users with access to it come first;
+     * the requester needs read access to the board.
      */
-    public UserInfoResponse getUserInfo(String username) {
-        User user = findByUsername(username);
-        String profilePictureUrl = null;
+    @Transactional(readOnly = true)
+    public List<UserOptionDto> searchUsers(String query, Long boardId, Integer limit, Long requesterId) {
+        int maxResults = limit == null || limit < 1 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        String prefix = KeysetCursor.likePrefix(query);
+        PageRequest fetch = PageRequest.of(0, maxResults);
         
-        if (user.getProfilePictureKey() != null && s3Service.isEnabled()) {
-            try {
-                profilePictureUrl = s3Service.getPresignedUrl(user.getProfilePictureKey());
-            } catch (Exception e) {
-                // Ignore - profile picture not available
+        List<UserOptionDto> results = new ArrayList<>();
+        Set<Long> included = new HashSet<>();
+        if (boardId != null) {
+            boardService.getBoardById(boardId, requesterId); // Validate board access (READ or higher)
+            for (UserOptionDto member : userRepository.searchBoardMemberOptions(prefix, boardId, fetch)) {
+                member.setBoardMember(true);
+                results.add(member);
+                included.add(member.getId());
+            }
+        }
+        if (results.size() < maxResults) {
+            // Every member matched above can reappear here, so fetching maxResults rows leaves
+            // enough non-members to fill the remaining slots
+            for (UserOptionDto user : userRepository.searchOptions(prefix, fetch)) {
+                if (results.size() == maxResults) {
+                    break;
+                }
+                if (included.add(user.getId())) {
+                    results.add(user);
+                }
             }
         }
+        return results;
+    }
+
+    /**
+     * Get user info with profile picture URL.
+     */
+    @Transactional(readOnly = true)
+    public UserInfoResponse getUserInfo(String username) {
+        User user = findByUsername(username);
         
         UserInfoResponse response = new UserInfoResponse();
         response.setId(user.getId());
@@ -102,7 +210,10 @@ public class UserService {
         response.setEmail(user.getEmail());
         response.setAuthProvider(user.getAuthProvider());
         response.setRole(getEffectiveRole(user).name());
-        response.setProfilePictureUrl(profilePictureUrl);
+        if (user.getProfilePictureKey() != null) {
+            response.setProfilePictureUrl(profilePictureService.getUrl(user, userInfoPictureSize));
+            response.setProfilePictureVariantUrls(profilePictureService.getVariantUrls(user));
+        }
         
         return response;
     }
@@ -111,40 +222,75 @@ public class UserService {
      * Upload profile picture for user.
      */
     public String uploadProfilePicture(String username, MultipartFile file) throws IOException {
-        if (!s3Service.isEnabled()) {
+        if (!storageBackend.isEnabled()) {
             throw new RuntimeException("File storage is not enabled");
         }
         
         User user = findByUsername(username);
         
-        // Delete old profile picture if exists
+        // Delete old profile picture and its thumbnails if exists
         if (user.getProfilePictureKey() != null) {
-            s3Service.deleteFile(user.getProfilePictureKey());
+            storageBackend.deleteFiles(profilePictureService.getAllKeys(user));
         }
         
         // Upload new picture
-        String s3Key = s3Service.uploadProfilePicture(file, user.getId());
+        String s3Key = storageBackend.newProfilePictureKey(user.getId(), file.getOriginalFilename());
+        storageBackend.store(s3Key, file.getInputStream(), file.getSize(), file.getContentType());
         user.setProfilePictureKey(s3Key);
+        user.setProfilePictureVariants(null);
+        userRepository.save(user);
+        userDirectory.evict(user.getId());
+        profilePictureService.generateVariantsAfterCommit(user.getId(), s3Key);
+        
+        return storageBackend.getDownloadUrl(s3Key);
+    }
+
+    /**
+     * Get a presigned URL to upload a profile picture directly to S3.
+     */
+    public UploadSlotDto requestProfilePictureUpload(String username, UploadRequestDto request) {
+        User user = findByUsername(username);
+        return uploadService.createSlot(UploadType.PROFILE_PICTURE, user.getId(), null, request);
+    }
+
+    /**
+     * Make a directly uploaded picture the user's profile picture, replacing the old one.
+     */
+    @Transactional
+    public String confirmProfilePictureUpload(String username, Long uploadId) {
+        User user = findByUsername(username);
+        PendingUpload upload = uploadService.claim(uploadId, UploadType.PROFILE_PICTURE, user.getId());
+        
+        // Delete old profile picture and its thumbnails if exists
+        if (user.getProfilePictureKey() != null) {
+            storageBackend.deleteFiles(profilePictureService.getAllKeys(user));
+        }
+        
+        user.setProfilePictureKey(upload.getS3Key());
+        user.setProfilePictureVariants(null);
         userRepository.save(user);
+        userDirectory.evict(user.getId());
+        profilePictureService.generateVariantsAfterCommit(user.getId(), upload.getS3Key());
         
-        return s3Service.getPresignedUrl(s3Key);
+        return storageBackend.getDownloadUrl(upload.getS3Key());
     }
 
     /**
-     * Get profile picture URL for user.
+     * Get profile picture URL for user, of the smallest thumbnail at least {@code size} pixels
+     * wide or of the original when no size is given.
      */
-    public String getProfilePictureUrl(String username) {
+    public String getProfilePictureUrl(String username, Integer size) {
         User user = findByUsername(username);
         
         if (user.getProfilePictureKey() == null) {
             return null;
         }
         
-        if (!s3Service.isEnabled()) {
+        if (!storageBackend.isEnabled()) {
             return null;
         }
         
-        return s3Service.getPresignedUrl(user.getProfilePictureKey());
+        return profilePictureService.getUrl(user, size);
     }
 
     /**
@@ -154,9 +300,11 @@ public class UserService {
         User user = findByUsername(username);
         
         if (user.getProfilePictureKey() != null) {
-            s3Service.deleteFile(user.getProfilePictureKey());
+            storageBackend.deleteFiles(profilePictureService.getAllKeys(user));
             user.setProfilePictureKey(null);
+            user.setProfilePictureVariants(null);
             userRepository.save(user);
+            userDirectory.evict(user.getId());
         }
     }
 
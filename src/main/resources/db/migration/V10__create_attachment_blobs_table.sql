@@ -0,0 +1,19 @@
+-- Migration script for content-addressed attachment storage
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create it
+
+CREATE TABLE attachment_blobs (
+    id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    content_hash VARCHAR2(64) NOT NULL,
+    s3_key VARCHAR2(255) NOT NULL,
+    file_size NUMBER NOT NULL,
+    ref_count NUMBER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_attachment_blobs_content_hash UNIQUE (content_hash)
+);
+
+-- SHA-256 of the attachment's content; NULL for attachments stored before deduplication
+-- and for direct uploads, which own their object
+ALTER TABLE attachments ADD content_hash VARCHAR2(64);
+
+-- Commit the changes
+COMMIT;
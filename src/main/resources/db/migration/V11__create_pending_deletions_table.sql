@@ -0,0 +1,17 @@
+-- Migration script to create pending_deletions table for background storage cleanup
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create it
+
+CREATE TABLE pending_deletions (
+    id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    s3_key VARCHAR2(255) NOT NULL,
+    attempts NUMBER(10) NOT NULL,
+    last_error VARCHAR2(1000),
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- The cleanup worker looks up keys that are due and have attempts left
+CREATE INDEX idx_pending_deletions_next_attempt ON pending_deletions(attempts, next_attempt_at);
+
+-- Commit the changes
+COMMIT;
@@ -0,0 +1,8 @@
+-- Migration script for profile picture thumbnails
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create it
+
+-- Edge lengths of the generated thumbnails (e.g. "32,64,256"), stored next to the original
+ALTER TABLE users ADD profile_picture_variants VARCHAR2(100);
+
+-- Commit the changes
+COMMIT;
@@ -0,0 +1,11 @@
+-- Migration script for the paginated public board directory
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create them
+
+-- Directory pages and name-prefix searches read (lower(name), id) ranges of public boards in index order
+CREATE INDEX idx_boards_public_name ON boards(is_public, LOWER(name), id);
+
+-- Task counts of listed boards (and loading a board's tasks) use this instead of a full scan
+CREATE INDEX idx_tasks_board_id ON tasks(board_id);
+
+-- Commit the changes
+COMMIT;
@@ -0,0 +1,11 @@
+-- Migration script for the user list and assignee search
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create them
+
+-- User list pages and username-prefix searches read (lower(username), id) ranges in index order
+CREATE INDEX idx_users_username_lower ON users(LOWER(username), id);
+
+-- Email-prefix searches
+CREATE INDEX idx_users_email_lower ON users(LOWER(email));
+
+-- Commit the changes
+COMMIT;
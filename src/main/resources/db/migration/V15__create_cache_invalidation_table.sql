@@ -0,0 +1,16 @@
+-- Migration script to create cache_invalidation table for cross-node cache invalidation
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create it
+
+CREATE TABLE cache_invalidation (
+    id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    cache_name VARCHAR2(64) NOT NULL,
+    cache_key VARCHAR2(255),
+    origin VARCHAR2(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Every node polls for rows newer than its watermark; old rows are purged by age
+CREATE INDEX idx_cache_invalidation_created_at ON cache_invalidation(created_at);
+
+-- Commit the changes
+COMMIT;
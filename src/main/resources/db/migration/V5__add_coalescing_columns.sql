@@ -0,0 +1,14 @@
+-- Migration script for change-log and notification coalescing
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create them
+
+-- Last time a coalesced edit was merged into a change-log entry
+ALTER TABLE change_logs ADD updated_at TIMESTAMP;
+
+-- Last time a duplicate notification was collapsed into an unread one
+ALTER TABLE notifications ADD updated_at TIMESTAMP;
+
+-- Speeds up the "latest entry for this field" lookup done on every field change
+CREATE INDEX idx_change_logs_entity_field ON change_logs(entity_type, entity_id, field_name, id);
+
+-- Commit the changes
+COMMIT;
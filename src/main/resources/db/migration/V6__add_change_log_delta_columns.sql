@@ -0,0 +1,11 @@
+-- Migration script for delta-encoded change-log values
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create them
+
+-- Previous entry for the same field that this entry's patches apply to (NULL = full values)
+ALTER TABLE change_logs ADD base_id NUMBER(19);
+
+-- Full-value entry that starts the delta chain
+ALTER TABLE change_logs ADD snapshot_id NUMBER(19);
+
+-- Commit the changes
+COMMIT;
@@ -0,0 +1,33 @@
+-- Migration script for typed custom field value columns
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create them
+
+-- Typed copies of field_value used for server-side filtering and sorting
+ALTER TABLE custom_field_values ADD number_value NUMBER(38,10);
+ALTER TABLE custom_field_values ADD date_value TIMESTAMP;
+ALTER TABLE custom_field_values ADD option_key VARCHAR2(255);
+
+-- Composite indexes so each filter is an index range scan ending in the task ID
+CREATE INDEX idx_cfv_number ON custom_field_values (field_definition_id, number_value, task_id);
+CREATE INDEX idx_cfv_date ON custom_field_values (field_definition_id, date_value, task_id);
+CREATE INDEX idx_cfv_option ON custom_field_values (field_definition_id, option_key, task_id);
+
+-- Backfill existing values (new writes populate the columns automatically)
+UPDATE custom_field_values
+SET number_value = TO_NUMBER(TRIM(field_value) DEFAULT NULL ON CONVERSION ERROR)
+WHERE field_definition_id IN (SELECT id FROM custom_field_definitions WHERE field_type = 'NUMBER');
+
+UPDATE custom_field_values
+SET number_value = CASE WHEN LOWER(TRIM(field_value)) = 'true' THEN 1 ELSE 0 END
+WHERE field_value IS NOT NULL AND TRIM(field_value) IS NOT NULL
+  AND field_definition_id IN (SELECT id FROM custom_field_definitions WHERE field_type = 'CHECKBOX');
+
+UPDATE custom_field_values
+SET date_value = TO_TIMESTAMP(SUBSTR(TRIM(field_value), 1, 10) DEFAULT NULL ON CONVERSION ERROR, 'YYYY-MM-DD')
+WHERE field_definition_id IN (SELECT id FROM custom_field_definitions WHERE field_type = 'DATE');
+
+UPDATE custom_field_values
+SET option_key = SUBSTR(LOWER(TRIM(field_value)), 1, 255)
+WHERE field_definition_id IN (SELECT id FROM custom_field_definitions WHERE field_type = 'DROPDOWN');
+
+-- Commit the changes
+COMMIT;
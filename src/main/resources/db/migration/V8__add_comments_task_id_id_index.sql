@@ -0,0 +1,11 @@
+-- Migration script for cursor-paginated comment listing
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create it
+
+-- Keyset pages read (task_id, id) ranges in index order
+CREATE INDEX idx_comments_task_id_id ON comments(task_id, id);
+
+-- The composite index covers lookups by task_id alone
+DROP INDEX idx_comments_task_id;
+
+-- Commit the changes
+COMMIT;
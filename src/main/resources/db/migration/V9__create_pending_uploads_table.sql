@@ -0,0 +1,20 @@
+-- Migration script to create pending_uploads table for direct-to-S3 uploads
+-- Run this on your Oracle database if hibernate.ddl-auto=update fails to create it
+
+CREATE TABLE pending_uploads (
+    id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    upload_type VARCHAR2(20) NOT NULL,
+    user_id NUMBER NOT NULL,
+    task_id NUMBER,
+    s3_key VARCHAR2(255) NOT NULL,
+    file_name VARCHAR2(255) NOT NULL,
+    content_type VARCHAR2(255) NOT NULL,
+    file_size NUMBER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- The sweeper looks up slots older than the pending TTL
+CREATE INDEX idx_pending_uploads_created_at ON pending_uploads(created_at);
+
+-- Commit the changes
+COMMIT;
@@ -0,0 +1,196 @@
+package com.openflow.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for read/write routing against two in-memory H2 databases standing in for the primary and
+ * the replica. Each database knows its own name, so a query shows where it was routed.
+ * Covers routing test cases: ROUTING-01 to ROUTING-05.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    private static final long MAX_LAG_MILLIS = 200;
+
+    private DriverManagerDataSource replica;
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private final List<String> publishedWrites = new CopyOnWriteArrayList<>();
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = new DriverManagerDataSource(PRIMARY_URL);
+        replica = new DriverManagerDataSource(REPLICA_URL);
+        createNode(primary, "primary");
+        createNode(replica, "replica");
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica, MAX_LAG_MILLIS, now::get);
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.setWritePublisher(publishedWrites::add);
+        // As in ReplicaDataSourceConfig, so no connection is borrowed to read the defaults
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void createNode(DriverManagerDataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> node());
+    }
+
+    private static void loginAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    /**
+     * ROUTING-01: Test read-only transactions use the replica and others the primary.
+     */
+    @Test
+    void testReadOnlyTransactionsUseReplica() {
+        // Act & Assert
+        assertEquals("replica", readOnlyNode());
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+
+        Map<String, Object> stats = routingDataSource.getStats();
+        assertEquals(1L, stats.get("replicaConnections"));
+        assertEquals(2L, stats.get("primaryConnections"));
+    }
+
+    /**
+     * ROUTING-02: Test a user reads from the primary for the maximum lag after a write.
+     */
+    @Test
+    void testUserReadsOwnWritesFromPrimaryUntilMaxLag() {
+        // Arrange
+        loginAs("alice");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        // Act & Assert
+        assertEquals("primary", readOnlyNode());
+        assertEquals(List.of("alice"), publishedWrites);
+        assertEquals(1L, routingDataSource.getStats().get("stickyReads"));
+
+        loginAs("bob");
+        assertEquals("replica", readOnlyNode());
+
+        loginAs("alice");
+        now.addAndGet(MAX_LAG_MILLIS - 1);
+        assertEquals("primary", readOnlyNode());
+        now.addAndGet(1);
+        assertEquals("replica", readOnlyNode());
+    }
+
+    /**
+     * ROUTING-02 (variant): Test a rolled back write does not keep the user on the primary.
+     */
+    @Test
+    void testRolledBackWriteDoesNotKeepUserOnPrimary() {
+        // Arrange
+        loginAs("alice");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        // Act & Assert
+        assertEquals("replica", readOnlyNode());
+        assertTrue(publishedWrites.isEmpty());
+    }
+
+    /**
+     * ROUTING-03: Test a write on another node keeps the user on the primary.
+     */
+    @Test
+    void testWriteOnAnotherNodeKeepsUserOnPrimary() {
+        // Arrange
+        routingDataSource.markRemoteWrite("alice");
+
+        // Act & Assert
+        loginAs("alice");
+        assertEquals("primary", readOnlyNode());
+        loginAs("bob");
+        assertEquals("replica", readOnlyNode());
+    }
+
+    /**
+     * ROUTING-04: Test onPrimary sends read-only transactions to the primary.
+     */
+    @Test
+    void testOnPrimaryForcesReadOnlyTransactionsToPrimary() {
+        // Act & Assert
+        assertEquals("primary", ReadWriteRoutingDataSource.onPrimary(this::readOnlyNode));
+        assertEquals("replica", readOnlyNode());
+    }
+
+    /**
+     * ROUTING-05: Test reads fall back to the primary until the replica is healthy.
+     */
+    @Test
+    void testUnavailableReplicaFallsBackToPrimaryUntilHealthy() {
+        // Arrange
+        replica.setUrl("jdbc:h2:mem:routing-missing;IFEXISTS=TRUE");
+
+        // Act & Assert
+        assertEquals("primary", readOnlyNode());
+        assertEquals("primary", readOnlyNode());
+        Map<String, Object> stats = routingDataSource.getStats();
+        assertEquals(false, stats.get("replicaHealthy"));
+        assertEquals(2L, stats.get("fallbackReads"));
+        // The second read did not try the replica again
+        assertEquals(1L, stats.get("replicaFailures"));
+
+        routingDataSource.checkReplicaHealth();
+        assertEquals("primary", readOnlyNode());
+
+        replica.setUrl(REPLICA_URL);
+        routingDataSource.checkReplicaHealth();
+        assertEquals(true, routingDataSource.getStats().get("replicaHealthy"));
+        assertEquals("replica", readOnlyNode());
+    }
+}
@@ -0,0 +1,117 @@
+package com.openflow.config;
+
+import com.openflow.model.User;
+import com.openflow.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the second-level cache on Caffeine, in the application context with the
+ * production cache settings (including missing_cache_strategy=fail).
+ * Covers second-level cache test cases: L2-01 to L2-03.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password-hash");
+        return userRepository.save(user);
+    }
+
+    /**
+     * L2-01: Test the context starts with missing_cache_strategy=fail and Hibernate uses the configured regions.
+     */
+    @Test
+    void testHibernateUsesConfiguredRegions() {
+        // Arrange
+        List<String> regions = new ArrayList<>(SecondLevelCacheConfig.ENTITY_REGIONS);
+        regions.addAll(SecondLevelCacheConfig.QUERY_REGIONS);
+        regions.add(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+
+        // Act & Assert
+        assertEquals("fail", entityManagerFactory.getProperties().get("hibernate.javax.cache.missing_cache_strategy"));
+        for (String region : regions) {
+            assertNotNull(hibernateCacheManager.getCache(region), region);
+        }
+        for (String region : SecondLevelCacheConfig.ENTITY_REGIONS) {
+            assertNotNull(sessionFactory().getCache().getRegion(region), region);
+        }
+        assertEquals(SecondLevelCacheConfig.USER_REGION,
+                sessionFactory().getMappingMetamodel().getEntityDescriptor(User.class).getCacheAccessStrategy()
+                        .getRegion().getName());
+    }
+
+    /**
+     * L2-02: Test a repeated username lookup is answered from its query cache region.
+     */
+    @Test
+    void testUsernameLookupHitsQueryCache() {
+        // Arrange
+        saveUser("l2-lookup");
+        Statistics statistics = sessionFactory().getStatistics();
+        long putsBefore = statistics.getQueryCachePutCount();
+
+        // Act
+        assertTrue(userRepository.findByUsername("l2-lookup").isPresent());
+        // The region's statistics exist once a query has used it
+        CacheRegionStatistics region = statistics.getQueryRegionStatistics(SecondLevelCacheConfig.USER_LOOKUP_REGION);
+        long regionPutsAfterFirst = region.getPutCount();
+        long regionHitsAfterFirst = region.getHitCount();
+        assertTrue(userRepository.findByUsername("l2-lookup").isPresent());
+
+        // Assert
+        assertEquals(putsBefore + 1, statistics.getQueryCachePutCount());
+        assertTrue(regionPutsAfterFirst >= 1);
+        assertEquals(regionPutsAfterFirst, region.getPutCount());
+        assertEquals(regionHitsAfterFirst + 1, region.getHitCount());
+    }
+
+    /**
+     * L2-03: Test a cached entity is loaded from the second-level cache in a new session.
+     */
+    @Test
+    void testEntityIsLoadedFromSecondLevelCache() {
+        // Arrange
+        Long id = saveUser("l2-entity").getId();
+        CacheRegionStatistics region = sessionFactory().getStatistics()
+                .getDomainDataRegionStatistics(SecondLevelCacheConfig.USER_REGION);
+        userRepository.findById(id);
+        long hitsBefore = region.getHitCount();
+
+        // Act
+        assertTrue(userRepository.findById(id).isPresent());
+
+        // Assert
+        assertEquals(hitsBefore + 1, region.getHitCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.openflow.repository;
+
+import com.openflow.model.CustomFieldValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the batched custom field value MERGE, run against the test database.
+ * Each call commits on its own, so entities are always read back from the database.
+ * Covers custom field value repository test cases: CFVALUE-01 to CFVALUE-02.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomFieldValueRepositoryTest {
+
+    @Autowired
+    private CustomFieldValueRepository valueRepository;
+
+    private static CustomFieldValue value(Long taskId, Long definitionId, String text, BigDecimal number) {
+        CustomFieldValue value = new CustomFieldValue();
+        value.setTaskId(taskId);
+        value.setFieldDefinitionId(definitionId);
+        value.setValue(text);
+        value.setNumberValue(number);
+        return value;
+    }
+
+    private List<CustomFieldValue> load(Long taskId) {
+        return valueRepository.findByTaskId(taskId).stream()
+                .sorted(Comparator.comparing(CustomFieldValue::getFieldDefinitionId))
+                .toList();
+    }
+
+    /**
+     * CFVALUE-01: Test the upsert inserts new values and updates existing ones in place.
+     */
+    @Test
+    void testUpsertAllInsertsAndUpdates() {
+        // Arrange
+        valueRepository.upsertAll(List.of(value(7001L, 1L, "3", new BigDecimal("3"))));
+        Long existingId = load(7001L).get(0).getId();
+
+        // Act
+        valueRepository.upsertAll(List.of(
+                value(7001L, 1L, "5", new BigDecimal("5")),
+                value(7001L, 2L, "notes", null)));
+
+        // Assert
+        List<CustomFieldValue> values = load(7001L);
+        assertEquals(2, values.size());
+        assertEquals(existingId, values.get(0).getId());
+        assertEquals("5", values.get(0).getValue());
+        assertEquals(0, new BigDecimal("5").compareTo(values.get(0).getNumberValue()));
+        assertEquals("notes", values.get(1).getValue());
+        assertNull(values.get(1).getNumberValue());
+        assertNotNull(values.get(1).getUpdatedAt());
+    }
+
+    /**
+     * CFVALUE-02: Test an update clears typed columns that are no longer set.
+     */
+    @Test
+    void testUpsertAllClearsTypedColumns() {
+        // Arrange
+        valueRepository.upsertAll(List.of(value(7002L, 1L, "3", new BigDecimal("3"))));
+
+        // Act
+        valueRepository.upsertAll(List.of(value(7002L, 1L, "three", null)));
+
+        // Assert
+        List<CustomFieldValue> values = load(7002L);
+        assertEquals(1, values.size());
+        assertEquals("three", values.get(0).getValue());
+        assertNull(values.get(0).getNumberValue());
+    }
+}
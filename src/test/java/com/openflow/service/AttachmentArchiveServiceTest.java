@@ -0,0 +1,203 @@
+package com.openflow.service;
+
+import com.openflow.model.Attachment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for streaming attachment archives.
+ * Covers archive test cases: ARCHIVE-01 to ARCHIVE-04.
+ */
+@ExtendWith(MockitoExtension.class)
+class AttachmentArchiveServiceTest {
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @InjectMocks
+    private AttachmentArchiveService attachmentArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(attachmentArchiveService, "prefetch", 2);
+        ReflectionTestUtils.setField(attachmentArchiveService, "prefetchThreads", 2);
+        ReflectionTestUtils.setField(attachmentArchiveService, "maxOpenObjects", 8);
+        attachmentArchiveService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        attachmentArchiveService.shutdown();
+    }
+
+    private Attachment attachment(Long id, Long taskId, String name, String contentType, String content) throws Exception {
+        Attachment attachment = new Attachment();
+        attachment.setId(id);
+        attachment.setTaskId(taskId);
+        attachment.setOriginalName(name);
+        attachment.setContentType(contentType);
+        attachment.setS3Key("tasks/" + taskId + "/" + id);
+        if (content != null) {
+            when(storageBackend.openStream(attachment.getS3Key()))
+                    .thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        }
+        return attachment;
+    }
+
+    private static Map<String, String> readArchive(byte[] archive) throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * ARCHIVE-01: Test entries keep their order and duplicate names are numbered.
+     */
+    @Test
+    void testWriteArchiveKeepsOrderAndNumbersDuplicateNames() throws Exception {
+        // Arrange
+        List<Attachment> attachments = List.of(
+                attachment(1L, 1L, "notes.txt", "text/plain", "first"),
+                attachment(2L, 1L, "photo.png", "image/png", "png bytes"),
+                attachment(3L, 1L, "notes.txt", "text/plain", "second"),
+                attachment(4L, 1L, "../../etc/passwd", "text/plain", "third"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        attachmentArchiveService.writeArchive(attachments, false, out);
+
+        // Assert
+        Map<String, String> entries = readArchive(out.toByteArray());
+        assertEquals(List.of("notes.txt", "photo.png", "notes (2).txt", "passwd"), List.copyOf(entries.keySet()));
+        assertEquals("second", entries.get("notes (2).txt"));
+        assertEquals("png bytes", entries.get("photo.png"));
+    }
+
+    /**
+     * ARCHIVE-02: Test a board archive has a folder per task and skips missing objects.
+     */
+    @Test
+    void testWriteArchiveUsesFolderPerTaskAndSkipsMissingObjects() throws Exception {
+        // Arrange
+        Attachment missing = attachment(2L, 5L, "gone.pdf", "application/pdf", null);
+        when(storageBackend.openStream(missing.getS3Key())).thenThrow(new FileNotFoundException("Object not found"));
+        List<Attachment> attachments = List.of(
+                attachment(1L, 5L, "a.txt", "text/plain", "a"),
+                missing,
+                attachment(3L, 6L, "a.txt", "text/plain", "b"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        attachmentArchiveService.writeArchive(attachments, true, out);
+
+        // Assert
+        Map<String, String> entries = readArchive(out.toByteArray());
+        assertEquals(Map.of("task-5/a.txt", "a", "task-6/a.txt", "b"), entries);
+    }
+
+    /**
+     * ARCHIVE-03: Test unique entry names keep the folder and handle names without extension.
+     */
+    @Test
+    void testUniqueEntryNameKeepsFolderAndHandlesNamesWithoutExtension() {
+        // Arrange
+        Set<String> used = new HashSet<>();
+
+        // Act & Assert
+        assertEquals("task-1/README", AttachmentArchiveService.uniqueEntryName(used, "task-1/README"));
+        assertEquals("task-1/README (2)", AttachmentArchiveService.uniqueEntryName(used, "task-1/README"));
+        assertEquals("task.2/data", AttachmentArchiveService.uniqueEntryName(used, "task.2/data"));
+        assertEquals("task.2/data (2)", AttachmentArchiveService.uniqueEntryName(used, "task.2/data"));
+    }
+
+    private List<Attachment> trackedAttachments(int count, AtomicInteger open, AtomicInteger maxOpen) throws Exception {
+        List<Attachment> attachments = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Attachment attachment = attachment(id, 1L, "file-" + id + ".txt", "text/plain", null);
+            when(storageBackend.openStream(attachment.getS3Key())).thenAnswer(invocation -> {
+                maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                return new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)) {
+                    @Override
+                    public void close() {
+                        open.decrementAndGet();
+                    }
+                };
+            });
+            attachments.add(attachment);
+        }
+        return attachments;
+    }
+
+    /**
+     * ARCHIVE-04: Test an archive keeps at most prefetch objects open and releases their slots.
+     */
+    @Test
+    void testWriteArchiveKeepsAtMostPrefetchObjectsOpen() throws Exception {
+        // Arrange
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        List<Attachment> attachments = trackedAttachments(6, open, maxOpen);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        attachmentArchiveService.writeArchive(attachments, false, out);
+
+        // Assert
+        assertEquals(6, readArchive(out.toByteArray()).size());
+        assertTrue(maxOpen.get() <= 2, "open objects: " + maxOpen.get());
+        assertEquals(0, open.get());
+        Semaphore openObjects = (Semaphore) ReflectionTestUtils.getField(attachmentArchiveService, "openObjects");
+        assertEquals(8, openObjects.availablePermits());
+    }
+
+    /**
+     * ARCHIVE-04 (variant): Test an archive still completes when other archives hold all but one slot.
+     */
+    @Test
+    void testWriteArchiveCompletesWithOneFreeSlot() throws Exception {
+        // Arrange
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        List<Attachment> attachments = trackedAttachments(4, open, maxOpen);
+        Semaphore openObjects = (Semaphore) ReflectionTestUtils.getField(attachmentArchiveService, "openObjects");
+        openObjects.acquire(7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        attachmentArchiveService.writeArchive(attachments, false, out);
+
+        // Assert
+        assertEquals(4, readArchive(out.toByteArray()).size());
+        assertEquals(1, maxOpen.get());
+        assertEquals(1, openObjects.availablePermits());
+    }
+}
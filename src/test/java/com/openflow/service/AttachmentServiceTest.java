@@ -0,0 +1,278 @@
+package com.openflow.service;
+
+import com.openflow.model.Attachment;
+import com.openflow.model.AttachmentBlob;
+import com.openflow.repository.AttachmentBlobRepository;
+import com.openflow.repository.AttachmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for content-addressed attachment storage.
+ * Covers attachment test cases: ATTACH-01 to ATTACH-03.
+ */
+@ExtendWith(MockitoExtension.class)
+class AttachmentServiceTest {
+
+    private static final String CONTENT = "same screenshot";
+    // SHA-256 of CONTENT
+    private static final String CONTENT_HASH = "76ed04ca554ce12a82becc0736396247b1bff831c0e18a0cce3286188f2548dc";
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    @Mock
+    private AttachmentBlobRepository attachmentBlobRepository;
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UploadService uploadService;
+
+    @Mock
+    private StorageCleanupService storageCleanupService;
+
+    @InjectMocks
+    private AttachmentService attachmentService;
+
+    private MockMultipartFile file;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(attachmentService, "maxStreamingFileSizeBytes", Long.MAX_VALUE);
+        file = new MockMultipartFile("file", "screenshot.png", "image/png", CONTENT.getBytes(StandardCharsets.UTF_8));
+        lenient().when(storageBackend.isEnabled()).thenReturn(true);
+        lenient().when(storageBackend.newBlobKey(anyString(), anyString()))
+                .thenAnswer(invocation -> "blobs/" + invocation.getArgument(0) + ".png");
+        lenient().when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    private static AttachmentBlob blob(String s3Key, long refCount) {
+        return new AttachmentBlob(1L, CONTENT_HASH, s3Key, (long) CONTENT.length(), refCount, LocalDateTime.now());
+    }
+
+    private static Attachment attachment(String s3Key, String contentHash) {
+        Attachment attachment = new Attachment();
+        attachment.setId(10L);
+        attachment.setTaskId(1L);
+        attachment.setS3Key(s3Key);
+        attachment.setContentHash(contentHash);
+        return attachment;
+    }
+
+    /**
+     * ATTACH-01: Test new content is stored under its blob key.
+     */
+    @Test
+    void testUploadAttachmentStoresNewContentUnderBlobKey() throws Exception {
+        // Arrange
+        runTransactionsInline();
+        when(attachmentBlobRepository.acquire(anyString(), anyString(), anyLong()))
+                .thenAnswer(invocation -> blob(invocation.getArgument(1), 1));
+
+        // Act
+        Attachment attachment = attachmentService.uploadAttachment(1L, 2L, file);
+
+        // Assert
+        assertEquals(CONTENT_HASH, attachment.getContentHash());
+        assertEquals("blobs/" + CONTENT_HASH + ".png", attachment.getS3Key());
+        verify(attachmentBlobRepository).acquire(CONTENT_HASH, "blobs/" + CONTENT_HASH + ".png", CONTENT.length());
+        verify(storageBackend).store(eq("blobs/" + CONTENT_HASH + ".png"), any(InputStream.class),
+                eq((long) CONTENT.length()), eq("image/png"));
+    }
+
+    /**
+     * ATTACH-01 (variant): Test duplicate content is not stored again.
+     */
+    @Test
+    void testUploadAttachmentSkipsStoreForDuplicateContent() throws Exception {
+        // Arrange
+        runTransactionsInline();
+        when(attachmentBlobRepository.existsByContentHash(CONTENT_HASH)).thenReturn(true);
+        when(attachmentBlobRepository.acquire(anyString(), anyString(), anyLong()))
+                .thenReturn(blob("blobs/existing.png", 2));
+
+        // Act
+        Attachment attachment = attachmentService.uploadAttachment(3L, 2L, file);
+
+        // Assert
+        assertEquals("blobs/existing.png", attachment.getS3Key());
+        verify(storageBackend, never()).store(anyString(), any(), anyLong(), any());
+        verify(storageBackend, never()).deleteFile(anyString());
+    }
+
+    /**
+     * ATTACH-01 (variant): Test a concurrent first upload of the same content is retried and deduplicated.
+     */
+    @Test
+    void testUploadAttachmentRetriesConcurrentBlobInsert() throws Exception {
+        // Arrange
+        runTransactionsInline();
+        when(attachmentBlobRepository.acquire(CONTENT_HASH, "blobs/" + CONTENT_HASH + ".png", CONTENT.length()))
+                .thenThrow(new DuplicateKeyException("attachment_blobs.content_hash"))
+                .thenReturn(blob("blobs/other.png", 2));
+
+        // Act
+        Attachment attachment = attachmentService.uploadAttachment(1L, 2L, file);
+
+        // Assert
+        assertEquals("blobs/other.png", attachment.getS3Key());
+        verify(storageBackend, times(1)).store(eq("blobs/" + CONTENT_HASH + ".png"), any(InputStream.class),
+                eq((long) CONTENT.length()), eq("image/png"));
+        verify(storageBackend).deleteFile("blobs/" + CONTENT_HASH + ".png");
+        verify(attachmentRepository, times(1)).save(any(Attachment.class));
+    }
+
+    /**
+     * ATTACH-01 (variant): Test content is stored after all when its blob is deleted during the upload.
+     */
+    @Test
+    void testUploadAttachmentStoresContentWhenBlobWasDeleted() throws Exception {
+        // Arrange
+        runTransactionsInline();
+        when(attachmentBlobRepository.existsByContentHash(CONTENT_HASH)).thenReturn(true, false);
+        when(attachmentBlobRepository.acquire(anyString(), anyString(), anyLong()))
+                .thenAnswer(invocation -> blob(invocation.getArgument(1), 1));
+
+        // Act
+        Attachment attachment = attachmentService.uploadAttachment(1L, 2L, file);
+
+        // Assert
+        assertEquals("blobs/" + CONTENT_HASH + ".png", attachment.getS3Key());
+        verify(attachmentBlobRepository, times(2)).acquire(anyString(), anyString(), anyLong());
+        verify(storageBackend).store(eq("blobs/" + CONTENT_HASH + ".png"), any(InputStream.class),
+                eq((long) CONTENT.length()), eq("image/png"));
+        verify(attachmentRepository, times(1)).save(any(Attachment.class));
+        verify(storageBackend, never()).deleteFile(anyString());
+    }
+
+    /**
+     * ATTACH-01 (variant): Test a streamed upload of duplicate content deletes its object.
+     */
+    @Test
+    void testUploadAttachmentStreamDeletesDuplicateObject() throws Exception {
+        // Arrange
+        when(storageBackend.newTaskFileKey(1L, "screenshot.png")).thenReturn("tasks/1/upload.png");
+        when(storageBackend.storeStream(eq("tasks/1/upload.png"), any(InputStream.class), eq("image/png"), anyLong()))
+                .thenAnswer(invocation -> ((InputStream) invocation.getArgument(1)).transferTo(OutputStream.nullOutputStream()));
+        runTransactionsInline();
+        when(attachmentBlobRepository.acquire(eq(CONTENT_HASH), eq("tasks/1/upload.png"), eq((long) CONTENT.length())))
+                .thenReturn(blob("blobs/existing.png", 2));
+
+        // Act
+        Attachment attachment = attachmentService.uploadAttachmentStream(1L, 2L, "screenshot.png", "image/png",
+                new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals("blobs/existing.png", attachment.getS3Key());
+        assertEquals(CONTENT_HASH, attachment.getContentHash());
+        verify(storageBackend).deleteFile("tasks/1/upload.png");
+    }
+
+    /**
+     * ATTACH-02: Test deleting an attachment keeps a blob that is still referenced.
+     */
+    @Test
+    void testDeleteAttachmentKeepsBlobStillReferenced() {
+        // Arrange
+        when(attachmentRepository.findById(10L)).thenReturn(Optional.of(attachment("blobs/shared.png", CONTENT_HASH)));
+        when(attachmentBlobRepository.release(CONTENT_HASH)).thenReturn(Optional.empty());
+
+        // Act
+        attachmentService.deleteAttachment(10L);
+
+        // Assert
+        verify(storageCleanupService).deleteAfterCommit(List.of());
+        verify(attachmentRepository).delete(any(Attachment.class));
+    }
+
+    /**
+     * ATTACH-02 (variant): Test deleting the last reference deletes the blob.
+     */
+    @Test
+    void testDeleteAttachmentDeletesBlobOnLastReference() {
+        // Arrange
+        when(attachmentRepository.findById(10L)).thenReturn(Optional.of(attachment("blobs/shared.png", CONTENT_HASH)));
+        when(attachmentBlobRepository.release(CONTENT_HASH)).thenReturn(Optional.of("blobs/shared.png"));
+
+        // Act
+        attachmentService.deleteAttachment(10L);
+
+        // Assert
+        verify(storageCleanupService).deleteAfterCommit(List.of("blobs/shared.png"));
+    }
+
+    /**
+     * ATTACH-02 (variant): Test deleting an attachment without a blob deletes its own object.
+     */
+    @Test
+    void testDeleteAttachmentWithoutBlobDeletesOwnObject() {
+        // Arrange
+        when(attachmentRepository.findById(10L)).thenReturn(Optional.of(attachment("tasks/1/direct.png", null)));
+
+        // Act
+        attachmentService.deleteAttachment(10L);
+
+        // Assert
+        verify(storageCleanupService).deleteAfterCommit(List.of("tasks/1/direct.png"));
+        verify(attachmentBlobRepository, never()).release(anyString());
+    }
+
+    /**
+     * ATTACH-03: Test deleting a task queues its unreferenced files in one batch.
+     */
+    @Test
+    void testDeleteAttachmentsByTaskIdQueuesUnreferencedFilesInOneBatch() {
+        // Arrange
+        List<Attachment> attachments = List.of(
+                attachment("tasks/1/a.png", null),
+                attachment("blobs/shared.png", CONTENT_HASH),
+                attachment("blobs/shared.png", CONTENT_HASH));
+        when(attachmentRepository.findByTaskId(1L)).thenReturn(attachments);
+        when(attachmentBlobRepository.release(CONTENT_HASH))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of("blobs/shared.png"));
+
+        // Act
+        attachmentService.deleteAttachmentsByTaskId(1L);
+
+        // Assert
+        verify(attachmentRepository).deleteAllInBatch(attachments);
+        verify(storageCleanupService).deleteAfterCommit(List.of("tasks/1/a.png", "blobs/shared.png"));
+        verify(storageBackend, never()).deleteFile(anyString());
+    }
+}
@@ -1,6 +1,7 @@
 package com.openflow.service;
 
 import com.openflow.dto.BoardAccessDto;
+import com.openflow.dto.UserSummary;
 import com.openflow.model.AccessLevel;
 import com.openflow.model.Board;
 import com.openflow.model.BoardAccess;
@@ -18,7 +19,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +39,9 @@ class BoardAccessServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserDirectory userDirectory;
+
     @Mock
     private ChangeLogService changeLogService;
 
@@ -43,16 +49,11 @@ class BoardAccessServiceTest {
     private BoardAccessService boardAccessService;
 
     private Board testBoard;
-    private User boardOwner;
     private User testUser;
     private BoardAccess testAccess;
 
     @BeforeEach
     void setUp() {
-        boardOwner = new User();
-        boardOwner.setId(1L);
-        boardOwner.setUsername("owner");
-
         testUser = new User();
         testUser.setId(2L);
         testUser.setUsername("testuser");
@@ -80,8 +81,9 @@ class BoardAccessServiceTest {
 
         when(boardRepository.findById(boardId)).thenReturn(Optional.of(testBoard));
         when(boardAccessRepository.findByBoardId(boardId)).thenReturn(accesses);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(boardOwner));
+        when(userDirectory.resolveAll(Set.of(1L, 2L))).thenReturn(Map.of(
+                1L, new UserSummary(1L, "owner", null, null, null),
+                2L, new UserSummary(2L, "testuser", null, null, null)));
 
         // Act
         List<BoardAccessDto> result = boardAccessService.getBoardAccesses(boardId, requesterId);
@@ -90,7 +92,10 @@ class BoardAccessServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(AccessLevel.READ, result.get(0).getAccessLevel());
+        assertEquals("testuser", result.get(0).getUsername());
+        assertEquals("owner", result.get(0).getGrantedByUsername());
         verify(boardAccessRepository).findByBoardId(boardId);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -103,7 +108,6 @@ class BoardAccessServiceTest {
 
         when(boardRepository.findById(boardId)).thenReturn(Optional.of(testBoard));
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(userRepository.findById(grantedBy)).thenReturn(Optional.of(boardOwner));
         when(boardAccessRepository.existsByBoardIdAndUserId(boardId, userId)).thenReturn(false);
         when(boardAccessRepository.save(any(BoardAccess.class))).thenReturn(testAccess);
 
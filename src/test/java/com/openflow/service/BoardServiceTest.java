@@ -1,6 +1,8 @@
 package com.openflow.service;
 
 import com.openflow.dto.BoardDto;
+import com.openflow.dto.BoardSummaryDto;
+import com.openflow.dto.BoardSummaryPageDto;
 import com.openflow.model.AccessLevel;
 import com.openflow.model.Board;
 import com.openflow.repository.BoardRepository;
@@ -14,6 +16,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -50,6 +54,12 @@ class BoardServiceTest {
     @Mock
     private BoardAccessService boardAccessService;
 
+    @Mock
+    private AttachmentService attachmentService;
+
+    @Mock
+    private PublicBoardCache publicBoardCache;
+
     @InjectMocks
     private BoardService boardService;
 
@@ -201,7 +211,9 @@ class BoardServiceTest {
 
         // Assert
         verify(changeLogService).logDelete(eq(ChangeLogService.ENTITY_BOARD), eq(1L), eq(ownerId));
+        verify(attachmentService).deleteAttachmentsByBoardId(1L);
         verify(boardRepository).delete(testBoard);
+        verify(publicBoardCache).evictBoard(1L);
     }
 
     /**
@@ -269,18 +281,18 @@ class BoardServiceTest {
     @Test
     void testGetAllPublicBoards() {
         // Arrange
-        List<Board> publicBoards = Arrays.asList(publicBoard);
-        when(boardRepository.findByIsPublicTrue()).thenReturn(publicBoards);
+        when(boardRepository.findPublicDtos(any(Pageable.class))).thenReturn(List.of(new BoardDto(publicBoard.getId(), publicBoard.getName(),
+                publicBoard.getDescription(), publicBoard.getUserId(), true, false)));
 
         // Act
-        List<BoardDto> result = boardService.getAllPublicBoardsDto();
+        List<BoardDto> result = boardService.getFirstPublicBoardsDto(101);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Public Board", result.get(0).getName());
         assertTrue(result.get(0).getIsPublic());
-        verify(boardRepository).findByIsPublicTrue();
+        verify(boardRepository).findPublicDtos(PageRequest.of(0, 101));
     }
 
     /**
@@ -314,6 +326,39 @@ class BoardServiceTest {
         });
     }
 
+    /**
+     * BOARD-05 (variant): Test public board directory pages continue after the last listed board.
+     */
+    @Test
+    void testGetPublicBoardDirectory_KeysetPages() {
+        // Arrange
+        when(boardRepository.findPublicSummaries(eq("road!_map%"), any(Pageable.class))).thenReturn(List.of(
+                new BoardSummaryDto(7L, "Road_map A", 3L, "road_map a"),
+                new BoardSummaryDto(4L, "Road_Map B", 0L, "road_map b"),
+                new BoardSummaryDto(9L, "Road_map C", 1L, "road_map c")));
+        when(boardRepository.findPublicSummariesAfter(eq("road!_map%"), eq("road_map b"), eq(4L), any(Pageable.class)))
+                .thenReturn(List.of(new BoardSummaryDto(9L, "Road_map C", 1L, "road_map c")));
+
+        // Act
+        BoardSummaryPageDto first = boardService.getPublicBoardDirectory(" Road_Map", null, 2);
+        BoardSummaryPageDto second = boardService.getPublicBoardDirectory("Road_Map", first.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, first.getBoards().size());
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(9L), second.getBoards().stream().map(BoardSummaryDto::getId).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    /**
+     * BOARD-05 (variant): Test public board directory rejects a malformed cursor.
+     */
+    @Test
+    void testGetPublicBoardDirectory_InvalidCursor() {
+        assertThrows(RuntimeException.class, () -> boardService.getPublicBoardDirectory(null, "not a cursor", null));
+    }
+
     /**
      * Test getBoardById - owner access.
      */
@@ -0,0 +1,179 @@
+package com.openflow.service;
+
+import com.openflow.config.ReadWriteRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the cache invalidation bus.
+ * Covers cache invalidation test cases: BUS-01 to BUS-05.
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    @Mock
+    private CacheInvalidationTransport transport;
+
+    @Mock
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @InjectMocks
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @SuppressWarnings("unchecked")
+    private Consumer<CacheInvalidationTransport.Message> startAndCaptureListener() {
+        cacheInvalidationBus.start();
+        ArgumentCaptor<Consumer<CacheInvalidationTransport.Message>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(transport).start(listener.capture());
+        return listener.getValue();
+    }
+
+    /**
+     * BUS-01: Test invalidations are published with the node id.
+     */
+    @Test
+    void testPublishSendsKeyWithNodeId() {
+        // Act
+        cacheInvalidationBus.publish("public-board", 7L);
+        cacheInvalidationBus.publish("public-board", null);
+
+        // Assert
+        String nodeId = (String) cacheInvalidationBus.getStats().get("nodeId");
+        verify(transport).publish(nodeId, "public-board", "7");
+        verify(transport).publish(nodeId, "public-board", null);
+        assertEquals(2L, cacheInvalidationBus.getStats().get("published"));
+    }
+
+    /**
+     * BUS-02: Test only invalidations of other nodes are applied.
+     */
+    @Test
+    void testReceiveAppliesOtherNodesInvalidationsOnly() {
+        // Arrange
+        List<String> evicted = new ArrayList<>();
+        cacheInvalidationBus.subscribe("user-directory", evicted::add);
+        Consumer<CacheInvalidationTransport.Message> listener = startAndCaptureListener();
+        String nodeId = (String) cacheInvalidationBus.getStats().get("nodeId");
+
+        // Act
+        listener.accept(new CacheInvalidationTransport.Message(nodeId, "user-directory", "1", LocalDateTime.now()));
+        listener.accept(new CacheInvalidationTransport.Message("other", "user-directory", "2", LocalDateTime.now().minusSeconds(1)));
+        listener.accept(new CacheInvalidationTransport.Message("other", "user-directory", null, LocalDateTime.now()));
+        listener.accept(new CacheInvalidationTransport.Message("other", "unknown", "3", LocalDateTime.now()));
+
+        // Assert
+        assertEquals(Arrays.asList("2", null), evicted);
+        Map<String, Object> stats = cacheInvalidationBus.getStats();
+        assertEquals(3L, stats.get("received"));
+        assertEquals(1L, stats.get("unknownCache"));
+        assertTrue((Long) stats.get("lagMillisMax") >= 1000);
+    }
+
+    /**
+     * BUS-03: Test a failing handler does not stop delivery.
+     */
+    @Test
+    void testFailingHandlerDoesNotStopDelivery() {
+        // Arrange
+        cacheInvalidationBus.subscribe("public-board", key -> Long.valueOf(key));
+        Consumer<CacheInvalidationTransport.Message> listener = startAndCaptureListener();
+
+        // Act
+        listener.accept(new CacheInvalidationTransport.Message("other", "public-board", "not-a-number", LocalDateTime.now()));
+        listener.accept(new CacheInvalidationTransport.Message("other", "public-board", "5", LocalDateTime.now()));
+
+        // Assert
+        assertEquals(1L, cacheInvalidationBus.getStats().get("failed"));
+        assertEquals(2L, cacheInvalidationBus.getStats().get("received"));
+    }
+
+    /**
+     * BUS-04: Test evictions are applied again after the replica lag.
+     */
+    @Test
+    void testEvictionsAreReappliedAfterReplicaLag() throws InterruptedException {
+        // Arrange
+        // Long enough that nothing is reapplied before the first assertion on a slow machine
+        when(readWriteRoutingDataSource.getMaxLagMillis()).thenReturn(500L);
+        List<String> evicted = new CopyOnWriteArrayList<>();
+        cacheInvalidationBus.subscribe("user-directory", evicted::add);
+        Consumer<CacheInvalidationTransport.Message> listener = startAndCaptureListener();
+
+        // Act
+        cacheInvalidationBus.publish("user-directory", 1L);
+        listener.accept(new CacheInvalidationTransport.Message("other", "user-directory", "2", LocalDateTime.now()));
+        assertEquals(List.of("2"), evicted);
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 5000;
+        while (evicted.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("1", "2"), evicted.subList(1, 3).stream().sorted().toList());
+        assertEquals(2L, cacheInvalidationBus.getStats().get("reapplied"));
+        cacheInvalidationBus.stop();
+    }
+
+    /**
+     * BUS-04 (variant): Test evictions are not applied again without a replica.
+     */
+    @Test
+    void testEvictionsAreNotReappliedWithoutReplica() {
+        // Arrange
+        List<String> evicted = new ArrayList<>();
+        cacheInvalidationBus.subscribe("user-directory", evicted::add);
+
+        // Act
+        cacheInvalidationBus.publish("user-directory", 1L);
+
+        // Assert
+        assertTrue(evicted.isEmpty());
+        assertEquals(0L, cacheInvalidationBus.getStats().get("reapplied"));
+    }
+
+    /**
+     * BUS-05: Test a local eviction is repeated after the transaction and published once.
+     */
+    @Test
+    void testEvictLocallyAndPublishEvictsAgainAfterTransaction() {
+        // Arrange
+        AtomicInteger evictions = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cacheInvalidationBus.evictLocallyAndPublish("user-directory", 5L, evictions::incrementAndGet);
+            int beforeCompletion = evictions.get();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            // Assert
+            assertEquals(1, beforeCompletion);
+            assertEquals(2, evictions.get());
+            String nodeId = (String) cacheInvalidationBus.getStats().get("nodeId");
+            verify(transport).publish(nodeId, "user-directory", "5");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.openflow.service;
+
+import com.openflow.dto.ChangeLogDto;
+import com.openflow.model.ChangeLog;
+import com.openflow.repository.ChangeLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChangeLogService field-change coalescing and delta encoding.
+ * Covers change log test cases: LOG-01 to LOG-06.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChangeLogServiceTest {
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @InjectMocks
+    private ChangeLogService changeLogService;
+
+    private final Long taskId = 1L;
+    private final Long userId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(changeLogService, "coalesceWindowSeconds", 30L);
+        ReflectionTestUtils.setField(changeLogService, "deltaMinLength", 64);
+        ReflectionTestUtils.setField(changeLogService, "deltaSnapshotInterval", 10);
+    }
+
+    private ChangeLog existingEntry(Long authorId, LocalDateTime createdAt) {
+        ChangeLog log = ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, authorId,
+            "description", "original", "draft");
+        log.setId(10L);
+        log.setCreatedAt(createdAt);
+        return log;
+    }
+
+    /**
+     * LOG-01: Test a field change without a recent edit creates a new entry.
+     */
+    @Test
+    void testLogFieldChangeCreatesEntryWhenNoRecentEdit() {
+        // Arrange
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.empty());
+        when(changeLogRepository.save(any(ChangeLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", "original", "draft");
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("original", result.getOldValue());
+        assertEquals("draft", result.getNewValue());
+        assertNull(result.getId());
+    }
+
+    /**
+     * LOG-02: Test an edit by the same user within the window is merged into the latest entry.
+     */
+    @Test
+    void testLogFieldChangeCoalescesEditWithinWindow() {
+        // Arrange
+        ChangeLog existing = existingEntry(userId, LocalDateTime.now().minusSeconds(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.of(existing));
+        when(changeLogRepository.save(existing)).thenReturn(existing);
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", "draft", "final");
+
+        // Assert
+        assertSame(existing, result);
+        assertEquals("original", result.getOldValue());
+        assertEquals("final", result.getNewValue());
+        assertNotNull(result.getUpdatedAt());
+    }
+
+    /**
+     * LOG-02 (variant): Test an edit by another user is not merged.
+     */
+    @Test
+    void testLogFieldChangeDoesNotCoalesceOtherUsersEdit() {
+        // Arrange
+        ChangeLog existing = existingEntry(2L, LocalDateTime.now().minusSeconds(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.of(existing));
+        when(changeLogRepository.save(any(ChangeLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", "draft", "final");
+
+        // Assert
+        assertNotSame(existing, result);
+        assertEquals("draft", result.getOldValue());
+        assertEquals("draft", existing.getNewValue());
+    }
+
+    /**
+     * LOG-02 (variant): Test an edit after the window is not merged.
+     */
+    @Test
+    void testLogFieldChangeDoesNotCoalesceOutsideWindow() {
+        // Arrange
+        ChangeLog existing = existingEntry(userId, LocalDateTime.now().minusMinutes(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.of(existing));
+        when(changeLogRepository.save(any(ChangeLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", "draft", "final");
+
+        // Assert
+        assertNotSame(existing, result);
+        assertEquals("draft", result.getOldValue());
+    }
+
+    /**
+     * LOG-02 (variant): Test an edit back to the original value drops the entry.
+     */
+    @Test
+    void testLogFieldChangeDropsEntryWhenEditIsReverted() {
+        // Arrange
+        ChangeLog existing = existingEntry(userId, LocalDateTime.now().minusSeconds(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.of(existing));
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", "draft", "original");
+
+        // Assert
+        assertNull(result);
+        verify(changeLogRepository).delete(existing);
+        verify(changeLogRepository, never()).save(any(ChangeLog.class));
+    }
+
+    /**
+     * LOG-02 (variant): Test access grants are never merged.
+     */
+    @Test
+    void testLogFieldChangeNeverCoalescesAccessGrants() {
+        // Arrange
+        ChangeLog existing = ChangeLog.fieldChange(ChangeLogService.ENTITY_BOARD, 1L, userId,
+            "access", "granted", "READ to alice");
+        existing.setId(10L);
+        existing.setCreatedAt(LocalDateTime.now().minusSeconds(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_BOARD, 1L, "access")).thenReturn(Optional.of(existing));
+        when(changeLogRepository.save(any(ChangeLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_BOARD, 1L, userId,
+            "access", "granted", "WRITE to bob");
+
+        // Assert
+        assertNotSame(existing, result);
+        assertEquals("READ to alice", existing.getNewValue());
+    }
+
+    /**
+     * LOG-03: Test long text is stored as patches against the previous entry.
+     */
+    @Test
+    void testLogFieldChangeDeltaEncodesLongText() {
+        // Arrange
+        String original = "x".repeat(200);
+        String edited = "x".repeat(100) + "y" + "x".repeat(100);
+        ChangeLog base = ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, 2L,
+            "description", null, original);
+        base.setId(10L);
+        base.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.of(base));
+        when(changeLogRepository.save(any(ChangeLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", original, edited);
+
+        // Assert
+        assertTrue(result.isDeltaEncoded());
+        assertEquals(10L, result.getBaseId());
+        assertEquals(10L, result.getSnapshotId());
+        assertTrue(result.getOldValue().length() + result.getNewValue().length() < 20);
+    }
+
+    /**
+     * LOG-04: Test task history reconstructs delta-encoded values.
+     */
+    @Test
+    void testGetTaskHistoryReconstructsDeltaEncodedValues() {
+        // Arrange
+        String original = "x".repeat(200);
+        String edited = "x".repeat(100) + "y" + "x".repeat(100);
+        ChangeLog snapshot = ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", null, original);
+        snapshot.setId(10L);
+        ChangeLog delta = ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", TextDelta.diff(original, original), TextDelta.diff(original, edited));
+        delta.setId(11L);
+        delta.setBaseId(10L);
+        delta.setSnapshotId(10L);
+        when(changeLogRepository.findTop50ByEntityTypeAndEntityIdOrderByCreatedAtDesc(ChangeLogService.ENTITY_TASK, taskId))
+            .thenReturn(List.of(delta));
+        when(changeLogRepository.findByEntityTypeAndEntityIdAndFieldNameAndIdBetweenOrderByIdAsc(
+            ChangeLogService.ENTITY_TASK, taskId, "description", 10L, 11L)).thenReturn(List.of(snapshot, delta));
+
+        // Act
+        List<ChangeLogDto> history = changeLogService.getTaskHistory(taskId);
+
+        // Assert
+        assertEquals(1, history.size());
+        assertEquals(original, history.get(0).getOldValue());
+        assertEquals(edited, history.get(0).getNewValue());
+    }
+
+    /**
+     * LOG-05: Test a batch of field changes is inserted at once and merged with recent edits.
+     */
+    @Test
+    void testLogFieldChangesBatchesInsertsAndCoalescesRecentEdits() {
+        // Arrange
+        ChangeLog recent = existingEntry(userId, LocalDateTime.now().minusSeconds(5));
+        recent.setFieldName("custom:Priority");
+        when(changeLogRepository.findLatestByFieldNames(eq(ChangeLogService.ENTITY_TASK), eq(taskId), anyCollection()))
+            .thenReturn(List.of(recent));
+
+        // Act
+        List<ChangeLog> result = changeLogService.logFieldChanges(List.of(
+            ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, userId, "custom:Priority", "draft", "High"),
+            ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, userId, "custom:Estimate", null, "3"),
+            ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, userId, "custom:Owner", "bob", "bob")));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("original", recent.getOldValue());
+        assertEquals("High", recent.getNewValue());
+        verify(changeLogRepository).saveAll(List.of(recent));
+        verify(changeLogRepository).insertAll(argThat(inserts ->
+            inserts.size() == 1 && "custom:Estimate".equals(inserts.get(0).getFieldName())));
+        verify(changeLogRepository, never()).save(any(ChangeLog.class));
+    }
+
+    /**
+     * LOG-06: Test a full rewrite at the maximum length is stored in full, since its patch would
+     * not fit the column.
+     */
+    @Test
+    void testLogFieldChangeStoresFullRewriteAtMaxLengthInFull() {
+        // Arrange
+        String original = "x".repeat(ChangeLog.VALUE_LENGTH);
+        String rewritten = "y".repeat(ChangeLog.VALUE_LENGTH);
+        ChangeLog base = ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, 2L,
+            "description", null, original);
+        base.setId(10L);
+        base.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.of(base));
+        when(changeLogRepository.save(any(ChangeLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", original, rewritten);
+
+        // Assert
+        assertFalse(result.isDeltaEncoded());
+        assertEquals(original, result.getOldValue());
+        assertEquals(rewritten, result.getNewValue());
+    }
+
+    /**
+     * LOG-06 (variant): Test a full rewrite merged into a delta-encoded entry switches the entry
+     * back to full values.
+     */
+    @Test
+    void testLogFieldChangeCoalescesFullRewriteIntoDeltaEntryInFull() {
+        // Arrange
+        String original = "x".repeat(ChangeLog.VALUE_LENGTH);
+        String edited = "x".repeat(500) + "y" + "x".repeat(ChangeLog.VALUE_LENGTH - 500);
+        String rewritten = "z".repeat(ChangeLog.VALUE_LENGTH);
+        ChangeLog snapshot = ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, 2L,
+            "description", null, original);
+        snapshot.setId(10L);
+        ChangeLog delta = ChangeLog.fieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", TextDelta.diff(original, original), TextDelta.diff(original, edited));
+        delta.setId(11L);
+        delta.setBaseId(10L);
+        delta.setSnapshotId(10L);
+        delta.setCreatedAt(LocalDateTime.now().minusSeconds(5));
+        when(changeLogRepository.findFirstByEntityTypeAndEntityIdAndFieldNameOrderByIdDesc(
+            ChangeLogService.ENTITY_TASK, taskId, "description")).thenReturn(Optional.of(delta));
+        when(changeLogRepository.findByEntityTypeAndEntityIdAndFieldNameAndIdBetweenOrderByIdAsc(
+            ChangeLogService.ENTITY_TASK, taskId, "description", 10L, 11L)).thenReturn(List.of(snapshot, delta));
+        when(changeLogRepository.save(delta)).thenReturn(delta);
+
+        // Act
+        ChangeLog result = changeLogService.logFieldChange(ChangeLogService.ENTITY_TASK, taskId, userId,
+            "description", edited, rewritten);
+
+        // Assert
+        assertSame(delta, result);
+        assertFalse(result.isDeltaEncoded());
+        assertNull(result.getSnapshotId());
+        assertEquals(original, result.getOldValue());
+        assertEquals(rewritten, result.getNewValue());
+    }
+}
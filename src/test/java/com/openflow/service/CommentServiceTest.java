@@ -1,6 +1,8 @@
 package com.openflow.service;
 
 import com.openflow.dto.CommentDto;
+import com.openflow.dto.CommentPageDto;
+import com.openflow.dto.UserSummary;
 import com.openflow.model.Comment;
 import com.openflow.model.Role;
 import com.openflow.model.User;
@@ -12,11 +14,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +40,9 @@ class CommentServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserDirectory userDirectory;
+
     @Mock
     private ChangeLogService changeLogService;
 
@@ -41,6 +50,7 @@ class CommentServiceTest {
     private CommentService commentService;
 
     private User testUser;
+    private UserSummary testUserSummary;
     private Comment testComment;
     private CommentDto testCommentDto;
 
@@ -50,6 +60,7 @@ class CommentServiceTest {
         testUser.setId(1L);
         testUser.setUsername("testuser");
         testUser.setRole(Role.USER);
+        testUserSummary = new UserSummary(1L, "testuser", "testuser@example.com", null, null);
 
         testComment = new Comment();
         testComment.setId(1L);
@@ -73,7 +84,7 @@ class CommentServiceTest {
 
         when(taskService.getTaskById(taskId, userId)).thenReturn(null); // Mock validation
         when(commentRepository.findByTaskIdOrderByCreatedAtAsc(taskId)).thenReturn(comments);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userDirectory.resolveAll(Set.of(1L))).thenReturn(Map.of(1L, testUserSummary));
 
         // Act
         List<CommentDto> result = commentService.getCommentsByTaskId(taskId, userId);
@@ -82,8 +93,40 @@ class CommentServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Test comment", result.get(0).getContent());
+        assertEquals("testuser", result.get(0).getUsername());
         verify(taskService).getTaskById(taskId, userId);
         verify(commentRepository).findByTaskIdOrderByCreatedAtAsc(taskId);
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetCommentsPage_NewestFirstReturnsCursor() {
+        // Arrange
+        Long taskId = 1L;
+        Long userId = 1L;
+        List<Comment> comments = new ArrayList<>();
+        for (long id = 30; id > 27; id--) {
+            Comment comment = new Comment();
+            comment.setId(id);
+            comment.setTaskId(taskId);
+            comment.setUserId(1L);
+            comment.setContent("Comment " + id);
+            comments.add(comment);
+        }
+
+        when(taskService.getTaskById(taskId, userId)).thenReturn(null); // Mock validation
+        when(commentRepository.findByTaskIdAndIdLessThanOrderByIdDesc(taskId, 31L, PageRequest.of(0, 3)))
+            .thenReturn(comments);
+        when(userDirectory.resolveAll(Set.of(1L))).thenReturn(Map.of(1L, testUserSummary));
+
+        // Act
+        CommentPageDto result = commentService.getCommentsPage(taskId, userId, 31L, 2, true);
+
+        // Assert
+        assertEquals(2, result.getComments().size());
+        assertEquals(30L, result.getComments().get(0).getId());
+        assertTrue(result.isHasMore());
+        assertEquals(29L, result.getNextCursor());
     }
 
     @Test
@@ -92,7 +135,7 @@ class CommentServiceTest {
         Long userId = 1L;
         when(taskService.getTaskById(any(), any())).thenReturn(null); // Mock validation
         when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userDirectory.resolve(userId)).thenReturn(Optional.of(testUserSummary));
 
         // Act
         CommentDto result = commentService.createComment(testCommentDto, userId);
@@ -100,6 +143,7 @@ class CommentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Test comment", result.getContent());
+        assertEquals("testuser", result.getUsername());
         verify(commentRepository).save(any(Comment.class));
         verify(changeLogService).logCreate(anyString(), anyLong(), anyLong());
     }
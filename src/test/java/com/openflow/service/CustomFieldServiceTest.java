@@ -0,0 +1,278 @@
+package com.openflow.service;
+
+import com.openflow.dto.CustomFieldDefinitionDto;
+import com.openflow.dto.CustomFieldValueDto;
+import com.openflow.model.ChangeLog;
+import com.openflow.model.CustomFieldDefinition;
+import com.openflow.model.CustomFieldValue;
+import com.openflow.model.FieldType;
+import com.openflow.repository.CustomFieldDefinitionRepository;
+import com.openflow.repository.CustomFieldValueRepository;
+import com.openflow.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for custom field definitions and values.
+ * Covers custom field test cases: CUSTOMFIELD-01 to CUSTOMFIELD-04.
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomFieldServiceTest {
+
+    @Mock
+    private CustomFieldDefinitionRepository definitionRepository;
+
+    @Mock
+    private CustomFieldValueRepository valueRepository;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus();
+
+    @InjectMocks
+    private CustomFieldService customFieldService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(customFieldService, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(customFieldService, "maxEntries", 100);
+    }
+
+    private static CustomFieldDefinition definition(Long id, Long boardId, String name, boolean showInCard) {
+        CustomFieldDefinition definition = new CustomFieldDefinition();
+        definition.setId(id);
+        definition.setBoardId(boardId);
+        definition.setName(name);
+        definition.setFieldType(FieldType.TEXT);
+        definition.setDisplayOrder(id.intValue());
+        definition.setShowInCard(showInCard);
+        return definition;
+    }
+
+    private static CustomFieldValue value(Long taskId, Long definitionId, String text) {
+        CustomFieldValue value = new CustomFieldValue();
+        value.setTaskId(taskId);
+        value.setFieldDefinitionId(definitionId);
+        value.setValue(text);
+        return value;
+    }
+
+    /**
+     * CUSTOMFIELD-01: Test a board's definitions are loaded once and served from the cache.
+     */
+    @Test
+    void testBoardDefinitionsAreServedFromCache() {
+        // Arrange
+        when(definitionRepository.findByBoardIdOrderByDisplayOrderAsc(2L))
+                .thenReturn(List.of(definition(10L, 2L, "Estimate", true)));
+
+        // Act
+        List<CustomFieldDefinitionDto> first = customFieldService.getFieldDefinitions(2L, 1L);
+        first.get(0).setName("changed by caller");
+        List<CustomFieldDefinitionDto> second = customFieldService.getFieldDefinitions(2L, 1L);
+        customFieldService.getTasksVisibleFieldValues(List.of(), 2L);
+
+        // Assert
+        assertEquals("Estimate", second.get(0).getName());
+        verify(definitionRepository, times(1)).findByBoardIdOrderByDisplayOrderAsc(2L);
+    }
+
+    /**
+     * CUSTOMFIELD-02: Test changing a definition evicts the board's definitions.
+     */
+    @Test
+    void testCreateEvictsBoardDefinitions() {
+        // Arrange
+        CustomFieldDefinition estimate = definition(10L, 2L, "Estimate", false);
+        CustomFieldDefinition owner = definition(11L, 2L, "Owner", false);
+        when(definitionRepository.findByBoardIdOrderByDisplayOrderAsc(2L))
+                .thenReturn(List.of(estimate), List.of(estimate, owner));
+        when(definitionRepository.save(any(CustomFieldDefinition.class))).thenReturn(owner);
+        CustomFieldDefinitionDto dto = new CustomFieldDefinitionDto();
+        dto.setBoardId(2L);
+        dto.setName("Owner");
+        dto.setFieldType(FieldType.TEXT);
+
+        // Act
+        assertEquals(1, customFieldService.getFieldDefinitions(2L, 1L).size());
+        customFieldService.createFieldDefinition(dto, 1L);
+        List<CustomFieldDefinitionDto> definitions = customFieldService.getFieldDefinitions(2L, 1L);
+
+        // Assert
+        assertEquals(List.of("Estimate", "Owner"), definitions.stream().map(CustomFieldDefinitionDto::getName).toList());
+        verify(definitionRepository, times(2)).findByBoardIdOrderByDisplayOrderAsc(2L);
+        verify(cacheInvalidationBus).publish(CustomFieldService.CACHE_NAME, 2L);
+    }
+
+    /**
+     * CUSTOMFIELD-02 (variant): Test the least recently used board is dropped once the cache is full.
+     */
+    @Test
+    void testLeastRecentlyUsedBoardIsDroppedWhenFull() {
+        // Arrange
+        ReflectionTestUtils.setField(customFieldService, "maxEntries", 2);
+        when(definitionRepository.findByBoardIdOrderByDisplayOrderAsc(any())).thenReturn(List.of());
+
+        // Act
+        customFieldService.getFieldDefinitions(1L, 1L);
+        customFieldService.getFieldDefinitions(2L, 1L);
+        customFieldService.getFieldDefinitions(1L, 1L);
+        customFieldService.getFieldDefinitions(3L, 1L);
+        customFieldService.getFieldDefinitions(1L, 1L);
+        customFieldService.getFieldDefinitions(2L, 1L);
+
+        // Assert
+        verify(definitionRepository, times(1)).findByBoardIdOrderByDisplayOrderAsc(1L);
+        verify(definitionRepository, times(2)).findByBoardIdOrderByDisplayOrderAsc(2L);
+        verify(definitionRepository, times(1)).findByBoardIdOrderByDisplayOrderAsc(3L);
+    }
+
+    /**
+     * CUSTOMFIELD-02 (variant): Test expired definitions are loaded again.
+     */
+    @Test
+    void testExpiredBoardDefinitionsAreReloaded() {
+        // Arrange
+        ReflectionTestUtils.setField(customFieldService, "ttlMinutes", 0L);
+        when(definitionRepository.findByBoardIdOrderByDisplayOrderAsc(2L)).thenReturn(List.of());
+
+        // Act
+        customFieldService.getFieldDefinitions(2L, 1L);
+        customFieldService.getFieldDefinitions(2L, 1L);
+
+        // Assert
+        verify(definitionRepository, times(2)).findByBoardIdOrderByDisplayOrderAsc(2L);
+    }
+
+    /**
+     * CUSTOMFIELD-02 (variant): Test definitions evicted while they were loaded are not cached.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDefinitionsEvictedWhileLoadingAreNotCached() {
+        // Arrange
+        customFieldService.init();
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).subscribe(eq(CustomFieldService.CACHE_NAME), handler.capture());
+        when(definitionRepository.findByBoardIdOrderByDisplayOrderAsc(2L)).thenAnswer(invocation -> {
+            handler.getValue().accept("2");
+            return List.of();
+        });
+
+        // Act
+        customFieldService.getFieldDefinitions(2L, 1L);
+        customFieldService.getFieldDefinitions(2L, 1L);
+
+        // Assert
+        verify(definitionRepository, times(2)).findByBoardIdOrderByDisplayOrderAsc(2L);
+    }
+
+    /**
+     * CUSTOMFIELD-03: Test visible values of many tasks are loaded with one query for the card fields.
+     */
+    @Test
+    void testVisibleFieldValuesForManyTasks() {
+        // Arrange
+        when(definitionRepository.findByBoardIdOrderByDisplayOrderAsc(2L)).thenReturn(List.of(
+                definition(10L, 2L, "Estimate", true),
+                definition(11L, 2L, "Notes", false),
+                definition(12L, 2L, "Owner", true)));
+        when(valueRepository.findByTaskIdInAndFieldDefinitionIdIn(List.of(5L, 6L), List.of(10L, 12L)))
+                .thenReturn(List.of(value(5L, 10L, "3"), value(5L, 12L, "alice"), value(6L, 12L, "bob")));
+
+        // Act
+        Map<Long, List<CustomFieldValueDto>> values = customFieldService.getTasksVisibleFieldValues(List.of(5L, 6L, 5L), 2L);
+
+        // Assert
+        assertEquals(List.of(5L, 6L), List.copyOf(values.keySet()));
+        assertEquals(List.of("3", "alice"), values.get(5L).stream().map(CustomFieldValueDto::getValue).toList());
+        assertEquals(List.of("", "bob"), values.get(6L).stream().map(CustomFieldValueDto::getValue).toList());
+        assertEquals(List.of("Estimate", "Owner"), values.get(6L).stream().map(CustomFieldValueDto::getFieldName).toList());
+        verify(definitionRepository, times(1)).findByBoardIdOrderByDisplayOrderAsc(2L);
+    }
+
+    /**
+     * CUSTOMFIELD-04: Test only changed values are upserted and their changes logged.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSetFieldValuesUpsertsChangedValuesOnly() {
+        // Arrange
+        CustomFieldDefinition first = definition(10L, 2L, "Notes", false);
+        CustomFieldDefinition second = definition(11L, 2L, "Estimate", false);
+        CustomFieldDefinition unchanged = definition(12L, 2L, "Owner", false);
+        Map<Long, String> fieldValues = new LinkedHashMap<>();
+        fieldValues.put(10L, "new");
+        fieldValues.put(11L, "other");
+        fieldValues.put(12L, "alice");
+        CustomFieldValue existingFirst = value(5L, 10L, "old");
+        existingFirst.setId(100L);
+        CustomFieldValue existingOwner = value(5L, 12L, "alice");
+        existingOwner.setId(101L);
+        CustomFieldValue insertedSecond = value(5L, 11L, "other");
+        insertedSecond.setId(102L);
+        when(definitionRepository.findAllById(fieldValues.keySet())).thenReturn(List.of(first, second, unchanged));
+        when(valueRepository.findByTaskIdAndFieldDefinitionIdIn(5L, fieldValues.keySet()))
+                .thenReturn(List.of(existingFirst, existingOwner));
+        when(valueRepository.findByTaskIdAndFieldDefinitionIdIn(5L, List.of(11L))).thenReturn(List.of(insertedSecond));
+
+        // Act
+        List<CustomFieldValueDto> result = customFieldService.setFieldValues(5L, fieldValues, 1L);
+
+        // Assert
+        ArgumentCaptor<List<CustomFieldValue>> upserted = ArgumentCaptor.forClass(List.class);
+        verify(valueRepository).upsertAll(upserted.capture());
+        assertEquals(List.of(10L, 11L), upserted.getValue().stream().map(CustomFieldValue::getFieldDefinitionId).toList());
+
+        ArgumentCaptor<List<ChangeLog>> changes = ArgumentCaptor.forClass(List.class);
+        verify(changeLogService).logFieldChanges(changes.capture());
+        assertEquals(List.of("custom:Notes", "custom:Estimate"), changes.getValue().stream().map(ChangeLog::getFieldName).toList());
+        assertEquals("old", changes.getValue().get(0).getOldValue());
+        assertNull(changes.getValue().get(1).getOldValue());
+
+        assertEquals(List.of(100L, 102L, 101L), result.stream().map(CustomFieldValueDto::getId).toList());
+        assertEquals(List.of("new", "other", "alice"), result.stream().map(CustomFieldValueDto::getValue).toList());
+    }
+
+    /**
+     * CUSTOMFIELD-04 (variant): Test an unknown definition is rejected before anything is written.
+     */
+    @Test
+    void testSetFieldValuesRejectsUnknownDefinition() {
+        // Arrange
+        when(definitionRepository.findAllById(Set.of(10L, 99L))).thenReturn(List.of(definition(10L, 2L, "Notes", false)));
+
+        // Act & Assert
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> customFieldService.setFieldValues(5L, Map.of(10L, "a", 99L, "b"), 1L));
+        assertEquals("Custom field definition not found", e.getMessage());
+        verify(valueRepository, never()).upsertAll(any());
+        verifyNoInteractions(changeLogService);
+    }
+}
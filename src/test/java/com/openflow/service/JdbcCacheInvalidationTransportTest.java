@@ -0,0 +1,125 @@
+package com.openflow.service;
+
+import com.openflow.model.CacheInvalidation;
+import com.openflow.repository.CacheInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for polling invalidations from the cache_invalidation table.
+ * Covers invalidation transport test cases: TRANSPORT-01 to TRANSPORT-03.
+ */
+@ExtendWith(MockitoExtension.class)
+class JdbcCacheInvalidationTransportTest {
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @InjectMocks
+    private JdbcCacheInvalidationTransport transport;
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final List<CacheInvalidationTransport.Message> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transport, "overlapSeconds", 30L);
+        // Every poll scans the overlap unless a test sets an interval
+        ReflectionTestUtils.setField(transport, "overlapScanIntervalMs", 0L);
+        ReflectionTestUtils.setField(transport, "batchSize", 2);
+        ReflectionTestUtils.setField(transport, "listener",
+                (Consumer<CacheInvalidationTransport.Message>) delivered::add);
+        ReflectionTestUtils.setField(transport, "watermark", start);
+    }
+
+    private CacheInvalidation row(long id, String key, LocalDateTime createdAt) {
+        return new CacheInvalidation(id, "public-board", key, "node-a", createdAt);
+    }
+
+    /**
+     * TRANSPORT-01: Test polling pages through rows and skips delivered ones.
+     */
+    @Test
+    void testPollPagesThroughRowsAndSkipsDeliveredOnes() {
+        // Arrange
+        CacheInvalidation first = row(1L, "1", start.plusSeconds(1));
+        CacheInvalidation second = row(2L, "2", start.plusSeconds(2));
+        CacheInvalidation third = row(3L, "3", start.plusSeconds(3));
+        when(cacheInvalidationRepository.findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(start.minusSeconds(30), PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+        when(cacheInvalidationRepository.findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(start.plusSeconds(2), PageRequest.of(0, 2)))
+                .thenReturn(List.of(second, third));
+        when(cacheInvalidationRepository.findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(start.plusSeconds(3), PageRequest.of(0, 2)))
+                .thenReturn(List.of(third));
+
+        // Act
+        transport.poll();
+
+        // Assert
+        assertEquals(List.of("1", "2", "3"), delivered.stream().map(CacheInvalidationTransport.Message::key).toList());
+        assertEquals(start.plusSeconds(3), ReflectionTestUtils.getField(transport, "watermark"));
+    }
+
+    /**
+     * TRANSPORT-02: Test late commits within the overlap are delivered once.
+     */
+    @Test
+    void testPollDeliversLateCommitsWithinOverlapOnce() {
+        // Arrange
+        CacheInvalidation early = row(5L, "5", start.plusSeconds(10));
+        CacheInvalidation lateCommit = row(4L, "4", start.plusSeconds(5));
+        when(cacheInvalidationRepository.findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(early))
+                .thenReturn(List.of(lateCommit, early));
+
+        // Act
+        transport.poll();
+        transport.poll();
+
+        // Assert
+        assertEquals(List.of("5", "4"), delivered.stream().map(CacheInvalidationTransport.Message::key).toList());
+        verify(cacheInvalidationRepository).findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(
+                start.plusSeconds(10).minusSeconds(30), PageRequest.of(0, 2));
+    }
+
+    /**
+     * TRANSPORT-03: Test polls between overlap scans only read rows after the last delivered id.
+     */
+    @Test
+    void testPollBetweenOverlapScansReadsAfterLastId() {
+        // Arrange
+        ReflectionTestUtils.setField(transport, "overlapScanIntervalMs", 60_000L);
+        CacheInvalidation first = row(7L, "7", start.plusSeconds(1));
+        CacheInvalidation next = row(8L, "8", start.plusSeconds(2));
+        when(cacheInvalidationRepository.findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(first));
+        when(cacheInvalidationRepository.findByIdGreaterThanAndCreatedAtGreaterThanEqualOrderByIdAsc(7L,
+                start.plusSeconds(1).minusSeconds(30), PageRequest.of(0, 2)))
+                .thenReturn(List.of(next));
+
+        // Act
+        transport.poll();
+        transport.poll();
+
+        // Assert
+        assertEquals(List.of("7", "8"), delivered.stream().map(CacheInvalidationTransport.Message::key).toList());
+        verify(cacheInvalidationRepository, times(1)).findByCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(any(), any());
+        assertEquals(8L, ReflectionTestUtils.getField(transport, "lastId"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.openflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for keyset cursors and LIKE prefix patterns.
+ * Covers keyset cursor test cases: CURSOR-01 to CURSOR-02.
+ */
+class KeysetCursorTest {
+
+    /**
+     * CURSOR-01: Test a cursor round-trips the id and the database's sort name unchanged.
+     */
+    @Test
+    void testCursorRoundTripsIdAndSortName() {
+        // Arrange
+        String cursor = KeysetCursor.encode(42L, "i̇stanbul: roadmap");
+
+        // Act
+        KeysetCursor.Position position = KeysetCursor.decode(cursor);
+
+        // Assert
+        assertEquals(new KeysetCursor.Position(42L, "i̇stanbul: roadmap"), position);
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(KeysetCursor.encode(null, "name")));
+    }
+
+    /**
+     * CURSOR-02: Test LIKE wildcards in a query match literally.
+     */
+    @Test
+    void testLikePrefixEscapesWildcards() {
+        // Act & Assert
+        assertEquals("road!_map!%!!%", KeysetCursor.likePrefix(" Road_Map%! "));
+        assertEquals("%", KeysetCursor.likePrefix(null));
+    }
+}
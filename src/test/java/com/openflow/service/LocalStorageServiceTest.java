@@ -0,0 +1,152 @@
+package com.openflow.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the filesystem storage backend.
+ * Covers local storage test cases: STORAGE-01 to STORAGE-05.
+ */
+class LocalStorageServiceTest {
+
+    @TempDir
+    Path rootDir;
+
+    private LocalStorageService storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalStorageService();
+        ReflectionTestUtils.setField(storage, "rootDir", rootDir.toString());
+        ReflectionTestUtils.setField(storage, "signingSecret", "test-secret");
+        ReflectionTestUtils.setField(storage, "downloadUrlMinutes", 60L);
+        ReflectionTestUtils.setField(storage, "downloadUrlGranularityMinutes", 15L);
+        storage.init();
+    }
+
+    /**
+     * STORAGE-01: Test a streamed file is written and reported by stat.
+     */
+    @Test
+    void testStoreStreamWritesFileAndStatReportsIt() throws Exception {
+        // Arrange
+        byte[] content = "hello local storage".getBytes(StandardCharsets.UTF_8);
+        String key = storage.newTaskFileKey(1L, "notes.txt");
+
+        // Act
+        long size = storage.storeStream(key, new ByteArrayInputStream(content), "text/plain", Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(content.length, size);
+        assertArrayEquals(content, Files.readAllBytes(storage.getFile(key)));
+        StorageBackend.StoredObject object = storage.stat(key).orElseThrow();
+        assertEquals(content.length, object.size());
+        assertTrue(object.eTag().startsWith("\"") && object.eTag().endsWith("\""));
+    }
+
+    /**
+     * STORAGE-01 (variant): Test a body over the limit is rejected without leaving a file.
+     */
+    @Test
+    void testStoreStreamRejectsBodyOverLimitAndLeavesNoFile() throws Exception {
+        // Arrange
+        String key = storage.newTaskFileKey(1L, "big.bin");
+
+        // Act
+        assertThrows(RuntimeException.class, () -> storage.storeStream(key,
+                new ByteArrayInputStream(new byte[1024]), "application/octet-stream", 100));
+
+        // Assert
+        assertTrue(storage.stat(key).isEmpty());
+        try (var files = Files.list(storage.getFile(key).getParent())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * STORAGE-02: Test deleting a file removes it.
+     */
+    @Test
+    void testDeleteFileRemovesObject() throws Exception {
+        // Arrange
+        String key = storage.newProfilePictureKey(2L, "avatar.png");
+        storage.store(key, new ByteArrayInputStream(new byte[] {1, 2, 3}), 3, "image/png");
+
+        // Act
+        storage.deleteFile(key);
+
+        // Assert
+        assertTrue(storage.stat(key).isEmpty());
+    }
+
+    /**
+     * STORAGE-03: Test keys cannot point outside the root directory.
+     */
+    @Test
+    void testKeysCannotEscapeRootDirectory() {
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> storage.stat("../outside.txt"));
+        assertThrows(RuntimeException.class, () -> storage.storeStream("tasks/../../outside.txt",
+                new ByteArrayInputStream(new byte[1]), "text/plain", 10));
+    }
+
+    /**
+     * STORAGE-04: Test download URLs are signed and stable within a signing window.
+     */
+    @Test
+    void testDownloadUrlIsSignedAndStableWithinWindow() {
+        // Arrange
+        String key = "tasks/1/file.txt";
+
+        // Act
+        String first = storage.getDownloadUrl(key);
+        String second = storage.getDownloadUrl(key);
+
+        // Assert
+        assertEquals(first, second);
+        UriComponents url = UriComponentsBuilder.fromUriString(first).build();
+        assertEquals(LocalStorageService.DOWNLOAD_PATH, url.getPath());
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+        assertTrue(storage.isValidSignature(key, expires, signature));
+        assertFalse(storage.isValidSignature("tasks/1/other.txt", expires, signature));
+        assertFalse(storage.isValidSignature(key, expires + 1, signature));
+    }
+
+    /**
+     * STORAGE-04 (variant): Test an expired signature is rejected.
+     */
+    @Test
+    void testExpiredSignatureIsRejected() {
+        // Arrange
+        String key = "tasks/1/file.txt";
+        ReflectionTestUtils.setField(storage, "downloadUrlMinutes", -120L);
+        UriComponents url = UriComponentsBuilder.fromUriString(storage.getDownloadUrl(key)).build();
+
+        // Act & Assert
+        assertFalse(storage.isValidSignature(key, Long.parseLong(url.getQueryParams().getFirst("expires")),
+                url.getQueryParams().getFirst("signature")));
+    }
+
+    /**
+     * STORAGE-05: Test direct uploads are not supported by the local backend.
+     */
+    @Test
+    void testPresignUploadIsNotSupported() {
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> storage.presignUpload("tasks/1/file.txt", "text/plain", 10, Duration.ofMinutes(5)));
+    }
+}
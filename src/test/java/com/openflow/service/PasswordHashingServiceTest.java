@@ -0,0 +1,104 @@
+package com.openflow.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for bounded password hashing.
+ * Covers password hashing test cases: HASH-01 to HASH-03.
+ */
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 2);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 4);
+        ReflectionTestUtils.setField(passwordHashingService, "maxPerClient", 4);
+        ReflectionTestUtils.setField(passwordHashingService, "maxPerUsername", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMs", 5000L);
+        passwordHashingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    /**
+     * HASH-01: Test concurrent attempts on one username beyond the cap are rejected.
+     */
+    @Test
+    void testMatchesRejectsConcurrentAttemptsOnSameUsername() throws Exception {
+        // Arrange
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches("secret", "hash")).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return true;
+        });
+
+        // Act
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(
+                () -> passwordHashingService.matches("secret", "hash", "10.0.0.1", "alice"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertThrows(PasswordHashingService.BusyException.class,
+                () -> passwordHashingService.matches("guess", "hash", "10.0.0.2", "alice"));
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        // The slot is free again once the first attempt finished
+        when(passwordEncoder.matches("guess", "hash")).thenReturn(false);
+        assertFalse(passwordHashingService.matches("guess", "hash", "10.0.0.2", "alice"));
+    }
+
+    /**
+     * HASH-02: Test encoder failures reach the caller.
+     */
+    @Test
+    void testEncodePropagatesEncoderFailures() {
+        // Arrange
+        when(passwordEncoder.encode("secret")).thenThrow(new IllegalArgumentException("rawPassword cannot be null"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> passwordHashingService.encode("secret", "10.0.0.1"));
+    }
+
+    /**
+     * HASH-03: Test a hash with a weaker work factor needs rehashing.
+     */
+    @Test
+    void testNeedsRehashDetectsWeakerWorkFactor() {
+        // Arrange
+        ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", new BCryptPasswordEncoder(5));
+
+        // Act & Assert
+        assertTrue(passwordHashingService.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(passwordHashingService.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+        assertFalse(passwordHashingService.needsRehash(null));
+    }
+}
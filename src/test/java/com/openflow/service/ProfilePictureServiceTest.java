@@ -0,0 +1,155 @@
+package com.openflow.service;
+
+import com.openflow.model.User;
+import com.openflow.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for profile picture thumbnails.
+ * Covers profile picture test cases: PICTURE-01 to PICTURE-04.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProfilePictureServiceTest {
+
+    private static final String ORIGINAL_KEY = "profiles/1/abc.jpg";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @InjectMocks
+    private ProfilePictureService profilePictureService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(profilePictureService, "variantSizes", new int[]{256, 32, 64});
+        ReflectionTestUtils.setField(profilePictureService, "workerThreads", 1);
+        ReflectionTestUtils.setField(profilePictureService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(profilePictureService, "maxSourcePixels", 50_000_000L);
+        profilePictureService.init();
+    }
+
+    private static byte[] jpeg(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static User user(String variants) {
+        User user = new User();
+        user.setId(1L);
+        user.setProfilePictureKey(ORIGINAL_KEY);
+        user.setProfilePictureVariants(variants);
+        return user;
+    }
+
+    /**
+     * PICTURE-01: Test square thumbnails are generated and stored.
+     */
+    @Test
+    void testGenerateVariantsStoresSquareThumbnails() throws Exception {
+        // Arrange
+        when(storageBackend.openStream(ORIGINAL_KEY)).thenReturn(new ByteArrayInputStream(jpeg(1200, 800)));
+        when(userRepository.updateProfilePictureVariants(1L, ORIGINAL_KEY, "32,64,256")).thenReturn(1);
+
+        // Act
+        profilePictureService.generateVariants(1L, ORIGINAL_KEY);
+
+        // Assert
+        ArgumentCaptor<InputStream> content = ArgumentCaptor.forClass(InputStream.class);
+        verify(storageBackend).store(eq("profiles/1/abc-64.jpg"), content.capture(), anyLong(), eq("image/jpeg"));
+        BufferedImage thumbnail = ImageIO.read(content.getValue());
+        assertEquals(64, thumbnail.getWidth());
+        assertEquals(64, thumbnail.getHeight());
+        verify(storageBackend).store(eq("profiles/1/abc-32.jpg"), any(), anyLong(), eq("image/jpeg"));
+        verify(storageBackend).store(eq("profiles/1/abc-256.jpg"), any(), anyLong(), eq("image/jpeg"));
+        verify(storageBackend, never()).deleteFiles(any());
+        verify(userDirectory).evict(1L);
+    }
+
+    /**
+     * PICTURE-01 (variant): Test thumbnails of a replaced picture are deleted.
+     */
+    @Test
+    void testGenerateVariantsDeletesThemWhenPictureWasReplaced() throws Exception {
+        // Arrange
+        when(storageBackend.openStream(ORIGINAL_KEY)).thenReturn(new ByteArrayInputStream(jpeg(300, 300)));
+        when(userRepository.updateProfilePictureVariants(anyLong(), anyString(), anyString())).thenReturn(0);
+
+        // Act
+        profilePictureService.generateVariants(1L, ORIGINAL_KEY);
+
+        // Assert
+        verify(storageBackend).deleteFiles(List.of("profiles/1/abc-256.jpg", "profiles/1/abc-64.jpg", "profiles/1/abc-32.jpg"));
+    }
+
+    /**
+     * PICTURE-02: Test unsupported formats get no thumbnails.
+     */
+    @Test
+    void testGenerateVariantsSkipsUnsupportedFormats() throws Exception {
+        // Arrange
+        when(storageBackend.openStream(ORIGINAL_KEY)).thenReturn(new ByteArrayInputStream("<svg/>".getBytes()));
+
+        // Act
+        profilePictureService.generateVariants(1L, ORIGINAL_KEY);
+
+        // Assert
+        verify(storageBackend, never()).store(anyString(), any(), anyLong(), anyString());
+        verify(userRepository, never()).updateProfilePictureVariants(anyLong(), anyString(), anyString());
+    }
+
+    /**
+     * PICTURE-03: Test the smallest variant at least the requested size is served.
+     */
+    @Test
+    void testGetUrlPicksSmallestVariantAtLeastRequestedSize() {
+        // Arrange
+        when(storageBackend.isEnabled()).thenReturn(true);
+        when(storageBackend.getDownloadUrl(anyString())).thenAnswer(invocation -> "url:" + invocation.getArgument(0));
+
+        // Act & Assert
+        assertEquals("url:profiles/1/abc-64.jpg", profilePictureService.getUrl(user("32,64,256"), 40));
+        assertEquals("url:profiles/1/abc.jpg", profilePictureService.getUrl(user("32,64,256"), 512));
+        assertEquals("url:profiles/1/abc.jpg", profilePictureService.getUrl(user(null), 32));
+        assertEquals(Map.of(32, "url:profiles/1/abc-32.jpg", 64, "url:profiles/1/abc-64.jpg", 256, "url:profiles/1/abc-256.jpg"),
+                profilePictureService.getVariantUrls(user("32,64,256")));
+    }
+
+    /**
+     * PICTURE-04: Test transparent formats get PNG thumbnails.
+     */
+    @Test
+    void testVariantKeyUsesPngForTransparentFormats() {
+        // Act & Assert
+        assertEquals("profiles/1/abc-32.png", ProfilePictureService.variantKey("profiles/1/abc.png", 32));
+        assertEquals("profiles/1/abc-32.jpg", ProfilePictureService.variantKey("profiles/1/abc", 32));
+    }
+}
@@ -0,0 +1,230 @@
+package com.openflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openflow.dto.BoardDto;
+import com.openflow.dto.StatusDto;
+import com.openflow.model.Board;
+import com.openflow.repository.BoardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the public board response cache.
+ * Covers public board cache test cases: PUBLIC-01 to PUBLIC-06.
+ */
+@ExtendWith(MockitoExtension.class)
+class PublicBoardCacheTest {
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private StatusService statusService;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private BoardRepository boardRepository;
+
+    @Spy
+    private CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private PublicBoardCache publicBoardCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publicBoardCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(publicBoardCache, "maxEntries", 100);
+    }
+
+    private static String gunzip(byte[] gzipped) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * PUBLIC-01: Test repeated requests are served from the cache.
+     */
+    @Test
+    void testGetServesRepeatedRequestsFromCache() throws Exception {
+        // Arrange
+        when(boardService.getPublicBoardByIdDto(2L)).thenReturn(new BoardDto(2L, "Roadmap", null, 1L, true, false));
+        when(statusService.getStatusesByBoardIdDtoPublic(2L)).thenReturn(List.of(new StatusDto(5L, "Done", "#0f0", 2L, 0)));
+
+        // Act
+        PublicBoardCache.CachedResponse first = publicBoardCache.get(2L, PublicBoardCache.View.STATUSES);
+        PublicBoardCache.CachedResponse second = publicBoardCache.get(2L, PublicBoardCache.View.STATUSES);
+
+        // Assert
+        assertSame(first, second);
+        assertTrue(gunzip(first.gzippedJson()).contains("\"name\":\"Done\""));
+        assertTrue(first.eTag().startsWith("W/\""));
+        verify(statusService, times(1)).getStatusesByBoardIdDtoPublic(2L);
+    }
+
+    /**
+     * PUBLIC-02: Test evicting a board rebuilds all its views.
+     */
+    @Test
+    void testEvictBoardRebuildsAllViews() {
+        // Arrange
+        when(boardService.getPublicBoardByIdDto(2L)).thenReturn(new BoardDto(2L, "Roadmap", null, 1L, true, false));
+        when(taskService.getTasksByBoardIdDtoPublic(2L)).thenReturn(List.of());
+
+        // Act
+        publicBoardCache.get(2L, PublicBoardCache.View.TASKS);
+        publicBoardCache.evictBoard(2L);
+        publicBoardCache.get(2L, PublicBoardCache.View.TASKS);
+
+        // Assert
+        verify(taskService, times(2)).getTasksByBoardIdDtoPublic(2L);
+        verify(cacheInvalidationBus).publish(PublicBoardCache.CACHE_NAME, 2L);
+    }
+
+    /**
+     * PUBLIC-03: Test an invalidation from another node rebuilds the board.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInvalidationFromAnotherNodeRebuildsBoard() {
+        // Arrange
+        when(boardService.getPublicBoardByIdDto(2L)).thenReturn(new BoardDto(2L, "Roadmap", null, 1L, true, false));
+        when(taskService.getTasksByBoardIdDtoPublic(2L)).thenReturn(List.of());
+        publicBoardCache.init();
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).subscribe(eq(PublicBoardCache.CACHE_NAME), handler.capture());
+
+        // Act
+        publicBoardCache.get(2L, PublicBoardCache.View.TASKS);
+        handler.getValue().accept("2");
+        publicBoardCache.get(2L, PublicBoardCache.View.TASKS);
+
+        // Assert
+        verify(taskService, times(2)).getTasksByBoardIdDtoPublic(2L);
+        verify(cacheInvalidationBus, never()).publish(any(), any());
+    }
+
+    /**
+     * PUBLIC-04: Test private boards are not cached.
+     */
+    @Test
+    void testPrivateBoardIsNotCached() {
+        // Arrange
+        when(boardService.getPublicBoardByIdDto(3L)).thenThrow(new RuntimeException("Public board not found"));
+
+        // Act
+        assertThrows(RuntimeException.class, () -> publicBoardCache.get(3L, PublicBoardCache.View.TASKS));
+        assertThrows(RuntimeException.class, () -> publicBoardCache.get(3L, PublicBoardCache.View.TASKS));
+
+        // Assert
+        verify(boardService, times(2)).getPublicBoardByIdDto(3L);
+        verify(taskService, never()).getTasksByBoardIdDtoPublic(3L);
+    }
+
+    /**
+     * PUBLIC-05: Test task and status changes only publish invalidations of public boards.
+     */
+    @Test
+    void testEvictBoardIfPublicSkipsPrivateBoards() {
+        // Arrange
+        Board publicBoard = new Board();
+        publicBoard.setIsPublic(true);
+        Board privateBoard = new Board();
+        privateBoard.setIsPublic(false);
+        when(boardRepository.findById(2L)).thenReturn(Optional.of(publicBoard));
+        when(boardRepository.findById(3L)).thenReturn(Optional.of(privateBoard));
+
+        // Act
+        publicBoardCache.evictBoardIfPublic(2L);
+        publicBoardCache.evictBoardIfPublic(3L);
+
+        // Assert
+        verify(cacheInvalidationBus).publish(PublicBoardCache.CACHE_NAME, 2L);
+        verify(cacheInvalidationBus, never()).publish(PublicBoardCache.CACHE_NAME, 3L);
+    }
+
+    /**
+     * PUBLIC-06: Test concurrent misses on a view share one build.
+     */
+    @Test
+    void testConcurrentMissesShareOneBuild() throws Exception {
+        // Arrange
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(boardService.getPublicBoardByIdDto(2L)).thenAnswer(invocation -> {
+            building.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return new BoardDto(2L, "Roadmap", null, 1L, true, false);
+        });
+        when(taskService.getTasksByBoardIdDtoPublic(2L)).thenReturn(List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<PublicBoardCache.CachedResponse> first =
+                    executor.submit(() -> publicBoardCache.get(2L, PublicBoardCache.View.TASKS));
+            assertTrue(building.await(5, TimeUnit.SECONDS));
+            Future<PublicBoardCache.CachedResponse> second =
+                    executor.submit(() -> publicBoardCache.get(2L, PublicBoardCache.View.TASKS));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            verify(boardService, times(1)).getPublicBoardByIdDto(2L);
+            verify(taskService, times(1)).getTasksByBoardIdDtoPublic(2L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * PUBLIC-06 (variant): Test a response evicted while it was built is not cached.
+     */
+    @Test
+    void testResponseEvictedWhileBuildingIsNotCached() {
+        // Arrange
+        when(boardService.getPublicBoardByIdDto(2L)).thenReturn(new BoardDto(2L, "Roadmap", null, 1L, true, false));
+        when(taskService.getTasksByBoardIdDtoPublic(2L)).thenAnswer(invocation -> {
+            publicBoardCache.evictBoard(2L);
+            return List.of();
+        });
+
+        // Act
+        assertNotNull(publicBoardCache.get(2L, PublicBoardCache.View.TASKS));
+        publicBoardCache.get(2L, PublicBoardCache.View.TASKS);
+
+        // Assert
+        verify(taskService, times(2)).getTasksByBoardIdDtoPublic(2L);
+    }
+}
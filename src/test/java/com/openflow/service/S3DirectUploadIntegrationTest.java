@@ -0,0 +1,195 @@
+package com.openflow.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Direct (presigned PUT) and streaming multipart uploads against a MinIO container standing in for S3.
+ * Skipped when Docker is not available.
+ * Covers upload test cases: UPLOAD-01 to UPLOAD-04.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3DirectUploadIntegrationTest {
+
+    private static final String ACCESS_KEY = "minioadmin";
+    private static final String SECRET_KEY = "minioadmin";
+    private static final String BUCKET = "openflow-test";
+
+    @Container
+    private static final GenericContainer<?> minio = new GenericContainer<>(DockerImageName.parse("minio/minio:RELEASE.2023-12-20T01-00-02Z"))
+            .withEnv("MINIO_ROOT_USER", ACCESS_KEY)
+            .withEnv("MINIO_ROOT_PASSWORD", SECRET_KEY)
+            .withCommand("server", "/data")
+            .withExposedPorts(9000)
+            .waitingFor(Wait.forHttp("/minio/health/live").forPort(9000));
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() {
+        // Picked up by the default credentials provider
+        System.setProperty("aws.accessKeyId", ACCESS_KEY);
+        System.setProperty("aws.secretAccessKey", SECRET_KEY);
+
+        s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(s3Service, "awsRegion", "us-east-1");
+        ReflectionTestUtils.setField(s3Service, "s3EnabledStr", "true");
+        ReflectionTestUtils.setField(s3Service, "endpoint", "http://" + minio.getHost() + ":" + minio.getMappedPort(9000));
+        ReflectionTestUtils.setField(s3Service, "presignedUrlCacheTtlMinutes", 45L);
+        ReflectionTestUtils.setField(s3Service, "presignedUrlCacheMaxEntries", 100);
+        ReflectionTestUtils.setField(s3Service, "multipartPartSizeBytes", 5 * 1024 * 1024);
+        ReflectionTestUtils.setField(s3Service, "multipartMaxBufferBytes", 10L * 1024 * 1024);
+        ReflectionTestUtils.setField(s3Service, "multipartMaxPartAttempts", 3);
+        s3Service.init();
+        assertTrue(s3Service.isEnabled());
+
+        S3Client s3Client = (S3Client) ReflectionTestUtils.getField(s3Service, "s3Client");
+        try {
+            s3Client.createBucket(builder -> builder.bucket(BUCKET));
+        } catch (BucketAlreadyOwnedByYouException e) {
+            // Created by a previous test
+        }
+    }
+
+    private HttpResponse<String> put(StorageBackend.PresignedUpload upload, byte[] content, String contentType) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upload.url()))
+                .method(upload.method(), HttpRequest.BodyPublishers.ofByteArray(content));
+        // Content-Length is restricted in java.net.http and set from the body
+        upload.headers().forEach((name, value) -> {
+            if (!"content-length".equalsIgnoreCase(name) && !"content-type".equalsIgnoreCase(name)) {
+                request.header(name, value);
+            }
+        });
+        request.header("Content-Type", contentType);
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * UPLOAD-01: Test a presigned PUT stores the object without passing through the server.
+     */
+    @Test
+    void testPresignedPutUploadsDirectlyToStore() throws Exception {
+        // Arrange
+        byte[] content = "uploaded without the app".getBytes(StandardCharsets.UTF_8);
+        String key = s3Service.newTaskFileKey(1L, "notes.txt");
+        StorageBackend.PresignedUpload upload = s3Service.presignUpload(key, "text/plain", content.length, Duration.ofMinutes(5));
+
+        // Act
+        HttpResponse<String> response = put(upload, content, "text/plain");
+
+        // Assert
+        assertEquals(200, response.statusCode(), response.body());
+        StorageBackend.StoredObject object = s3Service.stat(key).orElseThrow();
+        assertEquals(content.length, object.size());
+        assertEquals("text/plain", object.contentType());
+    }
+
+    /**
+     * UPLOAD-01 (variant): Test a presigned PUT is rejected for another content type.
+     */
+    @Test
+    void testPresignedPutRejectsOtherContentType() throws Exception {
+        // Arrange
+        byte[] content = "not an image".getBytes(StandardCharsets.UTF_8);
+        String key = s3Service.newProfilePictureKey(1L, "avatar.png");
+        StorageBackend.PresignedUpload upload = s3Service.presignUpload(key, "image/png", content.length, Duration.ofMinutes(5));
+
+        // Act
+        HttpResponse<String> response = put(upload, content, "text/html");
+
+        // Assert
+        assertEquals(403, response.statusCode());
+        assertTrue(s3Service.stat(key).isEmpty());
+    }
+
+    /**
+     * UPLOAD-02: Test deleting a file removes the uploaded object.
+     */
+    @Test
+    void testDeleteFileRemovesUploadedObject() throws Exception {
+        // Arrange
+        byte[] content = "abandoned".getBytes(StandardCharsets.UTF_8);
+        String key = s3Service.newTaskFileKey(2L, "draft.txt");
+        StorageBackend.PresignedUpload upload = s3Service.presignUpload(key, "text/plain", content.length, Duration.ofMinutes(5));
+        assertEquals(200, put(upload, content, "text/plain").statusCode());
+
+        // Act
+        s3Service.deleteFile(key);
+
+        // Assert
+        assertTrue(s3Service.stat(key).isEmpty());
+    }
+
+    /**
+     * UPLOAD-03: Test a large streamed body is uploaded as multipart parts.
+     */
+    @Test
+    void testStoreStreamSendsLargeBodyInParts() throws Exception {
+        // Arrange
+        byte[] content = new byte[12 * 1024 * 1024 + 123];
+        new Random(42).nextBytes(content);
+
+        // Act
+        String key = s3Service.newTaskFileKey(3L, "recording.mp4");
+        long size = s3Service.storeStream(key, new ByteArrayInputStream(content), "video/mp4", Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(content.length, size);
+        StorageBackend.StoredObject object = s3Service.stat(key).orElseThrow();
+        assertEquals(content.length, object.size());
+        // Multipart ETags end with the part count
+        assertTrue(object.eTag().endsWith("-3\""), object.eTag());
+    }
+
+    /**
+     * UPLOAD-03 (variant): Test a small streamed body is uploaded with a single PUT.
+     */
+    @Test
+    void testStoreStreamUsesSinglePutForSmallBody() throws Exception {
+        // Arrange
+        byte[] content = "small".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        String key = s3Service.newTaskFileKey(3L, "small.txt");
+        long size = s3Service.storeStream(key, new ByteArrayInputStream(content), "text/plain", Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(content.length, size);
+        assertFalse(s3Service.stat(key).orElseThrow().eTag().contains("-"));
+    }
+
+    /**
+     * UPLOAD-04: Test a streamed body over the size limit is rejected.
+     */
+    @Test
+    void testStoreStreamRejectsBodyOverLimit() {
+        // Arrange
+        byte[] content = new byte[11 * 1024 * 1024];
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> s3Service.storeStream(s3Service.newTaskFileKey(3L, "big.bin"),
+                new ByteArrayInputStream(content), "application/octet-stream", 6L * 1024 * 1024));
+    }
+}
@@ -0,0 +1,156 @@
+package com.openflow.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the S3Service presigned URL cache, batched deletes and streamed uploads.
+ * Covers S3 storage test cases: S3-01 to S3-04.
+ */
+@ExtendWith(MockitoExtension.class)
+class S3ServiceTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+
+    @Mock
+    private S3Presigner s3Presigner;
+
+    @Mock
+    private PresignedGetObjectRequest presignedRequest;
+
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "s3Enabled", true);
+        ReflectionTestUtils.setField(s3Service, "s3Client", s3Client);
+        ReflectionTestUtils.setField(s3Service, "s3Presigner", s3Presigner);
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bucket");
+        ReflectionTestUtils.setField(s3Service, "presignedUrlCacheTtlMinutes", 45L);
+        ReflectionTestUtils.setField(s3Service, "presignedUrlCacheMaxEntries", 2);
+        lenient().when(presignedRequest.url()).thenReturn(new URL("https://bucket.s3.amazonaws.com/key?sig=1"));
+        lenient().when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presignedRequest);
+    }
+
+    /**
+     * S3-01: Test a presigned URL is signed once and then served from the cache.
+     */
+    @Test
+    void testGetPresignedUrlReusesCachedSignature() {
+        // Act
+        String first = s3Service.getPresignedUrl("profiles/1/a.png");
+        String second = s3Service.getPresignedUrl("profiles/1/a.png");
+
+        // Assert
+        assertEquals(first, second);
+        verify(s3Presigner, times(1)).presignGetObject(any(GetObjectPresignRequest.class));
+        Map<String, Object> stats = s3Service.getPresignedUrlCacheStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(0.5, stats.get("hitRate"));
+    }
+
+    /**
+     * S3-01 (variant): Test deleting a file evicts its cached URL.
+     */
+    @Test
+    void testDeleteFileEvictsCachedUrl() {
+        // Act
+        s3Service.getPresignedUrl("profiles/1/a.png");
+        s3Service.deleteFile("profiles/1/a.png");
+        s3Service.getPresignedUrl("profiles/1/a.png");
+
+        // Assert
+        verify(s3Client).deleteObject(any(DeleteObjectRequest.class));
+        verify(s3Presigner, times(2)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    /**
+     * S3-02: Test the URL cache does not grow beyond its maximum size.
+     */
+    @Test
+    void testCacheIsBoundedByMaxEntries() {
+        // Act
+        s3Service.getPresignedUrl("a");
+        s3Service.getPresignedUrl("b");
+        s3Service.getPresignedUrl("c");
+
+        // Assert
+        Map<String, Object> stats = s3Service.getPresignedUrlCacheStats();
+        assertEquals(2, stats.get("size"));
+        assertEquals(1L, stats.get("evictions"));
+    }
+
+    /**
+     * S3-03: Test deletes are sent in batches and failed keys are reported.
+     */
+    @Test
+    void testDeleteFilesBatchesKeysAndReportsFailures() {
+        // Arrange
+        List<String> keys = IntStream.range(0, 2500).mapToObj(i -> "tasks/1/" + i).toList();
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(DeleteObjectsResponse.builder().build())
+                .thenReturn(DeleteObjectsResponse.builder()
+                        .errors(S3Error.builder().key("tasks/1/1500").code("AccessDenied").message("Access Denied").build())
+                        .build())
+                .thenReturn(DeleteObjectsResponse.builder().build());
+
+        // Act
+        Map<String, String> failures = s3Service.deleteFiles(keys);
+
+        // Assert
+        ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client, times(3)).deleteObjects(requests.capture());
+        assertEquals(List.of(1000, 1000, 500), requests.getAllValues().stream()
+                .map(request -> request.delete().objects().size())
+                .toList());
+        assertEquals(Map.of("tasks/1/1500", "AccessDenied: Access Denied"), failures);
+    }
+
+    /**
+     * S3-04: Test a streamed body shorter than a part but over the size limit is rejected.
+     */
+    @Test
+    void testStoreStreamRejectsSmallBodyOverLimit() {
+        // Arrange
+        ReflectionTestUtils.setField(s3Service, "s3AsyncClient", s3AsyncClient);
+        ReflectionTestUtils.setField(s3Service, "multipartPartSizeBytes", 1024);
+        ReflectionTestUtils.setField(s3Service, "multipartMaxBufferBytes", 4096L);
+        byte[] content = new byte[100];
+
+        // Act & Assert
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> s3Service.storeStream("tasks/1/big.bin", new ByteArrayInputStream(content), "application/octet-stream", 50));
+        assertEquals("File exceeds maximum size of 50 bytes", e.getMessage());
+        verifyNoInteractions(s3AsyncClient);
+    }
+}
@@ -0,0 +1,127 @@
+package com.openflow.service;
+
+import com.openflow.model.PendingDeletion;
+import com.openflow.repository.PendingDeletionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for background storage deletion.
+ * Covers storage cleanup test cases: CLEANUP-01 to CLEANUP-03.
+ */
+@ExtendWith(MockitoExtension.class)
+class StorageCleanupServiceTest {
+
+    @Mock
+    private PendingDeletionRepository pendingDeletionRepository;
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @InjectMocks
+    private StorageCleanupService storageCleanupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(storageCleanupService, "batchSize", 2);
+        ReflectionTestUtils.setField(storageCleanupService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(storageCleanupService, "retryBackoffSeconds", 60L);
+    }
+
+    private static PendingDeletion pending(Long id, String key, int attempts) {
+        return new PendingDeletion(id, key, attempts, null, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    /**
+     * CLEANUP-01: Test the queue is drained in batches.
+     */
+    @Test
+    void testDrainDeletesBatchesUntilQueueIsEmpty() {
+        // Arrange
+        when(pendingDeletionRepository.findByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                eq(3), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(pending(1L, "a", 0), pending(2L, "b", 0)))
+                .thenReturn(List.of(pending(3L, "c", 0)));
+        when(storageBackend.deleteFiles(any())).thenReturn(Map.of());
+
+        // Act
+        storageCleanupService.drain();
+
+        // Assert
+        verify(storageBackend).deleteFiles(List.of("a", "b"));
+        verify(storageBackend).deleteFiles(List.of("c"));
+        verify(pendingDeletionRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(pendingDeletionRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    /**
+     * CLEANUP-02: Test failed keys are retried with backoff.
+     */
+    @Test
+    void testDrainKeepsFailedKeysForRetryWithBackoff() {
+        // Arrange
+        PendingDeletion failing = pending(2L, "b", 0);
+        when(pendingDeletionRepository.findByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                anyInt(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(pending(1L, "a", 0), failing))
+                .thenReturn(List.of());
+        when(storageBackend.deleteFiles(any())).thenReturn(Map.of("b", "SlowDown: Please reduce your request rate"));
+
+        // Act
+        storageCleanupService.drain();
+
+        // Assert
+        verify(pendingDeletionRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(pendingDeletionRepository).saveAll(List.of(failing));
+        assertEquals(1, failing.getAttempts());
+        assertEquals("SlowDown: Please reduce your request rate", failing.getLastError());
+        assertTrue(failing.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+    }
+
+    /**
+     * CLEANUP-02 (variant): Test draining stops when a whole batch fails.
+     */
+    @Test
+    void testDrainStopsWhenWholeBatchFails() {
+        // Arrange
+        when(pendingDeletionRepository.findByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                anyInt(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(pending(1L, "a", 2), pending(2L, "b", 2)));
+        when(storageBackend.deleteFiles(any())).thenReturn(Map.of("a", "down", "b", "down"));
+
+        // Act
+        storageCleanupService.drain();
+
+        // Assert
+        verify(storageBackend, times(1)).deleteFiles(any());
+        verify(pendingDeletionRepository).deleteAllByIdInBatch(List.of());
+    }
+
+    /**
+     * CLEANUP-03: Test empty keys are not queued.
+     */
+    @Test
+    void testDeleteAfterCommitIgnoresEmptyKeys() {
+        // Act
+        storageCleanupService.deleteAfterCommit(List.of());
+
+        // Assert
+        verify(pendingDeletionRepository, never()).insertAll(any());
+    }
+}
@@ -4,9 +4,7 @@ import com.openflow.dto.TaskDto;
 import com.openflow.model.Board;
 import com.openflow.model.Status;
 import com.openflow.model.Task;
-import com.openflow.model.User;
 import com.openflow.repository.TaskRepository;
-import com.openflow.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,7 +41,7 @@ class TaskServiceTest {
     private StatusService statusService;
 
     @Mock
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
 
     @Mock
     private ChangeLogService changeLogService;
@@ -54,6 +52,12 @@ class TaskServiceTest {
     @Mock
     private CustomFieldService customFieldService;
 
+    @Mock
+    private AttachmentService attachmentService;
+
+    @Mock
+    private PublicBoardCache publicBoardCache;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -61,7 +65,6 @@ class TaskServiceTest {
     private Board testBoard;
     private Status testStatus;
     private Status newStatus;
-    private User testUser;
     private Long ownerId = 1L;
     private Long boardId = 1L;
     private Long statusId = 1L;
@@ -91,10 +94,6 @@ class TaskServiceTest {
         testTask.setBoardId(boardId);
         testTask.setStatusId(statusId);
         testTask.setCreatedAt(LocalDateTime.now());
-
-        testUser = new User();
-        testUser.setId(2L);
-        testUser.setUsername("assignee");
     }
 
     /**
@@ -251,7 +250,7 @@ class TaskServiceTest {
         when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
         when(boardService.getBoardById(boardId, ownerId)).thenReturn(testBoard);
         when(boardService.getBoardAccessLevel(boardId, ownerId)).thenReturn("OWNER");
-        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+        when(userDirectory.getUsername(2L, "none")).thenReturn("assignee");
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
         when(changeLogService.logFieldChange(anyString(), anyLong(), anyLong(), anyString(), anyString(), anyString())).thenReturn(null);
         doNothing().when(notificationService).notifyEntityChange(anyString(), anyLong(), anyString(), anyString(), anyLong());
@@ -289,7 +288,9 @@ class TaskServiceTest {
         // Assert
         verify(changeLogService).logDelete(eq(ChangeLogService.ENTITY_TASK), eq(1L), eq(ownerId));
         verify(notificationService).notifyEntityChange(eq("TASK"), eq(1L), eq("TASK_DELETED"), anyString(), eq(ownerId));
+        verify(attachmentService).deleteAttachmentsByTaskId(1L);
         verify(taskRepository).delete(testTask);
+        verify(publicBoardCache).evictBoardIfPublic(boardId);
     }
 
     /**
@@ -381,11 +382,10 @@ class TaskServiceTest {
     @Test
     void testGetTasksByBoardIdDto_WithAssignedUser() {
         // Arrange
-        testTask.setAssignedUserId(2L);
-        List<Task> tasks = Arrays.asList(testTask);
+        TaskDto assigned = new TaskDto(testTask.getId(), testTask.getTitle(), testTask.getDescription(),
+                testTask.getStatusId(), boardId, 2L, "assignee", testTask.getCreatedAt());
         when(boardService.getBoardById(boardId, ownerId)).thenReturn(testBoard);
-        when(taskRepository.findByBoardId(boardId)).thenReturn(tasks);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.findDtosByBoardId(boardId)).thenReturn(List.of(assigned));
 
         // Act
         List<TaskDto> result = taskService.getTasksByBoardIdDto(boardId, ownerId);
@@ -394,6 +394,8 @@ class TaskServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("assignee", result.get(0).getAssignedUsername());
+        verify(taskRepository, never()).findByBoardId(anyLong());
+        verifyNoInteractions(userDirectory);
     }
 
     /**
@@ -402,8 +404,8 @@ class TaskServiceTest {
     @Test
     void testGetTasksByBoardIdDtoPublic() {
         // Arrange
-        List<Task> tasks = Arrays.asList(testTask);
-        when(taskRepository.findByBoardId(boardId)).thenReturn(tasks);
+        when(taskRepository.findDtosByBoardId(boardId)).thenReturn(List.of(new TaskDto(testTask.getId(),
+                testTask.getTitle(), testTask.getDescription(), testTask.getStatusId(), boardId, testTask.getCreatedAt())));
 
         // Act
         List<TaskDto> result = taskService.getTasksByBoardIdDtoPublic(boardId);
@@ -0,0 +1,66 @@
+package com.openflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the change-log text delta codec.
+ * Covers text delta test cases: DELTA-01 to DELTA-04.
+ */
+class TextDeltaTest {
+
+    /**
+     * DELTA-01: Test a patch only holds the changed run of text.
+     */
+    @Test
+    void testDiffEncodesOnlyTheChangedRun() {
+        // Act & Assert
+        assertEquals("6:5:brave ", TextDelta.diff("hello world", "hello brave world"));
+        assertEquals("2:0:", TextDelta.diff("aaa", "aa"));
+    }
+
+    /**
+     * DELTA-02: Test applying a patch to its base restores the target.
+     */
+    @Test
+    void testApplyRoundTrips() {
+        // Arrange
+        String[][] cases = {
+            {"hello world", "hello brave world"},
+            {"hello brave world", "hello world"},
+            {"", "new text"},
+            {null, "new text"},
+            {"old text", ""},
+            {"same", "same"},
+            {"abcabc", "abc"}
+        };
+
+        // Act & Assert
+        for (String[] c : cases) {
+            assertEquals(c[1], TextDelta.apply(c[0], TextDelta.diff(c[0], c[1])));
+        }
+    }
+
+    /**
+     * DELTA-03: Test a null target is encoded as a null patch.
+     */
+    @Test
+    void testNullTargetEncodesAsNullPatch() {
+        // Act & Assert
+        assertNull(TextDelta.diff("text", null));
+        assertNull(TextDelta.apply("text", null));
+    }
+
+    /**
+     * DELTA-04: Test a patch is rejected for a base it was not made from.
+     */
+    @Test
+    void testApplyRejectsPatchForDifferentBase() {
+        // Arrange
+        String patch = TextDelta.diff("a much longer base text", "a much longer base text!");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TextDelta.apply("short", patch));
+    }
+}
@@ -0,0 +1,63 @@
+package com.openflow.service;
+
+import com.openflow.model.CustomFieldValue;
+import com.openflow.model.FieldType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for custom field typed column conversion.
+ * Covers typed field test cases: FIELD-01 to FIELD-03.
+ */
+class TypedFieldValueTest {
+
+    /**
+     * FIELD-01: Test values are converted according to the field type.
+     */
+    @Test
+    void testParseConvertsValuesByFieldType() {
+        // Act & Assert
+        assertEquals(new BigDecimal("12.5"), TypedFieldValue.parse(FieldType.NUMBER, " 12.5 "));
+        assertEquals(BigDecimal.ONE, TypedFieldValue.parse(FieldType.CHECKBOX, "TRUE"));
+        assertEquals(BigDecimal.ZERO, TypedFieldValue.parse(FieldType.CHECKBOX, "false"));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), TypedFieldValue.parse(FieldType.DATE, "2024-03-01"));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 30), TypedFieldValue.parse(FieldType.DATE, "2024-03-01T09:30"));
+        assertEquals("high priority", TypedFieldValue.parse(FieldType.DROPDOWN, " High Priority "));
+    }
+
+    /**
+     * FIELD-02: Test invalid values and untyped fields have no typed value.
+     */
+    @Test
+    void testParseReturnsNullForInvalidOrUntypedValues() {
+        // Act & Assert
+        assertNull(TypedFieldValue.parse(FieldType.NUMBER, "twelve"));
+        assertNull(TypedFieldValue.parse(FieldType.DATE, "next week"));
+        assertNull(TypedFieldValue.parse(FieldType.TEXT, "anything"));
+        assertNull(TypedFieldValue.parse(FieldType.NUMBER, "  "));
+        assertNull(TypedFieldValue.parse(FieldType.NUMBER, "1e40"));
+    }
+
+    /**
+     * FIELD-03: Test populating a value clears the columns of other types.
+     */
+    @Test
+    void testPopulateClearsColumnsOfOtherTypes() {
+        // Arrange
+        CustomFieldValue value = new CustomFieldValue();
+        value.setValue("42");
+        value.setOptionKey("stale");
+
+        // Act
+        TypedFieldValue.populate(value, FieldType.NUMBER);
+
+        // Assert
+        assertEquals(new BigDecimal("42"), value.getNumberValue());
+        assertNull(value.getDateValue());
+        assertNull(value.getOptionKey());
+    }
+}
@@ -0,0 +1,125 @@
+package com.openflow.service;
+
+import com.openflow.dto.UserSummary;
+import com.openflow.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the cached user lookups.
+ * Covers user directory test cases: DIRECTORY-01 to DIRECTORY-03.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus();
+
+    @InjectMocks
+    private UserDirectory userDirectory;
+
+    private final UserSummary alice = new UserSummary(1L, "alice", "alice@example.com", null, null);
+    private final UserSummary bob = new UserSummary(2L, "bob", "bob@example.com", "profiles/2/b.jpg", "32,64,256");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userDirectory, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(userDirectory, "maxEntries", 100);
+    }
+
+    /**
+     * DIRECTORY-01: Test only uncached users are loaded.
+     */
+    @Test
+    void testResolveAllOnlyLoadsUncachedUsers() {
+        // Arrange
+        when(userRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(alice));
+        when(userRepository.findSummariesByIdIn(List.of(2L, 3L))).thenReturn(List.of(bob));
+
+        // Act
+        assertEquals(Optional.of(alice), userDirectory.resolve(1L));
+        Map<Long, UserSummary> users = userDirectory.resolveAll(Arrays.asList(1L, 2L, null, 3L, 2L));
+
+        // Assert
+        assertEquals(Map.of(1L, alice, 2L, bob), users);
+        assertEquals("bob", userDirectory.getUsername(2L, "none"));
+        assertEquals("none", userDirectory.getUsername(null, "none"));
+        verify(userRepository, times(1)).findSummariesByIdIn(List.of(1L));
+        verify(userRepository, times(1)).findSummariesByIdIn(List.of(2L, 3L));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    /**
+     * DIRECTORY-02: Test an evicted user is loaded again.
+     */
+    @Test
+    void testEvictReloadsUser() {
+        // Arrange
+        UserSummary renamed = new UserSummary(1L, "alice2", "alice@example.com", null, null);
+        when(userRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(alice), List.of(renamed));
+
+        // Act
+        userDirectory.resolve(1L);
+        userDirectory.evict(1L);
+
+        // Assert
+        assertEquals("alice2", userDirectory.getUsername(1L, null));
+        verify(cacheInvalidationBus).publish(UserDirectory.CACHE_NAME, 1L);
+    }
+
+    /**
+     * DIRECTORY-02 (variant): Test a user evicted while being loaded is not cached.
+     */
+    @Test
+    void testUserEvictedWhileLoadingIsNotCached() {
+        // Arrange
+        when(userRepository.findSummariesByIdIn(List.of(1L, 2L)))
+                .thenAnswer(invocation -> {
+                    userDirectory.evict(1L);
+                    return List.of(alice, bob);
+                });
+        when(userRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(alice));
+
+        // Act
+        assertEquals(Map.of(1L, alice, 2L, bob), userDirectory.resolveAll(List.of(1L, 2L)));
+        userDirectory.resolveAll(List.of(1L, 2L));
+
+        // Assert
+        verify(userRepository, times(1)).findSummariesByIdIn(List.of(1L, 2L));
+        verify(userRepository, times(1)).findSummariesByIdIn(List.of(1L));
+    }
+
+    /**
+     * DIRECTORY-03: Test large id lists are loaded in chunks.
+     */
+    @Test
+    void testResolveAllChunksLargeIdLists() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(userRepository.findSummariesByIdIn(anyList())).thenReturn(List.of());
+
+        // Act
+        assertTrue(userDirectory.resolveAll(ids).isEmpty());
+
+        // Assert
+        verify(userRepository, times(3)).findSummariesByIdIn(anyList());
+    }
+}
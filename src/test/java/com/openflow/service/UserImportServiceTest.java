@@ -0,0 +1,191 @@
+package com.openflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openflow.dto.UserSummary;
+import com.openflow.model.Role;
+import com.openflow.model.User;
+import com.openflow.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for bulk user import.
+ * Covers user import test cases: IMPORT-01 to IMPORT-04.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userImportService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(userImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(userImportService, "hashingParallelism", 2);
+        ReflectionTestUtils.setField(userImportService, "maxRows", 100);
+        userImportService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    private String runImport(String body, boolean csv) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), csv, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    /**
+     * IMPORT-01: Test valid CSV rows are inserted and invalid ones reported.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsvInsertsValidRowsAndReportsFailures() throws Exception {
+        // Arrange
+        runTransactionsInline();
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userRepository.findSummariesByUsernameInOrEmailIn(any(), any()))
+                .thenReturn(List.of(new UserSummary(9L, "taken", "taken@example.com", null, null)))
+                .thenReturn(List.of());
+
+        // Act
+        String result = runImport("""
+                username,email,password,role
+                alice,alice@example.com,secret1,admin
+                taken,new@example.com,secret2,
+                "bob, jr",bob@example.com,secret3,user
+                carol,alice@example.com,secret4,
+                """, true);
+
+        // Assert
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(2)).insertAll(inserted.capture());
+        User alice = inserted.getAllValues().get(0).get(0);
+        assertEquals("alice", alice.getUsername());
+        assertEquals("hash:secret1", alice.getPassword());
+        assertEquals(Role.ADMIN, alice.getRole());
+        assertEquals("jwt", alice.getAuthProvider());
+        assertEquals("bob, jr", inserted.getAllValues().get(1).get(0).getUsername());
+
+        String[] lines = result.split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].contains("\"line\":2") && lines[0].contains("\"status\":\"CREATED\""));
+        assertTrue(lines[1].contains("\"error\":\"Username already exists\""));
+        assertTrue(lines[3].contains("\"error\":\"Duplicate email in import\""));
+        assertTrue(lines[4].contains("\"status\":\"DONE\"") && lines[4].contains("\"created\":2")
+                && lines[4].contains("\"failed\":2"));
+    }
+
+    /**
+     * IMPORT-01 (variant): Test a row rejected as a duplicate does not reserve its username.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportRejectedDuplicateDoesNotReserveUsername() throws Exception {
+        // Arrange
+        runTransactionsInline();
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userRepository.findSummariesByUsernameInOrEmailIn(any(), any())).thenReturn(List.of());
+
+        // Act
+        String result = runImport("""
+                username,email,password,role
+                alice,alice@example.com,secret1,
+                carol,alice@example.com,secret2,
+                carol,carol@example.com,secret3,
+                """, true);
+
+        // Assert
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(2)).insertAll(inserted.capture());
+        assertEquals("carol@example.com", inserted.getAllValues().get(1).get(0).getEmail());
+
+        String[] lines = result.split("\n");
+        assertTrue(lines[1].contains("\"error\":\"Duplicate email in import\""));
+        assertTrue(lines[2].contains("\"line\":4") && lines[2].contains("\"status\":\"CREATED\""));
+        assertTrue(lines[3].contains("\"created\":2") && lines[3].contains("\"failed\":1"));
+    }
+
+    /**
+     * IMPORT-02: Test invalid NDJSON rows are rejected without a query.
+     */
+    @Test
+    void testImportNdjsonRejectsInvalidRowsWithoutQuerying() throws Exception {
+        // Act
+        String result = runImport("""
+                {"username":"al","email":"al@example.com","password":"secret1"}
+                not json
+                {"username":"dave","email":"dave@example.com","password":"secret1","role":"owner"}
+                """, false);
+
+        // Assert
+        verifyNoInteractions(userRepository, passwordEncoder);
+        assertTrue(result.contains("\"error\":\"username size must be between 3 and 50\""));
+        assertTrue(result.contains("\"error\":\"Invalid JSON\""));
+        assertTrue(result.contains("\"error\":\"Unknown role owner\""));
+        assertTrue(result.contains("\"created\":0,\"failed\":3"));
+    }
+
+    /**
+     * IMPORT-03: Test a CSV without the required columns is rejected.
+     */
+    @Test
+    void testImportCsvRequiresHeaderColumns() {
+        // Act & Assert
+        RuntimeException e = assertThrows(RuntimeException.class, () -> runImport("username,email\n", true));
+        assertEquals("CSV header has no password column", e.getMessage());
+    }
+
+    /**
+     * IMPORT-04: Test quoted CSV fields are parsed.
+     */
+    @Test
+    void testParseCsvLineHandlesQuotes() {
+        // Act & Assert
+        assertEquals(List.of("a", "b \"c\"", "", "d,e"), UserImportService.parseCsvLine("a,\"b \"\"c\"\"\",,\"d,e\""));
+    }
+}
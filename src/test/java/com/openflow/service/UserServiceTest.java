@@ -3,6 +3,8 @@ package com.openflow.service;
 import com.openflow.dto.AuthRequest;
 import com.openflow.dto.AuthResponse;
 import com.openflow.dto.RegisterRequest;
+import com.openflow.dto.UserOptionDto;
+import com.openflow.dto.UserOptionPageDto;
 import com.openflow.model.Role;
 import com.openflow.model.User;
 import com.openflow.repository.UserRepository;
@@ -12,12 +14,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -32,13 +36,16 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtService jwtService;
 
     @Mock
-    private S3Service s3Service;
+    private StorageBackend storageBackend;
+
+    @Mock
+    private BoardService boardService;
 
     @InjectMocks
     private UserService userService;
@@ -74,11 +81,11 @@ class UserServiceTest {
     void testLoginSuccess() {
         // Arrange
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(passwordHashingService.matches("password123", "encodedPassword", "10.0.0.1", "testuser")).thenReturn(true);
         when(jwtService.generateToken("testuser", Role.USER)).thenReturn("jwt-token");
 
         // Act
-        AuthResponse response = userService.login(authRequest);
+        AuthResponse response = userService.login(authRequest, "10.0.0.1");
 
         // Assert
         assertNotNull(response);
@@ -86,7 +93,8 @@ class UserServiceTest {
         assertEquals("testuser", response.getUsername());
         assertEquals("USER", response.getRole());
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder).matches("password123", "encodedPassword");
+        verify(passwordHashingService).matches("password123", "encodedPassword", "10.0.0.1", "testuser");
+        verify(userRepository, never()).updatePassword(anyLong(), anyString(), anyString());
         verify(jwtService).generateToken("testuser", Role.USER);
     }
 
@@ -104,7 +112,7 @@ class UserServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            userService.login(invalidRequest);
+            userService.login(invalidRequest, "10.0.0.1");
         });
         assertEquals("Invalid username or password", exception.getMessage());
     }
@@ -116,7 +124,7 @@ class UserServiceTest {
     void testLoginFailWrongPassword() {
         // Arrange
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches("wrongpassword", "encodedPassword")).thenReturn(false);
+        when(passwordHashingService.matches("wrongpassword", "encodedPassword", "10.0.0.1", "testuser")).thenReturn(false);
 
         AuthRequest wrongPasswordRequest = new AuthRequest();
         wrongPasswordRequest.setUsername("testuser");
@@ -124,11 +132,31 @@ class UserServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            userService.login(wrongPasswordRequest);
+            userService.login(wrongPasswordRequest, "10.0.0.1");
         });
         assertEquals("Invalid username or password", exception.getMessage());
     }
 
+    /**
+     * AUTH-01 (variant): Test login upgrades a hash made with an older work factor.
+     */
+    @Test
+    void testLoginRehashesOutdatedPassword() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("password123", "encodedPassword", "10.0.0.1", "testuser")).thenReturn(true);
+        when(passwordHashingService.needsRehash("encodedPassword")).thenReturn(true);
+        when(passwordHashingService.encode("password123", "10.0.0.1")).thenReturn("rehashedPassword");
+        when(jwtService.generateToken("testuser", Role.USER)).thenReturn("jwt-token");
+
+        // Act
+        AuthResponse response = userService.login(authRequest, "10.0.0.1");
+
+        // Assert
+        assertEquals("jwt-token", response.getToken());
+        verify(userRepository).updatePassword(1L, "encodedPassword", "rehashedPassword");
+    }
+
     /**
      * AUTH-03: Test successful user registration.
      */
@@ -137,7 +165,7 @@ class UserServiceTest {
         // Arrange
         when(userRepository.existsByUsername("newuser")).thenReturn(false);
         when(userRepository.existsByEmail("newuser@example.com")).thenReturn(false);
-        when(passwordEncoder.encode("password123")).thenReturn("encodedNewPassword");
+        when(passwordHashingService.encode("password123", "10.0.0.1")).thenReturn("encodedNewPassword");
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User user = invocation.getArgument(0);
             user.setId(2L);
@@ -146,7 +174,7 @@ class UserServiceTest {
         when(jwtService.generateToken(anyString(), any(Role.class))).thenReturn("new-jwt-token");
 
         // Act
-        AuthResponse response = userService.register(registerRequest);
+        AuthResponse response = userService.register(registerRequest, "10.0.0.1");
 
         // Assert
         assertNotNull(response);
@@ -168,7 +196,7 @@ class UserServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            userService.register(registerRequest);
+            userService.register(registerRequest, "10.0.0.1");
         });
         assertEquals("Username already exists", exception.getMessage());
         verify(userRepository).existsByUsername("newuser");
@@ -186,7 +214,7 @@ class UserServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            userService.register(registerRequest);
+            userService.register(registerRequest, "10.0.0.1");
         });
         assertEquals("Email already exists", exception.getMessage());
         verify(userRepository, never()).save(any(User.class));
@@ -297,5 +325,50 @@ class UserServiceTest {
         });
         assertEquals("User not found", exception.getMessage());
     }
-}
 
+    /**
+     * Test searchUsers - board members ranked first, then other matches up to the limit.
+     */
+    @Test
+    void testSearchUsers_BoardMembersFirst() {
+        // Arrange
+        UserOptionDto member = new UserOptionDto(3L, "bob");
+        when(userRepository.searchBoardMemberOptions("b!_%", 7L, PageRequest.of(0, 2))).thenReturn(List.of(member));
+        when(userRepository.searchOptions("b!_%", PageRequest.of(0, 2)))
+                .thenReturn(List.of(new UserOptionDto(2L, "b_alice"), new UserOptionDto(3L, "bob")));
+
+        // Act
+        List<UserOptionDto> result = userService.searchUsers(" B_ ", 7L, 2, 1L);
+
+        // Assert
+        assertEquals(List.of(3L, 2L), result.stream().map(UserOptionDto::getId).toList());
+        assertTrue(result.get(0).isBoardMember());
+        assertFalse(result.get(1).isBoardMember());
+        verify(boardService).getBoardById(7L, 1L);
+    }
+
+    /**
+     * Test getUsersPage - returns a cursor that resumes after the last listed user.
+     */
+    @Test
+    void testGetUsersPage_ReturnsCursor() {
+        // Arrange
+        when(userRepository.findOptions(PageRequest.of(0, 3)))
+                .thenReturn(List.of(new UserOptionDto(4L, "Alice", "alice"), new UserOptionDto(2L, "Bob", "bob"),
+                        new UserOptionDto(9L, "carol", "carol")));
+        when(userRepository.findOptionsAfter("bob", 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(new UserOptionDto(9L, "carol", "carol")));
+
+        // Act
+        UserOptionPageDto first = userService.getUsersPage(null, 2);
+        UserOptionPageDto second = userService.getUsersPage(first.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, first.getUsers().size());
+        assertTrue(first.isHasMore());
+        assertEquals(List.of("carol"), second.getUsers().stream().map(UserOptionDto::getUsername).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertThrows(RuntimeException.class, () -> userService.getUsersPage("not a cursor", 2));
+    }
+}